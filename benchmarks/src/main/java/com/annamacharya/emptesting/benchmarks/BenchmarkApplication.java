@@ -0,0 +1,46 @@
+package com.annamacharya.emptesting.benchmarks;
+
+import com.annamacharya.emptesting.SpringBootTestingApplication;
+import com.annamacharya.emptesting.service.EmployeeService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Starts the real application against a private in-memory H2 database in MySQL mode, migrated by Flyway the
+ * same way as production, and seeds it with generated employees.
+ */
+final class BenchmarkApplication {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private BenchmarkApplication() {
+    }
+
+    // properties are name=value pairs added to, or overriding, the H2 setup
+    static ConfigurableApplicationContext start(int employees, String... properties) {
+        String database = "bench" + DATABASES.incrementAndGet();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                // as arguments, so they win over the MySQL settings in the application's own properties
+                .run(Stream.concat(Stream.of(
+                        "spring.datasource.url=jdbc:h2:mem:" + database
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.driver-class-name=org.h2.Driver",
+                        "spring.datasource.username=sa",
+                        "spring.datasource.password=",
+                        "spring.r2dbc.url=r2dbc:h2:mem:///" + database
+                                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE;DB_CLOSE_DELAY=-1",
+                        "spring.r2dbc.username=sa",
+                        "spring.r2dbc.password=",
+                        // the sequence is a table in the migrations, as on MySQL
+                        "spring.jpa.database-platform=org.hibernate.dialect.MySQLDialect",
+                        "spring.jpa.show-sql=false",
+                        "server.port=0",
+                        "logging.level.root=WARN"), Stream.of(properties))
+                        .map(property -> "--" + property).toArray(String[]::new));
+        context.getBean(EmployeeService.class).importEmployees(new EmployeeDataGenerator(42).next(employees).iterator());
+        return context;
+    }
+}
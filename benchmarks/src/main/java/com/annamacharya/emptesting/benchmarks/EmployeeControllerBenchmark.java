@@ -0,0 +1,75 @@
+package com.annamacharya.emptesting.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// EmployeeController through MockMvc: request mapping, argument binding and JSON on top of the service
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeControllerBenchmark {
+
+    private static final AtomicLong GENERATORS = new AtomicLong();
+
+    @Param({"10000"})
+    public int employees;
+
+    private ConfigurableApplicationContext context;
+
+    private MockMvc mockMvc;
+
+    private ObjectMapper objectMapper;
+
+    @State(Scope.Thread)
+    public static class NewEmployees {
+
+        final EmployeeDataGenerator generator = new EmployeeDataGenerator(7, "web" + GENERATORS.incrementAndGet() + ".example.com");
+    }
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start(employees);
+        mockMvc = MockMvcBuilders.webAppContextSetup((WebApplicationContext) context).build();
+        objectMapper = context.getBean(ObjectMapper.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public MvcResult getEmployeeById() throws Exception {
+        return mockMvc.perform(get("/api/employees/{id}", 1 + ThreadLocalRandom.current().nextInt(employees))).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult getEmployeesPage() throws Exception {
+        return mockMvc.perform(get("/api/employees")
+                .param("afterId", String.valueOf(ThreadLocalRandom.current().nextInt(employees)))
+                .param("size", "100")).andReturn();
+    }
+
+    @Benchmark
+    public MvcResult createEmployee(NewEmployees newEmployees) throws Exception {
+        return mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsBytes(newEmployees.generator.next()))).andReturn();
+    }
+}
@@ -0,0 +1,129 @@
+package com.annamacharya.emptesting.benchmarks;
+
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.annamacharya.emptesting.enums.Gender;
+import com.annamacharya.emptesting.enums.HireSource;
+import com.annamacharya.emptesting.enums.MaritalStatus;
+import com.annamacharya.emptesting.model.Employee;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Deterministic source of valid employees with a realistic shape: a few large departments and many small
+ * ones, log-normal salaries around a per job title median, and skewed city and hire source distributions.
+ * The same seed always produces the same rows, so runs are comparable. Emails are unique per generator.
+ */
+public class EmployeeDataGenerator implements Iterator<Employee> {
+
+    private static final String[] FIRST_NAMES = {"Ram", "Durga", "Lakshmi", "Arjun", "Ravi", "Priya", "Kiran",
+            "Anil", "Sita", "Mahesh", "Deepa", "Suresh", "Kavya", "Venkat", "Meena", "Rahul"};
+
+    private static final String[] LAST_NAMES = {"Kasala", "Narayan", "Reddy", "Sharma", "Iyer", "Rao", "Naidu",
+            "Gupta", "Pillai", "Menon", "Verma", "Chowdary"};
+
+    // department, weight
+    private static final Object[][] DEPARTMENTS = {{"Engineering", 40}, {"Sales", 20}, {"Operations", 15},
+            {"Finance", 8}, {"Human Resources", 6}, {"Marketing", 6}, {"Legal", 3}, {"Research", 2}};
+
+    // job title, median salary
+    private static final Object[][] JOB_TITLES = {{"Software Engineer", 95_000}, {"Senior Software Engineer", 130_000},
+            {"Engineering Manager", 160_000}, {"Account Executive", 75_000}, {"Analyst", 65_000},
+            {"Operations Specialist", 55_000}, {"Recruiter", 60_000}, {"Counsel", 150_000}};
+
+    // city, state, country, weight
+    private static final Object[][] LOCATIONS = {{"Bangalore", "Karnataka", "India", 35}, {"Hyderabad", "Telangana", "India", 25},
+            {"Chennai", "Tamil Nadu", "India", 15}, {"Pune", "Maharashtra", "India", 10}, {"Austin", "Texas", "USA", 10},
+            {"London", "England", "UK", 5}};
+
+    private final Random random;
+
+    private final String emailDomain;
+
+    private long sequence;
+
+    public EmployeeDataGenerator(long seed) {
+        this(seed, "example.com");
+    }
+
+    public EmployeeDataGenerator(long seed, String emailDomain) {
+        this.random = new Random(seed);
+        this.emailDomain = emailDomain;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return true;
+    }
+
+    @Override
+    public Employee next() {
+        long n = sequence++;
+        String firstName = pick(FIRST_NAMES);
+        String lastName = pick(LAST_NAMES);
+        Object[] jobTitle = JOB_TITLES[random.nextInt(JOB_TITLES.length)];
+        Object[] location = weighted(LOCATIONS, 3);
+        LocalDate hireDate = LocalDate.of(2005, 1, 1).plusDays(random.nextInt(365 * 19));
+        double salary = ((Integer) jobTitle[1]) * Math.exp(random.nextGaussian() * 0.25);
+        return Employee.builder()
+                .firstName(firstName)
+                .lastName(lastName)
+                .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + "." + n + "@" + emailDomain)
+                .phoneNumber(phone())
+                .gender(random.nextBoolean() ? Gender.MALE : Gender.FEMALE)
+                .dateOfBirth(hireDate.minusYears(22 + random.nextInt(20)).minusDays(random.nextInt(365)))
+                .hireDate(hireDate)
+                .jobTitle((String) jobTitle[0])
+                .department((String) weighted(DEPARTMENTS, 1)[0])
+                .salary(BigDecimal.valueOf(salary).setScale(2, RoundingMode.HALF_UP))
+                .address((1 + random.nextInt(999)) + " Main Road")
+                .city((String) location[0])
+                .state((String) location[1])
+                .postalCode(String.valueOf(500_000 + random.nextInt(100_000)))
+                .country((String) location[2])
+                .maritalStatus(random.nextInt(10) < 6 ? MaritalStatus.MARRIED : MaritalStatus.SINGLE)
+                .emergencyContactName(pick(FIRST_NAMES) + " " + lastName)
+                .emergencyContactPhone(phone())
+                .hireSource(random.nextInt(10) < 5 ? HireSource.JOBOARD
+                        : random.nextInt(10) < 6 ? HireSource.REFERRAL : HireSource.INTERNAL_PROMOTION)
+                .employmentStatus(random.nextInt(10) < 8 ? EmploymentStatus.FULL_TIME
+                        : random.nextBoolean() ? EmploymentStatus.PART_TIME : EmploymentStatus.CONTRACTOR)
+                .build();
+    }
+
+    public List<Employee> next(int count) {
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            employees.add(next());
+        }
+        return employees;
+    }
+
+    private String pick(String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private Object[] weighted(Object[][] values, int weightIndex) {
+        int total = 0;
+        for (Object[] value : values) {
+            total += (Integer) value[weightIndex];
+        }
+        int roll = random.nextInt(total);
+        for (Object[] value : values) {
+            roll -= (Integer) value[weightIndex];
+            if (roll < 0) {
+                return value;
+            }
+        }
+        return values[values.length - 1];
+    }
+
+    private String phone() {
+        return "9" + (100_000_000 + random.nextInt(900_000_000));
+    }
+}
@@ -0,0 +1,89 @@
+package com.annamacharya.emptesting.benchmarks;
+
+import com.annamacharya.emptesting.export.ColumnarRowWriter;
+import com.annamacharya.emptesting.export.CsvRowWriter;
+import com.annamacharya.emptesting.export.ExportColumn;
+import com.annamacharya.emptesting.export.RowWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// the export formats without the database: rows already read, written to a stream that discards them
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeExportBenchmark {
+
+    @Param({"100000"})
+    public int rows;
+
+    // deflate level of the on-the-fly gzip, 0 for none
+    @Param({"0", "1", "6"})
+    public int gzipLevel;
+
+    private List<Object[]> table;
+
+    @Setup
+    public void setup() {
+        table = new EmployeeDataGenerator(42).next(rows).stream().map(ExportColumn::toRow).toList();
+    }
+
+    @Benchmark
+    public long csv() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        OutputStream target = target(out);
+        return export(out, target, new CsvRowWriter(target, ExportColumn.EMPLOYEE_COLUMNS, 65536));
+    }
+
+    @Benchmark
+    public long columnar() throws IOException {
+        CountingOutputStream out = new CountingOutputStream();
+        OutputStream target = target(out);
+        return export(out, target, new ColumnarRowWriter(target, ExportColumn.EMPLOYEE_COLUMNS, 8192, 65536));
+    }
+
+    private OutputStream target(CountingOutputStream out) throws IOException {
+        if (gzipLevel == 0) {
+            return out;
+        }
+        return new GZIPOutputStream(out, 65536) {
+            {
+                def.setLevel(gzipLevel);
+            }
+        };
+    }
+
+    // returns the bytes written, so the output size shows up next to the time
+    private long export(CountingOutputStream out, OutputStream target, RowWriter writer) throws IOException {
+        for (Object[] row : table) {
+            writer.write(row);
+        }
+        writer.finish();
+        if (target instanceof GZIPOutputStream compressed) {
+            compressed.finish();
+        }
+        return out.count;
+    }
+
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
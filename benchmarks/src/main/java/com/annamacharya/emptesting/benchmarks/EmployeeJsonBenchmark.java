@@ -0,0 +1,76 @@
+package com.annamacharya.emptesting.benchmarks;
+
+import com.annamacharya.emptesting.model.Employee;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Employee <-> JSON with the mapper Spring Boot configures for the controllers
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeJsonBenchmark {
+
+    @Param({"100"})
+    public int pageSize;
+
+    private ObjectWriter employeeWriter;
+
+    private ObjectReader employeeReader;
+
+    private ObjectWriter pageWriter;
+
+    private ObjectReader pageReader;
+
+    private Employee employee;
+
+    private List<Employee> page;
+
+    private byte[] employeeJson;
+
+    private byte[] pageJson;
+
+    @Setup
+    public void setup() throws IOException {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        employeeWriter = objectMapper.writerFor(Employee.class);
+        employeeReader = objectMapper.readerFor(Employee.class);
+        pageWriter = objectMapper.writerFor(new TypeReference<List<Employee>>() { });
+        pageReader = objectMapper.readerFor(new TypeReference<List<Employee>>() { });
+        EmployeeDataGenerator generator = new EmployeeDataGenerator(42);
+        employee = generator.next();
+        page = generator.next(pageSize);
+        employeeJson = employeeWriter.writeValueAsBytes(employee);
+        pageJson = pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployee() throws IOException {
+        return employeeWriter.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public Employee deserializeEmployee() throws IOException {
+        return employeeReader.readValue(employeeJson);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return pageWriter.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<Employee> deserializePage() throws IOException {
+        return pageReader.readValue(pageJson);
+    }
+}
@@ -0,0 +1,99 @@
+package com.annamacharya.emptesting.benchmarks;
+
+import com.annamacharya.emptesting.exception.EmployeeAlreadyExistsException;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import com.annamacharya.emptesting.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// EmployeeServiceImpl against H2, through the Spring proxies, cache and event listeners the application uses
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    private static final AtomicLong GENERATORS = new AtomicLong();
+
+    @Param({"10000"})
+    public int employees;
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private EmployeeRepository employeeRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    private List<Long> ids;
+
+    @State(Scope.Thread)
+    public static class NewEmployees {
+
+        // a domain per generator keeps emails unique across threads and iterations
+        final EmployeeDataGenerator generator = new EmployeeDataGenerator(7, "gen" + GENERATORS.incrementAndGet() + ".example.com");
+    }
+
+    @Setup
+    public void setup() {
+        context = BenchmarkApplication.start(employees);
+        employeeService = context.getBean(EmployeeService.class);
+        employeeRepository = context.getBean(EmployeeRepository.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+        ids = employeeService.getEmployeesAfter(0L, employees).stream().map(Employee::getId).toList();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object getEmployeeById() {
+        return employeeService.getEmployeeById(randomId());
+    }
+
+    @Benchmark
+    public List<Employee> getEmployeesPage() {
+        return employeeService.getEmployeesAfter(randomId(), 100);
+    }
+
+    @Benchmark
+    public Employee createEmployee(NewEmployees newEmployees) {
+        return employeeService.saveEmployee(newEmployees.generator.next());
+    }
+
+    // the create flow before the unique index: look the email up, then insert, two round trips per employee
+    @Benchmark
+    public Employee createEmployeeWithEmailPrecheck(NewEmployees newEmployees) {
+        Employee employee = newEmployees.generator.next();
+        return transactionTemplate.execute(status -> {
+            if (employeeRepository.findByEmail(employee.getEmail()).isPresent()) {
+                throw new EmployeeAlreadyExistsException("Employee already exist with given email:" + employee.getEmail());
+            }
+            return employeeRepository.save(employee);
+        });
+    }
+
+    @Benchmark
+    public Employee updateEmployee() {
+        Employee employee = employeeService.getEmployeeById(randomId()).orElseThrow();
+        employee.setSalary(employee.getSalary().add(BigDecimal.ONE));
+        return employeeService.updateEmployee(employee);
+    }
+
+    private long randomId() {
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+}
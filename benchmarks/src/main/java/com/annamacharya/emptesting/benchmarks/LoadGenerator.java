@@ -0,0 +1,152 @@
+package com.annamacharya.emptesting.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Closed-loop HTTP load against the employee API, for comparing request execution modes under concurrency.
+ * Arguments: {@code <platform|virtual|base url> [concurrency=200] [seconds=30] [employees=10000] [api=/api/employees]};
+ * pass {@code /api/reactive/employees} as api to load the reactive stack instead.
+ * With a mode, the application is started on H2 with {@code employees.execution.mode} set accordingly; with a
+ * base url an already running instance is measured (point it at MySQL for realistic database waits).
+ * Each client loops over 80% GET by id and 20% GET of a 100 row page. Throughput and latency percentiles of
+ * the measured phase are printed and written as JSON to target/load-results/.
+ */
+public final class LoadGenerator {
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+
+    public record LoadResult(String target, String api, int concurrency, double seconds, long requests, long errors,
+                             double throughputPerSecond, double p50Millis, double p90Millis, double p99Millis,
+                             double maxMillis) {
+    }
+
+    private LoadGenerator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String target = args.length > 0 ? args[0] : "platform";
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        int employees = args.length > 3 ? Integer.parseInt(args[3]) : 10_000;
+        String api = args.length > 4 ? args[4] : "/api/employees";
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = target;
+        if (!target.startsWith("http")) {
+            context = BenchmarkApplication.start(employees, "employees.execution.mode=" + target);
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+        try {
+            HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            run(client, baseUrl + api, concurrency, WARMUP, employees);
+            LoadResult result = run(client, baseUrl + api, concurrency, duration, employees)
+                    .toResult(target, api, concurrency, duration);
+
+            ObjectMapper objectMapper = new ObjectMapper();
+            String json = objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(result);
+            System.out.println(json);
+            Path results = Files.createDirectories(Path.of("target", "load-results"));
+            String name = (target + api).replaceAll("\\W+", "_") + "-"
+                    + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json";
+            Files.writeString(results.resolve(name), json);
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static Recorder run(HttpClient httpClient, String apiUrl, int concurrency, Duration duration, int employees)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        List<Recorder> recorders = new ArrayList<>();
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            Recorder recorder = new Recorder();
+            recorders.add(recorder);
+            // plain platform threads on the client side, so only the server's execution mode varies
+            Thread client = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    String path = random.nextInt(10) < 8
+                            ? "/" + (1 + random.nextInt(employees))
+                            : "?size=100&afterId=" + random.nextInt(employees);
+                    HttpRequest request = HttpRequest.newBuilder(URI.create(apiUrl + path)).GET().build();
+                    long started = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                        recorder.record(System.nanoTime() - started, response.statusCode() == 200);
+                    } catch (Exception e) {
+                        recorder.record(System.nanoTime() - started, false);
+                    }
+                }
+            }, "load-client-" + i);
+            client.start();
+            clients.add(client);
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+        Recorder total = new Recorder();
+        recorders.forEach(total::addAll);
+        return total;
+    }
+
+    // latencies of successful requests in nanoseconds, plus an error count
+    private static final class Recorder {
+
+        private long[] latencies = new long[1024];
+
+        private int size;
+
+        private long errors;
+
+        void record(long latencyNanos, boolean ok) {
+            if (!ok) {
+                errors++;
+                return;
+            }
+            if (size == latencies.length) {
+                latencies = Arrays.copyOf(latencies, size * 2);
+            }
+            latencies[size++] = latencyNanos;
+        }
+
+        void addAll(Recorder other) {
+            for (int i = 0; i < other.size; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        LoadResult toResult(String target, String api, int concurrency, Duration duration) {
+            long[] sorted = Arrays.copyOf(latencies, size);
+            Arrays.sort(sorted);
+            double seconds = duration.toMillis() / 1000.0;
+            return new LoadResult(target, api, concurrency, seconds, size, errors, size / seconds,
+                    millis(sorted, 0.50), millis(sorted, 0.90), millis(sorted, 0.99), millis(sorted, 1.0));
+        }
+
+        private static double millis(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) (quantile * (sorted.length - 1))] / 1_000_000.0;
+        }
+    }
+}
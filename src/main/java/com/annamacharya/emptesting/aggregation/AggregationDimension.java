@@ -0,0 +1,22 @@
+package com.annamacharya.emptesting.aggregation;
+
+import com.annamacharya.emptesting.model.Employee;
+
+import java.util.function.Function;
+
+public enum AggregationDimension {
+    DEPARTMENT(Employee::getDepartment),
+    CITY(Employee::getCity),
+    STATE(Employee::getState),
+    COUNTRY(Employee::getCountry);
+
+    private final Function<Employee, String> extractor;
+
+    AggregationDimension(Function<Employee, String> extractor) {
+        this.extractor = extractor;
+    }
+
+    public String valueOf(Employee employee) {
+        return extractor.apply(employee);
+    }
+}
@@ -0,0 +1,99 @@
+package com.annamacharya.emptesting.aggregation;
+
+import com.annamacharya.emptesting.dto.RollupResult;
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.annamacharya.emptesting.enums.Gender;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.view.EmployeeView;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Materialized headcount, salary and breakdown rollups per department, city, state and country.
+ * The fields each employee last contributed are remembered, so an update or delete is applied as an exact
+ * delta against the groups it touched instead of recomputing anything.
+ */
+@Component
+public class EmployeeRollups implements EmployeeView {
+
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    private final Map<AggregationDimension, Map<String, Rollup>> rollups = new EnumMap<>(AggregationDimension.class);
+
+    public EmployeeRollups() {
+        for (AggregationDimension dimension : AggregationDimension.values()) {
+            rollups.put(dimension, new HashMap<>());
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        contributions.clear();
+        rollups.values().forEach(Map::clear);
+    }
+
+    @Override
+    public synchronized void upsert(Employee employee) {
+        Contribution contribution = Contribution.of(employee);
+        Contribution previous = contributions.put(employee.getId(), contribution);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+        apply(contribution, 1);
+    }
+
+    @Override
+    public synchronized void remove(long employeeId) {
+        Contribution previous = contributions.remove(employeeId);
+        if (previous != null) {
+            apply(previous, -1);
+        }
+    }
+
+    public synchronized List<RollupResult> rollups(AggregationDimension dimension) {
+        return new TreeMap<>(rollups.get(dimension)).entrySet().stream()
+                .map(entry -> entry.getValue().toResult(entry.getKey()))
+                .toList();
+    }
+
+    public synchronized Optional<RollupResult> rollup(AggregationDimension dimension, String key) {
+        return Optional.ofNullable(rollups.get(dimension).get(key)).map(rollup -> rollup.toResult(key));
+    }
+
+    private void apply(Contribution contribution, int sign) {
+        for (AggregationDimension dimension : AggregationDimension.values()) {
+            String key = contribution.keys().get(dimension);
+            if (key == null) {
+                continue;
+            }
+            Map<String, Rollup> groups = rollups.get(dimension);
+            Rollup rollup = groups.computeIfAbsent(key, k -> new Rollup());
+            rollup.add(contribution, sign);
+            if (rollup.isEmpty()) {
+                groups.remove(key);
+            }
+        }
+    }
+
+    record Contribution(Map<AggregationDimension, String> keys, BigDecimal salary, Gender gender,
+                        EmploymentStatus employmentStatus) {
+
+        static Contribution of(Employee employee) {
+            Map<AggregationDimension, String> keys = new EnumMap<>(AggregationDimension.class);
+            for (AggregationDimension dimension : AggregationDimension.values()) {
+                String key = dimension.valueOf(employee);
+                if (key != null) {
+                    keys.put(dimension, key);
+                }
+            }
+            return new Contribution(keys, employee.getSalary(), employee.getGender(), employee.getEmploymentStatus());
+        }
+    }
+}
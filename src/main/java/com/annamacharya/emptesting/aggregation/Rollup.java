@@ -0,0 +1,47 @@
+package com.annamacharya.emptesting.aggregation;
+
+import com.annamacharya.emptesting.dto.RollupResult;
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.annamacharya.emptesting.enums.Gender;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.EnumMap;
+import java.util.Map;
+
+// running totals for one group; contributions are added and subtracted as employees come and go
+class Rollup {
+
+    private long headcount;
+
+    private BigDecimal totalSalary = BigDecimal.ZERO;
+
+    private final Map<Gender, Long> genders = new EnumMap<>(Gender.class);
+
+    private final Map<EmploymentStatus, Long> employmentStatuses = new EnumMap<>(EmploymentStatus.class);
+
+    void add(EmployeeRollups.Contribution contribution, int sign) {
+        headcount += sign;
+        if (contribution.salary() != null) {
+            totalSalary = sign > 0 ? totalSalary.add(contribution.salary()) : totalSalary.subtract(contribution.salary());
+        }
+        if (contribution.gender() != null) {
+            genders.merge(contribution.gender(), (long) sign, Long::sum);
+            genders.values().removeIf(count -> count == 0);
+        }
+        if (contribution.employmentStatus() != null) {
+            employmentStatuses.merge(contribution.employmentStatus(), (long) sign, Long::sum);
+            employmentStatuses.values().removeIf(count -> count == 0);
+        }
+    }
+
+    boolean isEmpty() {
+        return headcount == 0;
+    }
+
+    RollupResult toResult(String key) {
+        BigDecimal average = headcount == 0 ? BigDecimal.ZERO
+                : totalSalary.divide(BigDecimal.valueOf(headcount), 2, RoundingMode.HALF_UP);
+        return new RollupResult(key, headcount, totalSalary, average, new EnumMap<>(genders), new EnumMap<>(employmentStatuses));
+    }
+}
@@ -0,0 +1,113 @@
+package com.annamacharya.emptesting.archive;
+
+import com.annamacharya.emptesting.dto.ArchivedEmployee;
+import com.annamacharya.emptesting.export.ExportColumn;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.model.UtcInstantConverter;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardContext;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the employees archive jobs have moved out of the employees table (see {@code EmployeeBulkOperations}).
+ * Archived rows are never written again, so reads go through plain JDBC without entities, each in a read-only
+ * transaction that a read replica can serve. An archived employee stays on the shard it was archived from; on
+ * MySQL the archive table is partitioned by hire year, so a hire date range only reads the partitions of its
+ * years.
+ */
+@Service
+public class EmployeeArchive {
+
+    private static final List<ExportColumn> COLUMNS = ExportColumn.EMPLOYEE_COLUMNS;
+
+    private static final String SELECT = COLUMNS.stream().map(ExportColumn::sqlColumn)
+            .collect(Collectors.joining(", ", "SELECT ", ", version, last_modified, archived_at FROM employees_archive"));
+
+    private static final UtcInstantConverter UTC = new UtcInstantConverter();
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EmployeeShards employeeShards;
+
+    private final TransactionTemplate readOnlyTransactions;
+
+    public EmployeeArchive(DataSource dataSource, EmployeeShards employeeShards,
+                           PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.employeeShards = employeeShards;
+        this.readOnlyTransactions = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactions.setReadOnly(true);
+        this.readOnlyTransactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public Optional<ArchivedEmployee> findById(long id) {
+        return onShard(employeeShards.shardOf(id),
+                () -> jdbcTemplate.query(SELECT + " WHERE id = ?", EmployeeArchive::mapRow, id))
+                .stream()
+                .findFirst();
+    }
+
+    // the next limit archived employees after afterId in id order, hired from hiredFrom up to (not including)
+    // hiredTo when given. The shards' id ranges follow each other, so the page is filled from the shard of
+    // afterId on
+    public List<ArchivedEmployee> findAfter(long afterId, LocalDate hiredFrom, LocalDate hiredTo, int limit) {
+        StringBuilder sql = new StringBuilder(SELECT).append(" WHERE id > ?");
+        List<Object> arguments = new ArrayList<>();
+        arguments.add(afterId);
+        if (hiredFrom != null) {
+            sql.append(" AND hire_date >= ?");
+            arguments.add(hiredFrom);
+        }
+        if (hiredTo != null) {
+            sql.append(" AND hire_date < ?");
+            arguments.add(hiredTo);
+        }
+        sql.append(" ORDER BY id LIMIT ?");
+        List<ArchivedEmployee> page = new ArrayList<>(limit);
+        for (int shard = employeeShards.shardOf(afterId); shard < employeeShards.count() && page.size() < limit; shard++) {
+            Object[] shardArguments = arguments.toArray(new Object[arguments.size() + 1]);
+            shardArguments[arguments.size()] = limit - page.size();
+            page.addAll(onShard(shard, () -> jdbcTemplate.query(sql.toString(), EmployeeArchive::mapRow, shardArguments)));
+        }
+        return page;
+    }
+
+    private <T> T onShard(int shard, Supplier<T> query) {
+        Integer previous = ShardContext.open(shard);
+        try {
+            return readOnlyTransactions.execute(status -> query.get());
+        } finally {
+            ShardContext.close(previous);
+        }
+    }
+
+    private static ArchivedEmployee mapRow(ResultSet resultSet, int rowNum) throws SQLException {
+        // enum columns hold the constant names, which the bean wrapper converts back
+        BeanWrapper employee = new BeanWrapperImpl(new Employee());
+        for (int i = 0; i < COLUMNS.size(); i++) {
+            employee.setPropertyValue(COLUMNS.get(i).name(), COLUMNS.get(i).read(resultSet, i + 1));
+        }
+        employee.setPropertyValue("version", resultSet.getLong(COLUMNS.size() + 1));
+        employee.setPropertyValue("lastModified",
+                UTC.convertToEntityAttribute(resultSet.getObject(COLUMNS.size() + 2, LocalDateTime.class)));
+        return new ArchivedEmployee((Employee) employee.getWrappedInstance(),
+                UTC.convertToEntityAttribute(resultSet.getObject(COLUMNS.size() + 3, LocalDateTime.class)));
+    }
+}
@@ -0,0 +1,79 @@
+package com.annamacharya.emptesting.archive;
+
+import com.annamacharya.emptesting.bulk.EmployeeBulkOperations;
+import com.annamacharya.emptesting.dto.BulkJobStatus;
+import com.annamacharya.emptesting.dto.BulkJobStatus.State;
+import com.annamacharya.emptesting.dto.EmployeeFilter;
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+// keeps the employees table to current employees: every interval the employees matching the archive policy are
+// moved to employees_archive by bulk archive jobs, chunk by chunk in the background. Off unless
+// employees.archive.enabled is set, which is meant for one designated node
+@Service
+public class EmployeeArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeArchiver.class);
+
+    private final EmployeeBulkOperations bulkOperations;
+
+    private final boolean enabled;
+
+    private final boolean terminated;
+
+    private final int hiredYearsAgo;
+
+    // the jobs of the last run
+    private List<String> jobIds = List.of();
+
+    public EmployeeArchiver(EmployeeBulkOperations bulkOperations,
+                            @Value("${employees.archive.enabled:false}") boolean enabled,
+                            @Value("${employees.archive.terminated:true}") boolean terminated,
+                            @Value("${employees.archive.hired-years-ago:0}") int hiredYearsAgo) {
+        this.bulkOperations = bulkOperations;
+        this.enabled = enabled;
+        this.terminated = terminated;
+        this.hiredYearsAgo = hiredYearsAgo;
+    }
+
+    // terminated employees, and employees hired more than hired-years-ago years ago (0 turns that off)
+    public List<EmployeeFilter> policy() {
+        List<EmployeeFilter> policy = new ArrayList<>();
+        if (terminated) {
+            policy.add(new EmployeeFilter(null, null, null, EmploymentStatus.TERMINATED, null));
+        }
+        if (hiredYearsAgo > 0) {
+            policy.add(new EmployeeFilter(null, null, null, null, LocalDate.now().minusYears(hiredYearsAgo)));
+        }
+        return policy;
+    }
+
+    // a run is skipped while a job of the previous one is still going
+    @Scheduled(initialDelayString = "${employees.archive.interval-ms:86400000}",
+            fixedDelayString = "${employees.archive.interval-ms:86400000}")
+    public synchronized void archive() {
+        if (!enabled) {
+            return;
+        }
+        boolean running = jobIds.stream()
+                .flatMap(jobId -> bulkOperations.status(jobId).stream())
+                .map(BulkJobStatus::state)
+                .anyMatch(state -> state == State.QUEUED || state == State.RUNNING);
+        if (running) {
+            log.info("Archive jobs {} are still running, skipping this run", jobIds);
+            return;
+        }
+        jobIds = policy().stream().map(filter -> bulkOperations.submitArchive(filter).id()).toList();
+        if (!jobIds.isEmpty()) {
+            log.info("Submitted archive jobs {}", jobIds);
+        }
+    }
+}
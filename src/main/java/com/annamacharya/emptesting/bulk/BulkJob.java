@@ -0,0 +1,101 @@
+package com.annamacharya.emptesting.bulk;
+
+import com.annamacharya.emptesting.dto.BulkJobStatus;
+import com.annamacharya.emptesting.dto.BulkJobStatus.Operation;
+import com.annamacharya.emptesting.dto.BulkJobStatus.State;
+import com.annamacharya.emptesting.dto.EmployeeFilter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+// one submitted bulk operation; progress is written by the job's worker thread and read by status requests
+final class BulkJob {
+
+    private final String id = UUID.randomUUID().toString();
+
+    private final Operation operation;
+
+    private final EmployeeFilter filter;
+
+    private final Map<String, Object> values;
+
+    private final BigDecimal salaryFactor;
+
+    private final Instant submittedAt = Instant.now();
+
+    private volatile State state = State.QUEUED;
+
+    private volatile long total;
+
+    private volatile long processed;
+
+    private volatile long affected;
+
+    private volatile Instant finishedAt;
+
+    private volatile String error;
+
+    private volatile boolean cancelRequested;
+
+    BulkJob(Operation operation, EmployeeFilter filter, Map<String, Object> values, BigDecimal salaryFactor) {
+        this.operation = operation;
+        this.filter = filter;
+        this.values = values;
+        this.salaryFactor = salaryFactor;
+    }
+
+    String id() {
+        return id;
+    }
+
+    Operation operation() {
+        return operation;
+    }
+
+    EmployeeFilter filter() {
+        return filter;
+    }
+
+    Map<String, Object> values() {
+        return values;
+    }
+
+    BigDecimal salaryFactor() {
+        return salaryFactor;
+    }
+
+    boolean cancelRequested() {
+        return cancelRequested;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    void started(long total) {
+        this.total = total;
+        state = State.RUNNING;
+    }
+
+    void progressed(int processed, int affected) {
+        this.processed += processed;
+        this.affected += affected;
+    }
+
+    void finished(State state, String error) {
+        this.error = error;
+        finishedAt = Instant.now();
+        this.state = state;
+    }
+
+    boolean finishedBefore(Instant instant) {
+        Instant finished = finishedAt;
+        return finished != null && finished.isBefore(instant);
+    }
+
+    BulkJobStatus status() {
+        return new BulkJobStatus(id, operation, state, total, processed, affected, submittedAt, finishedAt, error);
+    }
+}
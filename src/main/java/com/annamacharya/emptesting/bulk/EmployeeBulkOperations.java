@@ -0,0 +1,203 @@
+package com.annamacharya.emptesting.bulk;
+
+import com.annamacharya.emptesting.cache.EmployeeCache;
+import com.annamacharya.emptesting.dto.BulkJobStatus;
+import com.annamacharya.emptesting.dto.BulkJobStatus.Operation;
+import com.annamacharya.emptesting.dto.BulkJobStatus.State;
+import com.annamacharya.emptesting.dto.EmployeeFilter;
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs bulk updates, deletes and archiving in the background as a series of set-based statements.
+ * <p>
+ * Each chunk is its own transaction: the next {@code chunk-size} matching ids are locked in id order, then
+ * updated or deleted with a single statement; archiving copies them into the archive table with one statement
+ * and deletes them with another. The chunk publishes the usual per-employee change events (an archived employee
+ * is deleted as far as they are concerned), so the near cache, the in-memory views, the change feed and the
+ * outbox see a bulk write like any other; for updates that takes one extra SELECT per chunk to read back the new
+ * state. A failed chunk rolls back on its own and ends the job, leaving the chunks before it applied.
+ */
+@Service
+public class EmployeeBulkOperations {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeBulkOperations.class);
+
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final EmployeeRepository employeeRepository;
+
+    private final EmployeeShards employeeShards;
+
+    private final EmployeeCache employeeCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionOperations transactions;
+
+    private final Validator validator;
+
+    private final int chunkSize;
+
+    private final Duration jobRetention;
+
+    private final Map<String, BulkJob> jobs = new ConcurrentHashMap<>();
+
+    private final ExecutorService workers;
+
+    public EmployeeBulkOperations(EmployeeRepository employeeRepository, EmployeeShards employeeShards,
+                                  EmployeeCache employeeCache,
+                                  ApplicationEventPublisher eventPublisher, TransactionOperations transactions,
+                                  Validator validator,
+                                  @Value("${employees.bulk.chunk-size:500}") int chunkSize,
+                                  @Value("${employees.bulk.parallel-jobs:1}") int parallelJobs,
+                                  @Value("${employees.bulk.job-retention:1h}") Duration jobRetention) {
+        this.employeeRepository = employeeRepository;
+        this.employeeShards = employeeShards;
+        this.employeeCache = employeeCache;
+        this.eventPublisher = eventPublisher;
+        this.transactions = transactions;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.jobRetention = jobRetention;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("employee-bulk-");
+        threadFactory.setDaemon(true);
+        this.workers = Executors.newFixedThreadPool(parallelJobs, threadFactory);
+    }
+
+    // values are new attribute values to assign; raiseSalaryPercent (may be negative) scales every salary
+    public BulkJobStatus submitUpdate(EmployeeFilter filter, Map<String, Object> values, BigDecimal raiseSalaryPercent) {
+        Set<ConstraintViolation<Employee>> violations = new HashSet<>();
+        values.forEach((attribute, value) -> violations.addAll(validator.validateValue(Employee.class, attribute, value)));
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+        BigDecimal salaryFactor = raiseSalaryPercent == null ? null
+                : BigDecimal.ONE.add(raiseSalaryPercent.divide(HUNDRED, MathContext.DECIMAL64));
+        return submit(new BulkJob(Operation.UPDATE, filter, Map.copyOf(values), salaryFactor));
+    }
+
+    public BulkJobStatus submitDelete(EmployeeFilter filter) {
+        return submit(new BulkJob(Operation.DELETE, filter, Map.of(), null));
+    }
+
+    // the matching employees move to employees_archive; to the rest of the application they are deleted
+    public BulkJobStatus submitArchive(EmployeeFilter filter) {
+        return submit(new BulkJob(Operation.ARCHIVE, filter, Map.of(), null));
+    }
+
+    public Optional<BulkJobStatus> status(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(BulkJob::status);
+    }
+
+    // the job stops after the chunk it is working on; what was applied so far stays
+    public Optional<BulkJobStatus> cancel(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(job -> {
+            job.requestCancel();
+            return job.status();
+        });
+    }
+
+    @PreDestroy
+    public void stop() {
+        workers.shutdownNow();
+    }
+
+    private BulkJobStatus submit(BulkJob job) {
+        if (job.filter() == null || job.filter().isEmpty()) {
+            throw new IllegalArgumentException("A bulk operation needs a filter");
+        }
+        Instant expired = Instant.now().minus(jobRetention);
+        jobs.values().removeIf(finished -> finished.finishedBefore(expired));
+        jobs.put(job.id(), job);
+        workers.execute(() -> run(job));
+        return job.status();
+    }
+
+    void run(BulkJob job) {
+        try {
+            job.started(employeeRepository.countMatching(job.filter()));
+            long afterId = 0;
+            while (!job.cancelRequested()) {
+                Chunk chunk = applyChunk(job, afterId);
+                if (!chunk.ids().isEmpty()) {
+                    job.progressed(chunk.ids().size(), chunk.affected());
+                    afterId = chunk.ids().get(chunk.ids().size() - 1);
+                }
+                if (chunk.ids().size() < chunkSize) {
+                    // a chunk stays on one shard; once that shard is done go on in the next shard's id range
+                    int nextShard = employeeShards.shardOf(afterId) + 1;
+                    if (nextShard >= employeeShards.count()) {
+                        break;
+                    }
+                    afterId = EmployeeShards.rangeStart(nextShard);
+                }
+            }
+            job.finished(job.cancelRequested() ? State.CANCELLED : State.COMPLETED, null);
+        } catch (RuntimeException e) {
+            log.warn("Bulk {} {} failed", job.operation(), job.id(), e);
+            job.finished(State.FAILED, e.getMessage());
+        }
+    }
+
+    // the ids of the chunk are empty once nothing matches after afterId
+    private Chunk applyChunk(BulkJob job, long afterId) {
+        return transactions.execute(status -> {
+            List<Long> ids = employeeRepository.lockIdsAfter(job.filter(), afterId, chunkSize);
+            if (ids.isEmpty()) {
+                return new Chunk(ids, 0);
+            }
+            employeeCache.invalidateAll(ids);
+            int affected;
+            switch (job.operation()) {
+                case DELETE -> {
+                    employeeRepository.deleteAllByIdInBatch(ids);
+                    affected = ids.size();
+                    ids.forEach(id -> eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id)));
+                }
+                case ARCHIVE -> {
+                    affected = employeeRepository.archiveAll(ids, Instant.now().truncatedTo(ChronoUnit.MICROS));
+                    employeeRepository.deleteAllByIdInBatch(ids);
+                    ids.forEach(id -> eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id)));
+                }
+                default -> {
+                    affected = employeeRepository.updateAll(ids, job.values(), job.salaryFactor(),
+                            Instant.now().truncatedTo(ChronoUnit.MICROS));
+                    employeeRepository.findAllById(ids)
+                            .forEach(employee -> eventPublisher.publishEvent(EmployeeChangedEvent.updated(employee)));
+                }
+            }
+            return new Chunk(ids, affected);
+        });
+    }
+
+    private record Chunk(List<Long> ids, int affected) {
+    }
+}
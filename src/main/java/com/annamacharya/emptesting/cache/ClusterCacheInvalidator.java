@@ -0,0 +1,76 @@
+package com.annamacharya.emptesting.cache;
+
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.view.EmployeeViewMaintainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the near caches and the in-memory views (search index, rollups, salary statistics) of all nodes
+ * coherent. Ids written on this node are collected after commit and broadcast as one message per flush
+ * interval (or as soon as a batch fills up), so a burst of writes costs one message rather than one per row.
+ * Messages from other nodes evict the listed ids from the local cache and have the views read them back.
+ */
+@Component
+public class ClusterCacheInvalidator {
+
+    private final EmployeeCache employeeCache;
+
+    private final EmployeeViewMaintainer viewMaintainer;
+
+    private final InvalidationChannel channel;
+
+    private final String nodeId;
+
+    private final int maxBatchSize;
+
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+
+    public ClusterCacheInvalidator(EmployeeCache employeeCache,
+                                   EmployeeViewMaintainer viewMaintainer,
+                                   InvalidationChannel channel,
+                                   @Value("${employees.cache.invalidation.node-id:${random.uuid}}") String nodeId,
+                                   @Value("${employees.cache.invalidation.max-batch-size:500}") int maxBatchSize) {
+        this.employeeCache = employeeCache;
+        this.viewMaintainer = viewMaintainer;
+        this.channel = channel;
+        this.nodeId = nodeId;
+        this.maxBatchSize = maxBatchSize;
+        channel.subscribe(this::receive);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        pending.add(event.employeeId());
+        if (pending.size() >= maxBatchSize) {
+            flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${employees.cache.invalidation.flush-interval-ms:50}")
+    public void flush() {
+        List<Long> batch = new ArrayList<>();
+        for (Iterator<Long> ids = pending.iterator(); ids.hasNext(); ) {
+            batch.add(ids.next());
+            ids.remove();
+        }
+        if (!batch.isEmpty()) {
+            channel.publish(new InvalidationMessage(nodeId, batch));
+        }
+    }
+
+    public void receive(InvalidationMessage message) {
+        if (!nodeId.equals(message.nodeId())) {
+            employeeCache.invalidateAll(message.employeeIds());
+            viewMaintainer.refresh(message.employeeIds());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.annamacharya.emptesting.cache;
+
+import com.annamacharya.emptesting.dto.CacheStatistics;
+import com.annamacharya.emptesting.dto.EmployeeVersion;
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.model.Employee;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.LongFunction;
+
+/**
+ * Size and TTL bounded near cache for employees by id. Misses for the same id are collapsed into a
+ * single load, and absent ids are cached too so repeated 404s do not reach the database.
+ * Entries are refreshed from {@link EmployeeChangedEvent}s once the writing transaction commits.
+ * Callers always get a copy, so mutating a returned employee never leaks into the cache.
+ */
+@Component
+public class EmployeeCache {
+
+    private final Cache<Long, Optional<Employee>> cache;
+
+    public EmployeeCache(@Value("${employees.cache.maximum-size:10000}") long maximumSize,
+                         @Value("${employees.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    public Optional<Employee> get(long id, LongFunction<Optional<Employee>> loader) {
+        return cache.get(id, key -> loader.apply(key).map(EmployeeCache::copy)).map(EmployeeCache::copy);
+    }
+
+    // a copy of the cached employee, without loading it on a miss
+    public Optional<Employee> getIfPresent(long id) {
+        Optional<Employee> cached = cache.getIfPresent(id);
+        return cached == null ? Optional.empty() : cached.map(EmployeeCache::copy);
+    }
+
+    // the version of a cached employee, without copying it; empty when the id is not cached as present
+    public Optional<EmployeeVersion> cachedVersion(long id) {
+        Optional<Employee> cached = cache.getIfPresent(id);
+        return cached == null ? Optional.empty()
+                : cached.map(employee -> new EmployeeVersion(employee.getId(), employee.getVersion(), employee.getLastModified()));
+    }
+
+    public void put(Employee employee) {
+        cache.put(employee.getId(), Optional.of(copy(employee)));
+    }
+
+    public void invalidate(long id) {
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll(Iterable<Long> ids) {
+        cache.invalidateAll(ids);
+    }
+
+    public CacheStatistics statistics() {
+        CacheStats stats = cache.stats();
+        return new CacheStatistics(cache.estimatedSize(), stats.hitCount(), stats.missCount(), stats.hitRate(),
+                stats.loadCount(), stats.evictionCount());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.employee() != null) {
+            put(event.employee());
+        } else {
+            invalidate(event.employeeId());
+        }
+    }
+
+    private static Employee copy(Employee employee) {
+        return employee.toBuilder().build();
+    }
+}
@@ -0,0 +1,67 @@
+package com.annamacharya.emptesting.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Sends each batch to the configured peers as {@code POST /api/admin/cache/invalidations}.
+ * Delivery is fire-and-forget; a peer that misses a message catches up when its entries expire.
+ */
+public class HttpInvalidationChannel implements InvalidationChannel {
+
+    private static final Logger log = LoggerFactory.getLogger(HttpInvalidationChannel.class);
+
+    private final List<URI> peers;
+
+    private final ObjectMapper objectMapper;
+
+    private final HttpClient httpClient;
+
+    public HttpInvalidationChannel(List<String> peers, ObjectMapper objectMapper) {
+        this.peers = peers.stream()
+                .map(peer -> URI.create(peer.replaceAll("/+$", "") + "/api/admin/cache/invalidations"))
+                .toList();
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+    }
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        for (URI peer : peers) {
+            HttpRequest request = HttpRequest.newBuilder(peer)
+                    .timeout(Duration.ofSeconds(2))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                    .build();
+            httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        if (error != null) {
+                            log.warn("Cache invalidation to {} failed: {}", peer, error.toString());
+                        } else if (response.statusCode() >= 300) {
+                            log.warn("Cache invalidation to {} returned {}", peer, response.statusCode());
+                        }
+                    });
+        }
+    }
+
+    // inbound messages arrive through CacheController, which hands them to ClusterCacheInvalidator
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> subscriber) {
+    }
+}
@@ -0,0 +1,15 @@
+package com.annamacharya.emptesting.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Transport that carries cache invalidations between the nodes of a deployment.
+ * Implementations deliver every published message to the subscribers of every node,
+ * including the sender; receivers skip their own messages by node id.
+ */
+public interface InvalidationChannel {
+
+    void publish(InvalidationMessage message);
+
+    void subscribe(Consumer<InvalidationMessage> subscriber);
+}
@@ -0,0 +1,7 @@
+package com.annamacharya.emptesting.cache;
+
+import java.util.Collection;
+
+// one coalesced batch of employee ids changed on node {@code nodeId}
+public record InvalidationMessage(String nodeId, Collection<Long> employeeIds) {
+}
@@ -0,0 +1,24 @@
+package com.annamacharya.emptesting.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-JVM channel: messages are handed straight to every subscriber on the publishing thread.
+ * A single node gets a no-op bus; tests share one instance between several nodes to simulate a cluster.
+ */
+public class LoopbackInvalidationChannel implements InvalidationChannel {
+
+    private final List<Consumer<InvalidationMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(InvalidationMessage message) {
+        subscribers.forEach(subscriber -> subscriber.accept(message));
+    }
+
+    @Override
+    public void subscribe(Consumer<InvalidationMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+}
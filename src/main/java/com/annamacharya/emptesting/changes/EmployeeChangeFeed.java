@@ -0,0 +1,182 @@
+package com.annamacharya.emptesting.changes;
+
+import com.annamacharya.emptesting.dto.EmployeeChangesPage;
+import com.annamacharya.emptesting.enums.ChangeType;
+import com.annamacharya.emptesting.exception.SyncTokenExpiredException;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.model.EmployeeChange;
+import com.annamacharya.emptesting.repository.EmployeeChangeRepository;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Reads the change log for delta sync consumers.
+ * <p>
+ * Change ids are handed out at insert time but become visible at commit, so a change with a lower id can show
+ * up after a higher one has been read. Changes are therefore only served once they are older than the
+ * visibility lag, which has to exceed the time from inserting a change to its commit. {@link EmployeeChangeRecorder}
+ * inserts a transaction's changes right before it commits, so that is the time of one batch insert and a commit,
+ * not the length of the transaction.
+ * <p>
+ * Every shard logs the changes of its own employees with ids of its own, so a {@link SyncToken} holds a position
+ * per shard. Each shard is read in a transaction of its own (a transaction stays on one shard) and a page takes
+ * the shards' changes in the order they were made.
+ */
+@Service
+public class EmployeeChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeChangeFeed.class);
+
+    private final EmployeeChangeRepository changeRepository;
+
+    private final EmployeeRepository employeeRepository;
+
+    private final EmployeeShards employeeShards;
+
+    private final Duration visibilityLag;
+
+    private final Duration retention;
+
+    public EmployeeChangeFeed(EmployeeChangeRepository changeRepository, EmployeeRepository employeeRepository,
+                              EmployeeShards employeeShards,
+                              @Value("${employees.changes.visibility-lag:2s}") Duration visibilityLag,
+                              @Value("${employees.changes.retention:7d}") Duration retention) {
+        this.changeRepository = changeRepository;
+        this.employeeRepository = employeeRepository;
+        this.employeeShards = employeeShards;
+        this.visibilityLag = visibilityLag;
+        this.retention = retention;
+    }
+
+    // where a new consumer starts: after everything recorded so far; it then takes a full export and syncs from here
+    public SyncToken head() {
+        List<Long> sequences = new ArrayList<>(employeeShards.count());
+        for (int shard = 0; shard < employeeShards.count(); shard++) {
+            sequences.add(onShard(shard, changeRepository::findLatestId));
+        }
+        return new SyncToken(sequences, Instant.now());
+    }
+
+    public EmployeeChangesPage changesSince(SyncToken token, int limit) {
+        Instant now = Instant.now();
+        // the changes after an older token may already be purged
+        if (token.issuedAt().isBefore(now.minus(retention).plus(visibilityLag))) {
+            throw new SyncTokenExpiredException("Sync token is older than the change retention of " + retention
+                    + ", start over from a full export");
+        }
+        LocalDateTime visibleBefore = utc(now.minus(visibilityLag));
+        List<Deque<EmployeeChange>> shardChanges = new ArrayList<>(employeeShards.count());
+        long[] sequences = new long[employeeShards.count()];
+        for (int shard = 0; shard < employeeShards.count(); shard++) {
+            long afterId = token.sequence(shard);
+            sequences[shard] = afterId;
+            shardChanges.add(new ArrayDeque<>(onShard(shard,
+                    () -> changeRepository.findVisibleAfter(afterId, visibleBefore, PageRequest.ofSize(limit)))));
+        }
+
+        // oldest first across the shards; every shard's changes are taken in id order, so the page holds a run of
+        // each shard's changes that ends at the shard's position in the next token
+        List<EmployeeChange> changes = new ArrayList<>(limit);
+        while (changes.size() < limit) {
+            int next = -1;
+            for (int shard = 0; shard < shardChanges.size(); shard++) {
+                EmployeeChange head = shardChanges.get(shard).peek();
+                if (head != null && (next < 0
+                        || head.getChangedAt().isBefore(shardChanges.get(next).peek().getChangedAt()))) {
+                    next = shard;
+                }
+            }
+            if (next < 0) {
+                break;
+            }
+            EmployeeChange change = shardChanges.get(next).poll();
+            sequences[next] = change.getId();
+            changes.add(change);
+        }
+
+        // coalesce to one entry per employee, ordered by its last change
+        Map<Long, ChangeType> lastChanges = new LinkedHashMap<>();
+        Set<Long> created = new HashSet<>();
+        for (EmployeeChange change : changes) {
+            lastChanges.remove(change.getEmployeeId());
+            lastChanges.put(change.getEmployeeId(), change.getChangeType());
+            if (change.getChangeType() == ChangeType.CREATED) {
+                created.add(change.getEmployeeId());
+            }
+        }
+        List<Long> liveIds = lastChanges.entrySet().stream()
+                .filter(entry -> entry.getValue() != ChangeType.DELETED)
+                .map(Map.Entry::getKey)
+                .toList();
+        Map<Long, Employee> employees = liveIds.isEmpty() ? Map.of() : employeeRepository.findAllById(liveIds).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+
+        List<EmployeeChangesPage.Change> entries = new ArrayList<>(lastChanges.size());
+        lastChanges.keySet().forEach(employeeId -> {
+            Employee employee = employees.get(employeeId);
+            if (employee == null) {
+                // deleted in this page, or by a change that is not visible yet
+                entries.add(new EmployeeChangesPage.Change(employeeId, ChangeType.DELETED, null));
+            } else {
+                entries.add(new EmployeeChangesPage.Change(employeeId,
+                        created.contains(employeeId) ? ChangeType.CREATED : ChangeType.UPDATED, employee));
+            }
+        });
+        // a consumer still catching up is only as current as the last change it got: the changes after it are newer,
+        // but may be purged once that one is past the retention, so the next token ages from there
+        boolean hasMore = changes.size() == limit;
+        Instant issuedAt = hasMore ? changes.get(changes.size() - 1).getChangedAt().toInstant(ZoneOffset.UTC) : now;
+        return new EmployeeChangesPage(new SyncToken(Arrays.stream(sequences).boxed().toList(), issuedAt).encode(),
+                hasMore, entries);
+    }
+
+    @Scheduled(fixedDelayString = "${employees.changes.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        LocalDateTime before = utc(Instant.now().minus(retention));
+        int purged = 0;
+        for (int shard = 0; shard < employeeShards.count(); shard++) {
+            purged += onShard(shard, () -> changeRepository.deleteChangedBefore(before));
+        }
+        if (purged > 0) {
+            log.info("Purged {} employee changes older than {}", purged, retention);
+        }
+    }
+
+    // the change repository runs a transaction per call, which takes its connection on the shard
+    private static <T> T onShard(int shard, Supplier<T> call) {
+        Integer previous = ShardContext.open(shard);
+        try {
+            return call.get();
+        } finally {
+            ShardContext.close(previous);
+        }
+    }
+
+    private static LocalDateTime utc(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneOffset.UTC);
+    }
+}
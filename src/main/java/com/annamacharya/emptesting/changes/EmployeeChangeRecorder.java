@@ -0,0 +1,94 @@
+package com.annamacharya.emptesting.changes;
+
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.model.EmployeeChange;
+import com.annamacharya.emptesting.repository.EmployeeChangeRepository;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Appends every service write to the change log. A plain (synchronous) listener on purpose: the rows are
+ * written in the transaction of the employee write, so they commit or roll back together with it.
+ * <p>
+ * The rows are held back until the transaction is about to commit and then inserted in one batch, so their
+ * ids, the feed's cursor, are handed out right before the commit however long the transaction ran. The
+ * visibility lag of {@link EmployeeChangeFeed} only has to cover that batch and the commit.
+ * <p>
+ * Every shard keeps the changes of its own employees, which the feed reads shard by shard. A write transaction
+ * stays on the shard of the employees it writes, so its changes go there with it.
+ */
+@Component
+public class EmployeeChangeRecorder {
+
+    private final EmployeeChangeRepository changeRepository;
+
+    private final EmployeeShards employeeShards;
+
+    public EmployeeChangeRecorder(EmployeeChangeRepository changeRepository, EmployeeShards employeeShards) {
+        this.changeRepository = changeRepository;
+        this.employeeShards = employeeShards;
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        int shard = employeeShards.shardOf(event.employeeId());
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || !TransactionSynchronizationManager.isActualTransactionActive()) {
+            ShardContext.run(shard, () -> changeRepository.save(new EmployeeChange(event.employeeId(), event.type())));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingChanges(shard);
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        } else if (pending.shard != shard) {
+            throw new IllegalStateException("The changes of shards " + pending.shard + " and " + shard
+                    + " cannot be recorded in one transaction");
+        }
+        pending.events.add(event);
+    }
+
+    // the changes of one transaction; kept with it while an inner transaction suspends it
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final int shard;
+
+        private final List<EmployeeChangedEvent> events = new ArrayList<>();
+
+        private PendingChanges(int shard) {
+            this.shard = shard;
+        }
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(EmployeeChangeRecorder.this);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(EmployeeChangeRecorder.this, this);
+        }
+
+        // stamped now rather than when the write happened, so changedAt is close to the commit as well. The
+        // transaction is on the employees' shard already; the shard only matters if it has not taken a connection
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            ShardContext.run(shard, () -> changeRepository.insertAll(events.stream()
+                    .map(event -> new EmployeeChange(event.employeeId(), event.type()))
+                    .toList()));
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(EmployeeChangeRecorder.this);
+        }
+    }
+}
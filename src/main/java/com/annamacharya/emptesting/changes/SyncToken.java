@@ -0,0 +1,54 @@
+package com.annamacharya.emptesting.changes;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Position in the change feed handed to consumers: the last change id they have seen on each shard, and the time
+ * up to which they have seen every change, which is when the token was issued unless there were more changes to
+ * page through. Opaque to clients, who only pass it back.
+ */
+public record SyncToken(List<Long> sequences, Instant issuedAt) {
+
+    private static final String VERSION = "1";
+
+    public SyncToken {
+        sequences = List.copyOf(sequences);
+    }
+
+    public SyncToken(long sequence, Instant issuedAt) {
+        this(List.of(sequence), issuedAt);
+    }
+
+    // 0 for a shard added after the token was issued, whose changes are all new to the consumer
+    public long sequence(int shard) {
+        return shard < sequences.size() ? sequences.get(shard) : 0;
+    }
+
+    // a token of a single shard reads like the ones from before sharding
+    public String encode() {
+        String token = VERSION + ":" + sequences.stream().map(String::valueOf).collect(Collectors.joining(","))
+                + ":" + issuedAt.getEpochSecond();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    public static SyncToken decode(String token) {
+        String[] parts = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII).split(":");
+        if (parts.length != 3 || !parts[0].equals(VERSION)) {
+            throw new IllegalArgumentException("Not a sync token: " + token);
+        }
+        List<Long> sequences = new ArrayList<>();
+        for (String part : parts[1].split(",")) {
+            long sequence = Long.parseLong(part);
+            if (sequence < 0) {
+                throw new IllegalArgumentException("Not a sync token: " + token);
+            }
+            sequences.add(sequence);
+        }
+        return new SyncToken(sequences, Instant.ofEpochSecond(Long.parseLong(parts[2])));
+    }
+}
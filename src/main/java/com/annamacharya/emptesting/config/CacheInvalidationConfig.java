@@ -0,0 +1,33 @@
+package com.annamacharya.emptesting.config;
+
+import com.annamacharya.emptesting.cache.HttpInvalidationChannel;
+import com.annamacharya.emptesting.cache.InvalidationChannel;
+import com.annamacharya.emptesting.cache.LoopbackInvalidationChannel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.util.List;
+
+@Configuration
+@EnableScheduling
+public class CacheInvalidationConfig {
+
+    // employees.cache.invalidation.channel=http broadcasts to the nodes listed in employees.cache.invalidation.peers
+    @Bean
+    @ConditionalOnProperty(name = "employees.cache.invalidation.channel", havingValue = "http")
+    public InvalidationChannel httpInvalidationChannel(@Value("${employees.cache.invalidation.peers}") List<String> peers,
+                                                       ObjectMapper objectMapper) {
+        return new HttpInvalidationChannel(peers, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(InvalidationChannel.class)
+    public InvalidationChannel loopbackInvalidationChannel() {
+        return new LoopbackInvalidationChannel();
+    }
+}
@@ -0,0 +1,124 @@
+package com.annamacharya.emptesting.config;
+
+import com.annamacharya.emptesting.routing.ReadYourWritesFilter;
+import com.annamacharya.emptesting.routing.ReplicaRoutingDataSource;
+import com.annamacharya.emptesting.routing.ReplicaSelection;
+import com.annamacharya.emptesting.sharding.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Spring Boot backs off its DataSource once an R2DBC ConnectionFactory exists, but JPA, Flyway and the
+// blocking stack still need one, so it is declared here the way the auto-configuration would
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @Primary
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    // read-only transactions go to employees.datasource.replicas when there are any; the replica pools take the
+    // primary's credentials and pool settings and connect on first use, so a replica down at startup is only skipped
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+            @Value("${employees.datasource.replicas:}") List<String> replicaUrls,
+            @Value("${employees.datasource.replica-selection:round-robin}") ReplicaSelection selection,
+            @Value("${employees.datasource.replica-probe-interval:5s}") Duration probeInterval) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            HikariDataSource replica = new HikariDataSource();
+            primaryDataSource.copyStateTo(replica);
+            replica.setJdbcUrl(url);
+            replica.setPoolName("replica-" + (replicas.size() + 1));
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, selection, probeInterval);
+    }
+
+    // shard 0 is the database above with its replicas; employees.sharding.shards are the other shards, whose pools
+    // take the primary's credentials and pool settings like the replicas and have no replicas of their own
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(HikariDataSource primaryDataSource,
+            ReplicaRoutingDataSource replicaRoutingDataSource,
+            @Value("${employees.sharding.shards:}") List<String> shardUrls) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(replicaRoutingDataSource);
+        for (String url : shardUrls) {
+            HikariDataSource shard = new HikariDataSource();
+            primaryDataSource.copyStateTo(shard);
+            shard.setJdbcUrl(url);
+            shard.setPoolName("shard-" + shards.size());
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
+
+    // hikaricp.* meters for the replica and shard pools, which are not beans for Spring Boot to find
+    @Bean
+    public MeterBinder replicaPoolMetrics(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                          ShardRoutingDataSource shardRoutingDataSource) {
+        List<DataSource> pools = new ArrayList<>(replicaRoutingDataSource.getResolvedDataSources().values());
+        pools.addAll(shardRoutingDataSource.getShards());
+        return meterRegistry -> pools.forEach(dataSource -> {
+            if (dataSource instanceof HikariDataSource pool && pool.getMetricRegistry() == null
+                    && pool.getMetricsTrackerFactory() == null) {
+                pool.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+            }
+        });
+    }
+
+    // connections are fetched on the first statement, once the transaction's read-only flag and shard are known
+    @Bean
+    @Primary
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+
+    // Flyway migrates shard 0 through the dataSource bean; the other shards get the same migrations
+    @Bean
+    public FlywayMigrationStrategy shardMigrations(ShardRoutingDataSource shardRoutingDataSource) {
+        return flyway -> {
+            flyway.migrate();
+            shardRoutingDataSource.getShards().stream().skip(1).forEach(shard -> Flyway.configure()
+                    .configuration(flyway.getConfiguration())
+                    .dataSource(shard)
+                    .load()
+                    .migrate());
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${employees.datasource.read-your-writes-window:5s}") Duration window) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration =
+                new FilterRegistrationBean<>(new ReadYourWritesFilter(window));
+        registration.addUrlPatterns("/api/*");
+        return registration;
+    }
+}
@@ -0,0 +1,43 @@
+package com.annamacharya.emptesting.config;
+
+import com.annamacharya.emptesting.execution.DatabaseConcurrencyLimiter;
+import com.annamacharya.emptesting.execution.ExecutionMode;
+import com.annamacharya.emptesting.execution.VirtualThreads;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+
+@Configuration
+public class ExecutionModeConfig {
+
+    // employees.execution.mode=virtual runs every request on its own virtual thread; the executor is not a bean
+    // so it does not displace the auto-configured applicationTaskExecutor
+    @Bean
+    @ConditionalOnProperty(name = "employees.execution.mode", havingValue = "virtual")
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        ExecutorService executor = VirtualThreads.newVirtualThreadPerTaskExecutor();
+        return protocolHandler -> protocolHandler.setExecutor(executor);
+    }
+
+    // on by default in virtual mode, where nothing else bounds concurrency; permits default to the pool size
+    @Bean
+    public FilterRegistrationBean<DatabaseConcurrencyLimiter> databaseConcurrencyLimiter(
+            @Value("${employees.execution.mode:platform}") ExecutionMode mode,
+            @Value("${employees.execution.limit-db-concurrency:#{null}}") Boolean limitDbConcurrency,
+            @Value("${employees.execution.db-permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${employees.execution.acquire-timeout:2s}") Duration acquireTimeout) {
+        FilterRegistrationBean<DatabaseConcurrencyLimiter> registration =
+                new FilterRegistrationBean<>(new DatabaseConcurrencyLimiter(permits, acquireTimeout,
+                        Set.of("/api/employees/events")));
+        registration.addUrlPatterns("/api/*");
+        registration.setEnabled(limitDbConcurrency != null ? limitDbConcurrency : mode == ExecutionMode.VIRTUAL);
+        return registration;
+    }
+}
@@ -0,0 +1,52 @@
+package com.annamacharya.emptesting.config;
+
+import com.annamacharya.emptesting.jdbc.StatementLog;
+import com.annamacharya.emptesting.metrics.MethodTimingInterceptor;
+import com.annamacharya.emptesting.metrics.SqlStatementMetricsInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.aspectj.AspectJExpressionPointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Endpoint latency (http.server.requests) and connection pool waits (hikaricp.connections.acquire) come from
+// Spring Boot; this adds the service and repository layers and SQL statements per request. Histograms and
+// percentiles are configured per meter name in application.properties, scraped at /actuator/prometheus
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static Advisor serviceTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return timingAdvisor("execution(public * com.annamacharya.emptesting.service.EmployeeService+.*(..))",
+                new MethodTimingInterceptor(meterRegistry, "employees.service.calls", "class"));
+    }
+
+    @Bean
+    public static Advisor repositoryTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return timingAdvisor("execution(public * com.annamacharya.emptesting.repository.*Repository+.*(..))",
+                new MethodTimingInterceptor(meterRegistry, "employees.repository.calls", "repository"));
+    }
+
+    // reads the statements the StatementLog counted for the request, ordered after its interceptor so it
+    // completes first
+    @Bean
+    public WebMvcConfigurer sqlStatementMetrics(MeterRegistry meterRegistry, StatementLog statementLog) {
+        SqlStatementMetricsInterceptor interceptor = new SqlStatementMetricsInterceptor(meterRegistry, statementLog);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    private static Advisor timingAdvisor(String expression, MethodTimingInterceptor interceptor) {
+        AspectJExpressionPointcut pointcut = new AspectJExpressionPointcut();
+        pointcut.setExpression(expression);
+        return new DefaultPointcutAdvisor(pointcut, interceptor);
+    }
+}
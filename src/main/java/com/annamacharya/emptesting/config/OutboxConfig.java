@@ -0,0 +1,29 @@
+package com.annamacharya.emptesting.config;
+
+import com.annamacharya.emptesting.outbox.FileOutboxSink;
+import com.annamacharya.emptesting.outbox.InMemoryOutboxSink;
+import com.annamacharya.emptesting.outbox.OutboxSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    // employees.outbox.sink=file appends the events to employees.outbox.file.path as JSON lines
+    @Bean
+    @ConditionalOnProperty(name = "employees.outbox.sink", havingValue = "file")
+    public OutboxSink fileOutboxSink(@Value("${employees.outbox.file.path:outbox/employee-events.ndjson}") Path path) {
+        return new FileOutboxSink(path);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    public OutboxSink inMemoryOutboxSink(@Value("${employees.outbox.memory.capacity:10000}") int capacity) {
+        return new InMemoryOutboxSink(capacity);
+    }
+}
@@ -0,0 +1,88 @@
+package com.annamacharya.emptesting.config;
+
+import com.annamacharya.emptesting.reactive.ShardDatabaseClients;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardKey;
+import com.annamacharya.emptesting.sharding.ShardingRepositoryInterceptor;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// employees.sharding.shards spreads the employees table over more databases (see DataSourceConfig for the
+// connections); without it there is one shard and the repository calls pass straight through
+@Configuration
+public class ShardingConfig {
+
+    // assignments are value=shard pairs of the shard key, e.g. Sales=1,Engineering=2
+    @Bean
+    public static EmployeeShards employeeShards(@Value("${employees.sharding.shards:}") List<String> shardUrls,
+            @Value("${employees.sharding.key:department}") ShardKey key,
+            @Value("${employees.sharding.assignments:}") List<String> assignments) {
+        Map<String, Integer> shards = new LinkedHashMap<>();
+        for (String assignment : assignments) {
+            int separator = assignment.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Not a value=shard assignment: " + assignment);
+            }
+            shards.put(assignment.substring(0, separator).trim(),
+                    Integer.parseInt(assignment.substring(separator + 1).trim()));
+        }
+        return new EmployeeShards(1 + shardUrls.size(), key, shards);
+    }
+
+    @Bean
+    public static ShardingRepositoryInterceptor shardingRepositoryInterceptor(EmployeeShards employeeShards,
+            @Value("${employees.sharding.query-threads:16}") int queryThreads) {
+        return new ShardingRepositoryInterceptor(employeeShards, queryThreads);
+    }
+
+    // the reactive read path reaches the shards over R2DBC, so every shard needs an R2DBC url as well, in the order
+    // of employees.sharding.shards; the pools take spring.r2dbc's credentials and pool sizes
+    @Bean
+    public ShardDatabaseClients shardDatabaseClients(DatabaseClient databaseClient, EmployeeShards employeeShards,
+            R2dbcProperties r2dbcProperties,
+            @Value("${employees.sharding.r2dbc-shards:}") List<String> shardUrls) {
+        if (shardUrls.size() != employeeShards.count() - 1) {
+            throw new IllegalStateException("employees.sharding.r2dbc-shards needs an R2DBC url for each of the "
+                    + (employeeShards.count() - 1) + " employees.sharding.shards, not " + shardUrls.size());
+        }
+        List<ConnectionPool> pools = new ArrayList<>();
+        for (String url : shardUrls) {
+            ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+            if (r2dbcProperties.getUsername() != null) {
+                options.option(ConnectionFactoryOptions.USER, r2dbcProperties.getUsername());
+            }
+            if (r2dbcProperties.getPassword() != null) {
+                options.option(ConnectionFactoryOptions.PASSWORD, r2dbcProperties.getPassword());
+            }
+            R2dbcProperties.Pool pool = r2dbcProperties.getPool();
+            pools.add(new ConnectionPool(ConnectionPoolConfiguration.builder(ConnectionFactories.get(options.build()))
+                    .name("r2dbc-shard-" + (pools.size() + 1))
+                    .initialSize(pool.getInitialSize())
+                    .maxSize(pool.getMaxSize())
+                    .build()));
+        }
+        return new ShardDatabaseClients(databaseClient, pools);
+    }
+
+    @Bean
+    public static Advisor shardingRepositoryAdvisor(ShardingRepositoryInterceptor shardingRepositoryInterceptor) {
+        return new DefaultPointcutAdvisor(new ComposablePointcut(EmployeeRepository.class::isAssignableFrom),
+                shardingRepositoryInterceptor);
+    }
+}
@@ -0,0 +1,57 @@
+package com.annamacharya.emptesting.config;
+
+import com.annamacharya.emptesting.jdbc.RecordingDataSource;
+import com.annamacharya.emptesting.jdbc.StatementLog;
+import com.annamacharya.emptesting.jdbc.StatementLogInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+// SQL diagnostics in place of spring.jpa.show-sql: the DataSource reports every statement to the StatementLog,
+// which logs only the slow ones and the requests issuing too many; summaries are at /api/admin/sql
+@Configuration
+public class SqlDiagnosticsConfig {
+
+    @Bean
+    public StatementLog statementLog(@Value("${employees.sql.buffer-size:4096}") int bufferSize,
+                                     @Value("${employees.sql.slow-threshold:200ms}") Duration slowThreshold,
+                                     @Value("${employees.sql.max-statements-per-request:50}") int maxStatementsPerRequest) {
+        return new StatementLog(bufferSize, slowThreshold, maxStatementsPerRequest);
+    }
+
+    // wraps the application's DataSource, the one JPA and Flyway use, so statements on the pools behind it are
+    // recorded once; the pool metrics still find Hikari through unwrap
+    @Bean
+    public static BeanPostProcessor recordingDataSourcePostProcessor(ObjectProvider<StatementLog> statementLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && beanName.equals("dataSource")) {
+                    return new RecordingDataSource(dataSource, statementLog.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    // first in, last out: the request is tracked before and ended after every other interceptor, so those can
+    // read its statement count
+    @Bean
+    public WebMvcConfigurer statementLogRequests(StatementLog statementLog) {
+        StatementLogInterceptor interceptor = new StatementLogInterceptor(statementLog);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**").order(Ordered.HIGHEST_PRECEDENCE);
+            }
+        };
+    }
+}
@@ -0,0 +1,34 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.cache.ClusterCacheInvalidator;
+import com.annamacharya.emptesting.cache.EmployeeCache;
+import com.annamacharya.emptesting.cache.InvalidationMessage;
+import com.annamacharya.emptesting.dto.CacheStatistics;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheController {
+
+    private EmployeeCache employeeCache;
+
+    private ClusterCacheInvalidator cacheInvalidator;
+
+    public CacheController(EmployeeCache employeeCache, ClusterCacheInvalidator cacheInvalidator) {
+        this.employeeCache = employeeCache;
+        this.cacheInvalidator = cacheInvalidator;
+    }
+
+    @GetMapping("employees")
+    public CacheStatistics getEmployeeCacheStatistics(){
+        return employeeCache.statistics();
+    }
+
+    // receiving end of HttpInvalidationChannel: ids another node has changed
+    @PostMapping("invalidations")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public void receiveInvalidations(@RequestBody InvalidationMessage message){
+        cacheInvalidator.receive(message);
+    }
+}
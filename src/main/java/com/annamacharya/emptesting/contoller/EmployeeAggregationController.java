@@ -0,0 +1,44 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.aggregation.AggregationDimension;
+import com.annamacharya.emptesting.aggregation.EmployeeRollups;
+import com.annamacharya.emptesting.dto.RollupResult;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+import java.util.Locale;
+
+@RestController
+@RequestMapping("/api/employees/aggregations")
+public class EmployeeAggregationController {
+
+    private EmployeeRollups employeeRollups;
+
+    public EmployeeAggregationController(EmployeeRollups employeeRollups) {
+        this.employeeRollups = employeeRollups;
+    }
+
+    // served from the materialized rollups, never from the table
+    @GetMapping
+    public List<RollupResult> getRollups(@RequestParam(value = "groupBy", defaultValue = "department") String groupBy){
+        return employeeRollups.rollups(dimension(groupBy));
+    }
+
+    @GetMapping("{groupBy}/{key}")
+    public ResponseEntity<RollupResult> getRollup(@PathVariable("groupBy") String groupBy, @PathVariable("key") String key){
+        return employeeRollups.rollup(dimension(groupBy), key)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    private static AggregationDimension dimension(String groupBy) {
+        try {
+            return AggregationDimension.valueOf(groupBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown groupBy: " + groupBy);
+        }
+    }
+}
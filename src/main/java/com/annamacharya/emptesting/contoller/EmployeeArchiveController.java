@@ -0,0 +1,60 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.archive.EmployeeArchive;
+import com.annamacharya.emptesting.dto.ArchivedEmployee;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// archived employees, read only: the only writers are archive jobs (POST /api/employees/bulk-operations/archive
+// and the scheduled EmployeeArchiver)
+@RestController
+@RequestMapping("/api/employees/archive")
+public class EmployeeArchiveController {
+
+    private EmployeeArchive employeeArchive;
+
+    private int defaultPageSize;
+
+    private int maxPageSize;
+
+    public EmployeeArchiveController(EmployeeArchive employeeArchive,
+                                     @Value("${employees.page.default-size:100}") int defaultPageSize,
+                                     @Value("${employees.page.max-size:1000}") int maxPageSize) {
+        this.employeeArchive = employeeArchive;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // keyset pages like GET /api/employees, optionally of employees hired from hiredFrom up to (not including)
+    // hiredTo, e.g. ?hiredFrom=2005-01-01&hiredTo=2010-01-01
+    @GetMapping
+    public ResponseEntity<List<ArchivedEmployee>> getArchivedEmployees(
+            @RequestParam(value = "afterId", defaultValue = "0") long afterId,
+            @RequestParam(value = "size", required = false) Integer size,
+            @RequestParam(value = "hiredFrom", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hiredFrom,
+            @RequestParam(value = "hiredTo", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hiredTo){
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        List<ArchivedEmployee> page = employeeArchive.findAfter(afterId, hiredFrom, hiredTo, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if(page.size() == pageSize){
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("afterId", page.get(page.size() - 1).employee().getId())
+                    .replaceQueryParam("size", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page);
+    }
+
+    @GetMapping("{id}")
+    public ResponseEntity<ArchivedEmployee> getArchivedEmployeeById(@PathVariable("id") long employeeId){
+        return ResponseEntity.of(employeeArchive.findById(employeeId));
+    }
+}
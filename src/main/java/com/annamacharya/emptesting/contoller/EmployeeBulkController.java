@@ -0,0 +1,124 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.bulk.EmployeeBulkOperations;
+import com.annamacharya.emptesting.csv.EmployeeCsv;
+import com.annamacharya.emptesting.dto.BulkJobStatus;
+import com.annamacharya.emptesting.dto.BulkUpdateRequest;
+import com.annamacharya.emptesting.dto.EmployeeFilter;
+import com.annamacharya.emptesting.model.Employee;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// bulk updates, deletes and archiving run as background jobs: submitting answers 202 with the job's status and its
+// Location, which is polled for progress and deleted to cancel the job
+@RestController
+@RequestMapping("/api/employees/bulk-operations")
+public class EmployeeBulkController {
+
+    private EmployeeBulkOperations bulkOperations;
+
+    private ObjectMapper objectMapper;
+
+    public EmployeeBulkController(EmployeeBulkOperations bulkOperations, ObjectMapper objectMapper) {
+        this.bulkOperations = bulkOperations;
+        this.objectMapper = objectMapper;
+    }
+
+    // e.g. {"filter": {"department": "Sales"}, "set": {"department": "Marketing"}} moves a department and
+    // {"filter": {"department": "Sales"}, "raiseSalaryPercent": 5} gives it a raise
+    @PostMapping("update")
+    public ResponseEntity<BulkJobStatus> update(@RequestBody BulkUpdateRequest request){
+        filter(request.filter());
+        Map<String, Object> values = values(request.set());
+        BigDecimal raise = request.raiseSalaryPercent();
+        if(values.isEmpty() && raise == null){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Nothing to update: give set or raiseSalaryPercent");
+        }
+        if(raise != null && (values.containsKey("salary") || raise.compareTo(BigDecimal.valueOf(-100)) <= 0)){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "raiseSalaryPercent must be above -100 and cannot be combined with setting salary");
+        }
+        return accepted(bulkOperations.submitUpdate(request.filter(), values, raise));
+    }
+
+    // e.g. {"ids": [4, 8, 15]}
+    @PostMapping("delete")
+    public ResponseEntity<BulkJobStatus> delete(@RequestBody EmployeeFilter filter){
+        filter(filter);
+        return accepted(bulkOperations.submitDelete(filter));
+    }
+
+    // e.g. {"employmentStatus": "TERMINATED", "hiredBefore": "2010-01-01"}; archived employees are read at
+    // /api/employees/archive
+    @PostMapping("archive")
+    public ResponseEntity<BulkJobStatus> archive(@RequestBody EmployeeFilter filter){
+        filter(filter);
+        return accepted(bulkOperations.submitArchive(filter));
+    }
+
+    @GetMapping("{jobId}")
+    public ResponseEntity<BulkJobStatus> status(@PathVariable("jobId") String jobId){
+        return ResponseEntity.of(bulkOperations.status(jobId));
+    }
+
+    @DeleteMapping("{jobId}")
+    public ResponseEntity<BulkJobStatus> cancel(@PathVariable("jobId") String jobId){
+        return ResponseEntity.of(bulkOperations.cancel(jobId));
+    }
+
+    private static ResponseEntity<BulkJobStatus> accepted(BulkJobStatus status) {
+        return ResponseEntity.accepted()
+                .location(ServletUriComponentsBuilder.fromCurrentContextPath()
+                        .path("/api/employees/bulk-operations/{jobId}")
+                        .buildAndExpand(status.id())
+                        .toUri())
+                .body(status);
+    }
+
+    // an operation without criteria would touch every employee, which is not what a bulk request is for
+    private static void filter(EmployeeFilter filter) {
+        if(filter == null || filter.isEmpty()){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A bulk operation needs a filter");
+        }
+        if(filter.ids() != null && filter.ids().isEmpty()){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "ids must not be empty");
+        }
+    }
+
+    // the fields of set converted to their Employee attribute types; id and the unique email cannot be bulk set
+    private Map<String, Object> values(JsonNode set) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        if(set == null || set.isNull()){
+            return values;
+        }
+        if(!set.isObject()){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "set is a JSON object of the fields to change");
+        }
+        Employee employee;
+        try {
+            employee = objectMapper.readerForUpdating(new Employee()).readValue(set);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid set: " + e.getMessage(), e);
+        }
+        BeanWrapper converted = new BeanWrapperImpl(employee);
+        set.fieldNames().forEachRemaining(field -> {
+            if(field.equals("id") || field.equals("email") || !EmployeeCsv.COLUMNS.contains(field)){
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a bulk updatable field: " + field);
+            }
+            values.put(field, converted.getPropertyValue(field));
+        });
+        return values;
+    }
+}
@@ -0,0 +1,47 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.changes.EmployeeChangeFeed;
+import com.annamacharya.emptesting.changes.SyncToken;
+import com.annamacharya.emptesting.dto.EmployeeChangesPage;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/employees/changes")
+public class EmployeeChangeController {
+
+    private EmployeeChangeFeed changeFeed;
+
+    private int defaultLimit;
+
+    private int maxLimit;
+
+    public EmployeeChangeController(EmployeeChangeFeed changeFeed,
+                                    @Value("${employees.changes.default-limit:500}") int defaultLimit,
+                                    @Value("${employees.changes.max-limit:5000}") int maxLimit) {
+        this.changeFeed = changeFeed;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    // creates, updates and deletes since the token, one entry per employee; without since an empty page
+    // whose token marks the current end of the feed. An expired token answers 410: re-export and start over
+    @GetMapping
+    public EmployeeChangesPage getChanges(@RequestParam(value = "since", required = false) String since,
+                                          @RequestParam(value = "limit", required = false) Integer limit){
+        if(since == null){
+            return new EmployeeChangesPage(changeFeed.head().encode(), false, List.of());
+        }
+        SyncToken token;
+        try {
+            token = SyncToken.decode(since);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid sync token", e);
+        }
+        return changeFeed.changesSince(token, limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit)));
+    }
+}
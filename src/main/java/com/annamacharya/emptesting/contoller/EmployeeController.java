@@ -1,59 +1,261 @@
 package com.annamacharya.emptesting.contoller;
 
 
+import com.annamacharya.emptesting.csv.EmployeeCsv;
+import com.annamacharya.emptesting.csv.EmployeeCsvReader;
+import com.annamacharya.emptesting.dto.BulkImportResult;
+import com.annamacharya.emptesting.dto.EmployeeDirectoryEntry;
+import com.annamacharya.emptesting.dto.EmployeeSummary;
+import com.annamacharya.emptesting.dto.EmployeeVersion;
 import com.annamacharya.emptesting.model.Employee;
 import com.annamacharya.emptesting.service.EmployeeService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    // not among the selectable fields; loaded along with a fieldset for the validators
+    private static final List<String> VALIDATORS = List.of("version", "lastModified");
+
     private EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private ObjectMapper objectMapper;
+
+    private int defaultPageSize;
+
+    private int maxPageSize;
+
+    public EmployeeController(EmployeeService employeeService,
+                              ObjectMapper objectMapper,
+                              @Value("${employees.page.default-size:100}") int defaultPageSize,
+                              @Value("${employees.page.max-size:1000}") int maxPageSize) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public Employee createEmployee(@RequestBody Employee employee){
+    public Employee createEmployee(@Valid @RequestBody Employee employee){
         return employeeService.saveEmployee(employee);
     }
 
+    // bulk import from a JSON array; the body is bound element by element rather than as one big list
+    @PostMapping(value = "bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BulkImportResult importEmployees(InputStream body) throws IOException{
+        try (MappingIterator<Employee> employees = objectMapper.readerFor(Employee.class).readValues(body)) {
+            return employeeService.importEmployees(employees);
+        }
+    }
+
+    // bulk import from a CSV body with a header row
+    @PostMapping(value = "bulk", consumes = "text/csv")
+    public BulkImportResult importEmployeesCsv(InputStream body) throws IOException{
+        try (EmployeeCsvReader employees = new EmployeeCsvReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            return employeeService.importEmployees(employees);
+        }
+    }
+
+    // bulk import from a CSV file upload
+    @PostMapping(value = "bulk", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public BulkImportResult importEmployeesCsvFile(@RequestParam("file") MultipartFile file) throws IOException{
+        return importEmployeesCsv(file.getInputStream());
+    }
+
+    // returns one keyset page; when the page is full a Link header points at the next one.
+    // fields=id,firstName,department selects just those columns, in SQL and in the JSON.
+    // The ETag covers the ids and versions on the page. A conditional request is answered from those alone,
+    // looked up first; otherwise the ETag comes from the page as loaded
     @GetMapping
-    public List<Employee> getAllEmployees(){
-        return employeeService.getAllEmployees();
+    public ResponseEntity<List<?>> getAllEmployees(@RequestParam(value = "afterId", defaultValue = "0") long afterId,
+                                                   @RequestParam(value = "size", required = false) Integer size,
+                                                   @RequestParam(value = "fields", required = false) List<String> fields,
+                                                   HttpServletRequest request){
+        int pageSize = pageSize(size);
+        List<String> selected = fields == null ? null : selectFields(fields);
+        if(isConditional(request)){
+            List<EmployeeVersion> versions = employeeService.getEmployeeVersionsAfter(afterId, pageSize);
+            String etag = pageEtag(versions, selected);
+            if(new ServletWebRequest(request).checkNotModified(etag, lastModified(versions))){
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(lastModified(versions)).build();
+            }
+        }
+        if(selected != null){
+            List<Map<String, Object>> rows = employeeService.getEmployeeFieldsAfter(withValidators(selected), afterId, pageSize);
+            List<EmployeeVersion> versions = rows.stream().map(EmployeeController::removeValidators).toList();
+            return page(rows, pageSize, rows.isEmpty() ? afterId : (Long) rows.get(rows.size() - 1).get("id"),
+                    pageEtag(versions, selected), lastModified(versions));
+        }
+        List<Employee> employees = employeeService.getEmployeesAfter(afterId, pageSize);
+        List<EmployeeVersion> versions = employees.stream()
+                .map(employee -> new EmployeeVersion(employee.getId(), employee.getVersion(), employee.getLastModified()))
+                .toList();
+        return page(employees, pageSize, employees.isEmpty() ? afterId : employees.get(employees.size() - 1).getId(),
+                pageEtag(versions, null), lastModified(versions));
+    }
+
+    // id, name, email, job title and department for directory listings, keyset paged like GET /api/employees
+    @GetMapping("directory")
+    public ResponseEntity<List<?>> getDirectory(@RequestParam(value = "afterId", defaultValue = "0") long afterId,
+                                                @RequestParam(value = "size", required = false) Integer size){
+        int pageSize = pageSize(size);
+        List<EmployeeDirectoryEntry> entries = employeeService.getDirectoryAfter(afterId, pageSize);
+        return page(entries, pageSize, entries.isEmpty() ? afterId : entries.get(entries.size() - 1).id());
+    }
+
+    @GetMapping("autocomplete")
+    public List<EmployeeSummary> autocomplete(@RequestParam("prefix") String prefix,
+                                              @RequestParam(value = "limit", defaultValue = "10") int limit){
+        return employeeService.findByLastNamePrefix(prefix, Math.max(1, Math.min(limit, maxPageSize)));
+    }
+
+    // streams the whole table as newline delimited JSON, one row at a time off a database cursor
+    @GetMapping(value = "stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllEmployees(){
+        StreamingResponseBody body = outputStream -> {
+            try (SequenceWriter writer = objectMapper.writer()
+                    .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                    .withRootValueSeparator("\n")
+                    .writeValues(outputStream)) {
+                employeeService.streamEmployees(employee -> {
+                    try {
+                        writer.write(employee);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
+    // If-None-Match / If-Modified-Since are checked against the version alone (near cache, else a three column
+    // lookup), so an unchanged employee is answered with 304 before it is loaded or serialized. Without them the
+    // version is not looked up: the ETag and Last-Modified come from the employee as loaded
     @GetMapping("{id}")
-    public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId){
-        return employeeService.getEmployeeById(employeeId)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<?> getEmployeeById(@PathVariable("id") long employeeId,
+                                             @RequestParam(value = "fields", required = false) List<String> fields,
+                                             HttpServletRequest request){
+        List<String> selected = fields == null ? null : selectFields(fields);
+        if(isConditional(request)){
+            Optional<EmployeeVersion> version = employeeService.getEmployeeVersion(employeeId);
+            if(version.isEmpty()){
+                return ResponseEntity.notFound().build();
+            }
+            String etag = etag(version.get().version(), selected);
+            if(new ServletWebRequest(request).checkNotModified(etag, lastModified(version.get()))){
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(lastModified(version.get())).build();
+            }
+        }
+        if(selected == null){
+            return employeeService.getEmployeeById(employeeId)
+                    .<ResponseEntity<?>>map(employee -> ResponseEntity.ok()
+                            .eTag(etag(employee.getVersion(), null))
+                            .lastModified(lastModified(employee.getLastModified()))
+                            .body(employee))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        }
+        return employeeService.getEmployeeFieldsById(withValidators(selected), employeeId)
+                .<ResponseEntity<?>>map(row -> {
+                    EmployeeVersion version = removeValidators(row);
+                    return ResponseEntity.ok()
+                            .eTag(etag(version.version(), selected))
+                            .lastModified(lastModified(version))
+                            .body(row);
+                })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PutMapping("{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId,
-                                                   @RequestBody Employee employee){
+                                                   @RequestBody Employee employee,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
         return employeeService.getEmployeeById(employeeId)
                 .map(savedEmployee -> {
+                    // If-Match: only overwrite the version the client has seen; a write racing this one
+                    // still fails on the version check in the UPDATE itself (409)
+                    if(ifMatch != null && !matches(ifMatch, etag(savedEmployee.getVersion(), null))){
+                        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).<Employee>build();
+                    }
 
                     savedEmployee.setFirstName(employee.getFirstName());
                     savedEmployee.setLastName(employee.getLastName());
                     savedEmployee.setEmail(employee.getEmail());
 
                     Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
-                    return new ResponseEntity<>(updatedEmployee, HttpStatus.OK);
+                    return ResponseEntity.ok().eTag(etag(updatedEmployee.getVersion(), null)).body(updatedEmployee);
 
                 })
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // JSON merge patch: only the fields present in the body are applied, and only the columns that changed are
+    // written. If-Match makes it conditional on that version (412 otherwise); without it a concurrent write is a 409
+    @PatchMapping(value = "{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Employee> patchEmployee(@PathVariable("id") long employeeId,
+                                                  @RequestBody JsonNode patch,
+                                                  @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch){
+        if(!patch.isObject()){
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "A patch is a JSON object of the fields to change");
+        }
+        patch.fieldNames().forEachRemaining(field -> {
+            if(field.equals("id") || !EmployeeCsv.COLUMNS.contains(field)){
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Not a patchable field: " + field);
+            }
+        });
+        Long expectedVersion = null;
+        if(ifMatch != null && !ifMatch.trim().equals("*")){
+            expectedVersion = version(ifMatch.trim());
+            if(expectedVersion == null){
+                return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+            }
+        }
+        try {
+            return employeeService.patchEmployee(employeeId, employee -> merge(employee, patch), expectedVersion)
+                    .map(updatedEmployee -> ResponseEntity.ok().eTag(etag(updatedEmployee.getVersion(), null)).body(updatedEmployee))
+                    .orElseGet(() -> ResponseEntity.notFound().build());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            if(expectedVersion == null){
+                throw e;
+            }
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+    }
+
     @DeleteMapping("{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId){
 
@@ -63,4 +265,113 @@ public class EmployeeController {
 
     }
 
+    private int pageSize(Integer size) {
+        return size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+    }
+
+    private static ResponseEntity<List<?>> page(List<?> page, int pageSize, long lastId) {
+        return page(page, pageSize, lastId, ResponseEntity.ok());
+    }
+
+    private static ResponseEntity<List<?>> page(List<?> page, int pageSize, long lastId, String etag, long lastModified) {
+        return page(page, pageSize, lastId, ResponseEntity.ok().eTag(etag).lastModified(lastModified));
+    }
+
+    private static ResponseEntity<List<?>> page(List<?> page, int pageSize, long lastId, ResponseEntity.BodyBuilder response) {
+        if(page.size() == pageSize){
+            String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .replaceQueryParam("afterId", lastId)
+                    .replaceQueryParam("size", pageSize)
+                    .toUriString();
+            response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return response.body(page);
+    }
+
+    // strong ETag of one employee representation: its version, plus the fieldset when it is not the whole entity
+    private static String etag(long version, List<String> fields) {
+        return "\"" + version + (fields == null ? "" : ";" + String.join(",", fields)) + "\"";
+    }
+
+    // the 304 check on the looked-up version goes through a ServletWebRequest without the response, so it leaves
+    // no validators there; a 200 carries those of what was loaded and is checked against them on its way out
+    private static boolean isConditional(HttpServletRequest request) {
+        return request.getHeader(HttpHeaders.IF_NONE_MATCH) != null || request.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null;
+    }
+
+    // a fieldset is loaded with the row's version and last modified time, for the ETag and Last-Modified
+    private static List<String> withValidators(List<String> fields) {
+        List<String> loaded = new ArrayList<>(fields);
+        loaded.addAll(VALIDATORS);
+        return loaded;
+    }
+
+    private static EmployeeVersion removeValidators(Map<String, Object> row) {
+        return new EmployeeVersion((Long) row.get("id"), (Long) row.remove("version"), (Instant) row.remove("lastModified"));
+    }
+
+    private static long lastModified(List<EmployeeVersion> versions) {
+        return versions.stream().mapToLong(EmployeeController::lastModified).max().orElse(-1);
+    }
+
+    private static long lastModified(EmployeeVersion version) {
+        return lastModified(version.lastModified());
+    }
+
+    private static long lastModified(Instant lastModified) {
+        return lastModified == null ? -1 : lastModified.toEpochMilli();
+    }
+
+    private static String pageEtag(List<EmployeeVersion> versions, List<String> fields) {
+        StringBuilder page = new StringBuilder(fields == null ? "*" : String.join(",", fields));
+        versions.forEach(version -> page.append(';').append(version.id()).append(':').append(version.version()));
+        return "\"" + DigestUtils.md5DigestAsHex(page.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    // the version in a strong whole-entity ETag ("3"); null for anything else
+    private static Long version(String etag) {
+        if(etag.length() < 3 || !etag.startsWith("\"") || !etag.endsWith("\"")){
+            return null;
+        }
+        try {
+            return Long.parseLong(etag.substring(1, etag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private Employee merge(Employee employee, JsonNode patch) {
+        try {
+            return objectMapper.readerForUpdating(employee).readValue(patch);
+        } catch (IOException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid patch: " + e.getMessage(), e);
+        }
+    }
+
+    private static boolean matches(String ifMatch, String etag) {
+        for (String candidate : ifMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // field names are Employee's JSON property names; id always comes first, it is the keyset cursor
+    private static List<String> selectFields(List<String> fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!EmployeeCsv.COLUMNS.contains(name)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        return List.copyOf(selected);
+    }
 }
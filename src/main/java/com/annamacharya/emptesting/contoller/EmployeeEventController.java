@@ -0,0 +1,24 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.stream.EmployeeEventStream;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/employees/events")
+public class EmployeeEventController {
+
+    private EmployeeEventStream eventStream;
+
+    public EmployeeEventController(EmployeeEventStream eventStream) {
+        this.eventStream = eventStream;
+    }
+
+    // live created/updated/deleted events; a reconnect sends Last-Event-ID to continue where it left off,
+    // and gets a reset event when that is no longer possible (resync through /api/employees/changes)
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId){
+        return eventStream.subscribe(lastEventId);
+    }
+}
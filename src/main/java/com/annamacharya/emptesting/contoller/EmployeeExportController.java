@@ -0,0 +1,82 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.export.EmployeeExporter;
+import com.annamacharya.emptesting.export.ExportFormat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+@RestController
+@RequestMapping("/api/employees/export")
+public class EmployeeExportController {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private EmployeeExporter exporter;
+
+    private int gzipLevel;
+
+    public EmployeeExportController(EmployeeExporter exporter,
+                                    @Value("${employees.export.gzip-level:1}") int gzipLevel) {
+        this.exporter = exporter;
+        this.gzipLevel = gzipLevel;
+    }
+
+    // the whole table as a download, format=csv (default) or columnar; compressed on the fly with gzip when the
+    // client accepts it
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(value = "format", defaultValue = "csv") String format,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding){
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.of(format);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown export format: " + format, e);
+        }
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = outputStream -> {
+            if(gzip){
+                GZIPOutputStream compressed = new GZIPOutputStream(outputStream, GZIP_BUFFER_SIZE) {
+                    {
+                        def.setLevel(gzipLevel);
+                    }
+                };
+                exporter.export(exportFormat, compressed);
+                compressed.finish();
+            } else {
+                exporter.export(exportFormat, outputStream);
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.mediaType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("employees." + exportFormat.extension()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if(gzip){
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if(acceptEncoding == null){
+            return false;
+        }
+        for (String coding : acceptEncoding.toLowerCase(Locale.ROOT).split(",")) {
+            String[] parts = coding.trim().split(";");
+            if(parts[0].trim().equals("gzip")){
+                return parts.length < 2 || !parts[1].replace(" ", "").matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,46 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.dto.EmployeeSearchResult;
+import com.annamacharya.emptesting.search.EmployeeSearchService;
+import com.annamacharya.emptesting.search.SearchFacet;
+import com.annamacharya.emptesting.search.SearchQuery;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/employees/search")
+public class EmployeeSearchController {
+
+    private EmployeeSearchService searchService;
+
+    private int defaultPageSize;
+
+    private int maxPageSize;
+
+    public EmployeeSearchController(EmployeeSearchService searchService,
+                                    @Value("${employees.page.default-size:100}") int defaultPageSize,
+                                    @Value("${employees.page.max-size:1000}") int maxPageSize) {
+        this.searchService = searchService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+
+    // e.g. /api/employees/search?department=Engineering&city=Chennai&city=Bangalore&name=ra
+    @GetMapping
+    public EmployeeSearchResult searchEmployees(@RequestParam MultiValueMap<String, String> parameters,
+                                                @RequestParam(value = "name", required = false) String name,
+                                                @RequestParam(value = "afterId", defaultValue = "0") long afterId,
+                                                @RequestParam(value = "size", required = false) Integer size){
+        Map<SearchFacet, Set<String>> filters = new EnumMap<>(SearchFacet.class);
+        parameters.forEach((parameter, values) -> SearchFacet.forParameter(parameter)
+                .ifPresent(facet -> filters.put(facet, new LinkedHashSet<>(values))));
+        int pageSize = size == null ? defaultPageSize : Math.max(1, Math.min(size, maxPageSize));
+        return searchService.search(new SearchQuery(filters, name, afterId, pageSize));
+    }
+}
@@ -0,0 +1,49 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.service.ReactiveEmployeeService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// the reactive counterpart of EmployeeController; the request thread is released while the database works
+@RestController
+@RequestMapping("/api/reactive/employees")
+public class ReactiveEmployeeController {
+
+    private ReactiveEmployeeService reactiveEmployeeService;
+
+    private int maxPageSize;
+
+    public ReactiveEmployeeController(ReactiveEmployeeService reactiveEmployeeService,
+                                      @Value("${employees.page.max-size:1000}") int maxPageSize) {
+        this.reactiveEmployeeService = reactiveEmployeeService;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@Valid @RequestBody Employee employee){
+        return reactiveEmployeeService.saveEmployee(employee);
+    }
+
+    // newline delimited JSON, written as rows arrive and requested as the client reads; the same afterId keyset
+    // as GET /api/employees, and without a size the rest of the table is streamed
+    @GetMapping(produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Employee> getAllEmployees(@RequestParam(value = "afterId", defaultValue = "0") long afterId,
+                                          @RequestParam(value = "size", required = false) Integer size){
+        return reactiveEmployeeService.getEmployeesAfter(afterId, size == null ? 0 : Math.max(1, Math.min(size, maxPageSize)));
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long employeeId){
+        return reactiveEmployeeService.getEmployeeById(employeeId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
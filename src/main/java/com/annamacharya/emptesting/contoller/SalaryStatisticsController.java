@@ -0,0 +1,42 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.dto.SalaryStatisticsResult;
+import com.annamacharya.emptesting.statistics.SalaryStatisticsService;
+import com.annamacharya.emptesting.statistics.StatisticsDimension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/employees/statistics/salary")
+public class SalaryStatisticsController {
+
+    private SalaryStatisticsService statisticsService;
+
+    public SalaryStatisticsController(SalaryStatisticsService statisticsService) {
+        this.statisticsService = statisticsService;
+    }
+
+    // groupBy is department or jobTitle; percentiles come from sketches within employees.statistics.relative-error
+    @GetMapping
+    public List<SalaryStatisticsResult> getStatistics(@RequestParam(value = "groupBy", defaultValue = "department") String groupBy){
+        return statisticsService.getStatistics(dimension(groupBy));
+    }
+
+    // exact=true ranks every salary of the group from the database, for audits
+    @GetMapping("{groupBy}/{key}")
+    public SalaryStatisticsResult getStatistics(@PathVariable("groupBy") String groupBy, @PathVariable("key") String key,
+                                                @RequestParam(value = "exact", defaultValue = "false") boolean exact){
+        return statisticsService.getStatistics(dimension(groupBy), key, exact);
+    }
+
+    private static StatisticsDimension dimension(String groupBy) {
+        return switch (groupBy) {
+            case "department" -> StatisticsDimension.DEPARTMENT;
+            case "jobTitle" -> StatisticsDimension.JOB_TITLE;
+            default -> throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown groupBy: " + groupBy);
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.annamacharya.emptesting.contoller;
+
+import com.annamacharya.emptesting.dto.SqlDiagnosticsReport;
+import com.annamacharya.emptesting.jdbc.StatementLog;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/admin/sql")
+public class SqlDiagnosticsController {
+
+    private StatementLog statementLog;
+
+    public SqlDiagnosticsController(StatementLog statementLog) {
+        this.statementLog = statementLog;
+    }
+
+    // the statements taking the most time, the slowest executions and the requests that issued too many statements
+    @GetMapping
+    public SqlDiagnosticsReport getSqlDiagnostics(@RequestParam(value = "limit", defaultValue = "20") int limit){
+        return statementLog.report(Math.max(0, limit));
+    }
+}
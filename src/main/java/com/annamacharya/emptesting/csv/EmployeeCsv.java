@@ -0,0 +1,15 @@
+package com.annamacharya.emptesting.csv;
+
+import java.util.List;
+
+// column layout shared by the CSV import and export; names match the JSON property names of Employee
+public final class EmployeeCsv {
+
+    public static final List<String> COLUMNS = List.of(
+            "id", "firstName", "lastName", "email", "phoneNumber", "gender", "dateOfBirth", "hireDate",
+            "jobTitle", "department", "salary", "address", "city", "state", "postalCode", "country",
+            "maritalStatus", "emergencyContactName", "emergencyContactPhone", "hireSource", "employmentStatus");
+
+    private EmployeeCsv() {
+    }
+}
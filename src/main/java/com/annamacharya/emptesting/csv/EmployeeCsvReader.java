@@ -0,0 +1,159 @@
+package com.annamacharya.emptesting.csv;
+
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.annamacharya.emptesting.enums.Gender;
+import com.annamacharya.emptesting.enums.HireSource;
+import com.annamacharya.emptesting.enums.MaritalStatus;
+import com.annamacharya.emptesting.model.Employee;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * Reads employees from RFC 4180 CSV one record at a time, so an upload is never held in memory as a whole.
+ * The first record is a header naming the columns (see {@link EmployeeCsv#COLUMNS}); unknown columns are ignored.
+ * A value that cannot be converted is left null and is reported by bean validation further down.
+ */
+public class EmployeeCsvReader implements Iterator<Employee>, Closeable {
+
+    private final BufferedReader reader;
+
+    private final List<String> header;
+
+    private List<String> next;
+
+    public EmployeeCsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+        List<String> firstRecord = readRecord();
+        this.header = firstRecord == null ? List.of() : firstRecord.stream().map(String::trim).toList();
+        this.next = readRecord();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next != null;
+    }
+
+    @Override
+    public Employee next() {
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        Employee employee = toEmployee(next);
+        next = readRecord();
+        return employee;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private Employee toEmployee(List<String> values) {
+        Employee employee = new Employee();
+        for (int i = 0; i < header.size() && i < values.size(); i++) {
+            String value = values.get(i);
+            if (value.isEmpty()) {
+                continue;
+            }
+            switch (header.get(i)) {
+                case "firstName" -> employee.setFirstName(value);
+                case "lastName" -> employee.setLastName(value);
+                case "email" -> employee.setEmail(value);
+                case "phoneNumber" -> employee.setPhoneNumber(value);
+                case "gender" -> employee.setGender(parse(value, Gender::valueOf));
+                case "dateOfBirth" -> employee.setDateOfBirth(parse(value, LocalDate::parse));
+                case "hireDate" -> employee.setHireDate(parse(value, LocalDate::parse));
+                case "jobTitle" -> employee.setJobTitle(value);
+                case "department" -> employee.setDepartment(value);
+                case "salary" -> employee.setSalary(parse(value, BigDecimal::new));
+                case "address" -> employee.setAddress(value);
+                case "city" -> employee.setCity(value);
+                case "state" -> employee.setState(value);
+                case "postalCode" -> employee.setPostalCode(value);
+                case "country" -> employee.setCountry(value);
+                case "maritalStatus" -> employee.setMaritalStatus(parse(value, MaritalStatus::valueOf));
+                case "emergencyContactName" -> employee.setEmergencyContactName(value);
+                case "emergencyContactPhone" -> employee.setEmergencyContactPhone(value);
+                case "hireSource" -> employee.setHireSource(parse(value, HireSource::valueOf));
+                case "employmentStatus" -> employee.setEmploymentStatus(parse(value, EmploymentStatus::valueOf));
+                default -> {
+                    // ids are always assigned by the database, other columns are not ours
+                }
+            }
+        }
+        return employee;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser) {
+        try {
+            return parser.apply(value.trim());
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    // returns the next record, or null at end of input; blank lines are skipped
+    private List<String> readRecord() {
+        try {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        reader.mark(1);
+                        if (reader.read() != '\n') {
+                            reader.reset();
+                        }
+                    }
+                    if (fields.isEmpty() && field.length() == 0) {
+                        any = false;
+                        continue;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+            if (!any) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
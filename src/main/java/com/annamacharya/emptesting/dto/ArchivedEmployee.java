@@ -0,0 +1,10 @@
+package com.annamacharya.emptesting.dto;
+
+import com.annamacharya.emptesting.model.Employee;
+import com.fasterxml.jackson.annotation.JsonUnwrapped;
+
+import java.time.Instant;
+
+// an employee as it was when an archive job moved it out of the employees table, and when that was
+public record ArchivedEmployee(@JsonUnwrapped Employee employee, Instant archivedAt) {
+}
@@ -0,0 +1,11 @@
+package com.annamacharya.emptesting.dto;
+
+import java.util.List;
+
+public record BulkImportResult(int imported, int rejected, List<ImportRowResult> rows) {
+
+    public static BulkImportResult of(List<ImportRowResult> rows) {
+        int imported = (int) rows.stream().filter(row -> row.status() == ImportRowResult.Status.IMPORTED).count();
+        return new BulkImportResult(imported, rows.size() - imported, rows);
+    }
+}
@@ -0,0 +1,20 @@
+package com.annamacharya.emptesting.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+// progress of a bulk operation: total is the number of employees matching when it started, processed how many
+// of them have been gone through and affected how many rows were actually updated, deleted or archived
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkJobStatus(String id, Operation operation, State state, long total, long processed, long affected,
+                            Instant submittedAt, Instant finishedAt, String error) {
+
+    public enum Operation {
+        UPDATE, DELETE, ARCHIVE
+    }
+
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+}
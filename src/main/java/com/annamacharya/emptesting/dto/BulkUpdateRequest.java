@@ -0,0 +1,9 @@
+package com.annamacharya.emptesting.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.math.BigDecimal;
+
+// set holds the new values of the fields to overwrite; raiseSalaryPercent scales each matching salary
+public record BulkUpdateRequest(EmployeeFilter filter, JsonNode set, BigDecimal raiseSalaryPercent) {
+}
@@ -0,0 +1,5 @@
+package com.annamacharya.emptesting.dto;
+
+public record CacheStatistics(long size, long hitCount, long missCount, double hitRate,
+                              long loadCount, long evictionCount) {
+}
@@ -0,0 +1,14 @@
+package com.annamacharya.emptesting.dto;
+
+import com.annamacharya.emptesting.enums.ChangeType;
+import com.annamacharya.emptesting.model.Employee;
+
+import java.util.List;
+
+// one page of the change feed; pass nextToken as since to continue, hasMore means ask again right away
+public record EmployeeChangesPage(String nextToken, boolean hasMore, List<Change> changes) {
+
+    // the net change of one employee over the page; employee is its current state and null for deletes
+    public record Change(long employeeId, ChangeType type, Employee employee) {
+    }
+}
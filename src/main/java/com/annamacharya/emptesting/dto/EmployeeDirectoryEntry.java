@@ -0,0 +1,6 @@
+package com.annamacharya.emptesting.dto;
+
+// record projection, built by a JPQL constructor expression without loading the entity
+public record EmployeeDirectoryEntry(long id, String firstName, String lastName, String email, String jobTitle,
+                                     String department) {
+}
@@ -0,0 +1,21 @@
+package com.annamacharya.emptesting.dto;
+
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.List;
+
+// the employees a bulk operation applies to: those matching every criterion given; null criteria are ignored.
+// hiredBefore matches a hire date before that day
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record EmployeeFilter(List<Long> ids, String department, String jobTitle, EmploymentStatus employmentStatus,
+                             LocalDate hiredBefore) {
+
+    @JsonIgnore
+    public boolean isEmpty() {
+        return ids == null && department == null && jobTitle == null && employmentStatus == null
+                && hiredBefore == null;
+    }
+}
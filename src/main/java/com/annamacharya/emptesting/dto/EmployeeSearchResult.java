@@ -0,0 +1,9 @@
+package com.annamacharya.emptesting.dto;
+
+import com.annamacharya.emptesting.model.Employee;
+
+import java.util.List;
+import java.util.Map;
+
+public record EmployeeSearchResult(int total, List<Employee> employees, Map<String, Map<String, Integer>> facets) {
+}
@@ -0,0 +1,9 @@
+package com.annamacharya.emptesting.dto;
+
+// closed interface projection: Spring Data selects only these four columns
+public interface EmployeeSummary {
+    long getId();
+    String getFirstName();
+    String getLastName();
+    String getDepartment();
+}
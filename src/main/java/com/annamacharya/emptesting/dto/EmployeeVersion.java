@@ -0,0 +1,7 @@
+package com.annamacharya.emptesting.dto;
+
+import java.time.Instant;
+
+// what conditional requests need to know about an employee, without loading the row
+public record EmployeeVersion(long id, long version, Instant lastModified) {
+}
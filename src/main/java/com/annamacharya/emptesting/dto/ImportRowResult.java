@@ -0,0 +1,20 @@
+package com.annamacharya.emptesting.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+// outcome of one input row of a bulk import; row numbers are 1-based in input order
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ImportRowResult(int row, Status status, Long id, String message) {
+
+    public enum Status {
+        IMPORTED, DUPLICATE_EMAIL, INVALID
+    }
+
+    public static ImportRowResult imported(int row, long id) {
+        return new ImportRowResult(row, Status.IMPORTED, id, null);
+    }
+
+    public static ImportRowResult rejected(int row, Status status, String message) {
+        return new ImportRowResult(row, status, null, message);
+    }
+}
@@ -0,0 +1,11 @@
+package com.annamacharya.emptesting.dto;
+
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.annamacharya.emptesting.enums.Gender;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record RollupResult(String key, long headcount, BigDecimal totalSalary, BigDecimal averageSalary,
+                           Map<Gender, Long> genders, Map<EmploymentStatus, Long> employmentStatuses) {
+}
@@ -0,0 +1,13 @@
+package com.annamacharya.emptesting.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+// relativeError is 0 for exact results
+public record SalaryStatisticsResult(String key, long count, boolean exact, double relativeError,
+                                     Map<String, BigDecimal> percentiles, List<Bin> histogram) {
+
+    public record Bin(BigDecimal lower, BigDecimal upper, long count) {
+    }
+}
@@ -0,0 +1,8 @@
+package com.annamacharya.emptesting.dto;
+
+import java.util.List;
+
+public record SqlDiagnosticsReport(int bufferSize, long recorded, double slowThresholdMillis,
+                                   int maxStatementsPerRequest, List<SqlStatementSummary> statements,
+                                   List<SqlExecution> slowest, List<SqlHeavyRequest> heavyRequests) {
+}
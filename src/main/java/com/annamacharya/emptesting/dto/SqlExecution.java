@@ -0,0 +1,8 @@
+package com.annamacharya.emptesting.dto;
+
+import java.time.Instant;
+
+// one executed statement; parameters is the shape of the bind parameters (their types, never their values) and
+// rows is -1 when the driver did not report it
+public record SqlExecution(Instant executedAt, String sql, String parameters, int batches, double millis, long rows) {
+}
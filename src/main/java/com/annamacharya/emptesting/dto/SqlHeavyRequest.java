@@ -0,0 +1,8 @@
+package com.annamacharya.emptesting.dto;
+
+import java.time.Instant;
+
+// a request that issued more statements than allowed, with the statement it repeated most
+public record SqlHeavyRequest(Instant finishedAt, String method, String uri, int statements, String mostRepeatedSql,
+                              int repetitions) {
+}
@@ -0,0 +1,7 @@
+package com.annamacharya.emptesting.dto;
+
+import java.util.List;
+
+public record SqlStatementSummary(String sql, List<String> parameterShapes, long executions, double totalMillis,
+                                  double maxMillis, long rows) {
+}
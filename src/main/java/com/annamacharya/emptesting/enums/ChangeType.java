@@ -0,0 +1,5 @@
+package com.annamacharya.emptesting.enums;
+
+public enum ChangeType {
+    CREATED, UPDATED, DELETED
+}
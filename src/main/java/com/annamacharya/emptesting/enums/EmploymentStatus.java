@@ -1,7 +1,8 @@
 package com.annamacharya.emptesting.enums;
 
 public enum EmploymentStatus {
-    FULL_TIME, PART_TIME, CONTRACTOR
+    // terminated employees stay in the table until an archive job moves them to employees_archive
+    FULL_TIME, PART_TIME, CONTRACTOR, TERMINATED
 
 
 }
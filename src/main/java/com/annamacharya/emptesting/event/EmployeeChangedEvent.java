@@ -0,0 +1,23 @@
+package com.annamacharya.emptesting.event;
+
+import com.annamacharya.emptesting.enums.ChangeType;
+import com.annamacharya.emptesting.model.Employee;
+
+/**
+ * Published by the service layer for every employee write, inside the writing transaction.
+ * {@code employee} is the state after the write and is null for deletes.
+ */
+public record EmployeeChangedEvent(ChangeType type, long employeeId, Employee employee) {
+
+    public static EmployeeChangedEvent created(Employee employee) {
+        return new EmployeeChangedEvent(ChangeType.CREATED, employee.getId(), employee);
+    }
+
+    public static EmployeeChangedEvent updated(Employee employee) {
+        return new EmployeeChangedEvent(ChangeType.UPDATED, employee.getId(), employee);
+    }
+
+    public static EmployeeChangedEvent deleted(long employeeId) {
+        return new EmployeeChangedEvent(ChangeType.DELETED, employeeId, null);
+    }
+}
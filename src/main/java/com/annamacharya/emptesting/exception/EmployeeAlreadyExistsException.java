@@ -0,0 +1,12 @@
+package com.annamacharya.emptesting.exception;
+
+public class EmployeeAlreadyExistsException extends RuntimeException{
+
+    public EmployeeAlreadyExistsException(String message){
+        super(message);
+    }
+
+    public EmployeeAlreadyExistsException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
@@ -0,0 +1,8 @@
+package com.annamacharya.emptesting.execution;
+
+public enum ExecutionMode {
+    // Tomcat's bounded pool of platform threads
+    PLATFORM,
+    // a new virtual thread per request, database concurrency bounded by DatabaseConcurrencyLimiter
+    VIRTUAL
+}
@@ -0,0 +1,38 @@
+package com.annamacharya.emptesting.execution;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Virtual threads are a Java 21 API (preview in 19 and 20) and the application is compiled for Java 17,
+ * so the executor is looked up reflectively and a JVM without them fails fast with a clear message.
+ */
+public final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        try {
+            Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    public static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("employees.execution.mode=virtual needs a JVM with virtual threads (Java 21+), "
+                    + "this is Java " + Runtime.version());
+        } catch (InvocationTargetException e) {
+            // Java 19/20 without --enable-preview
+            throw new IllegalStateException("Virtual threads are not available: " + e.getCause().getMessage(), e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
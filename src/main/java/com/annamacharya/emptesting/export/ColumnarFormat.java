@@ -0,0 +1,80 @@
+package com.annamacharya.emptesting.export;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+// constants and primitive encodings shared by ColumnarRowWriter and ColumnarRowReader
+final class ColumnarFormat {
+
+    static final byte[] MAGIC = {'E', 'M', 'P', 'C'};
+
+    static final int VERSION = 1;
+
+    // how a column chunk of strings is stored
+    static final int PLAIN = 0;
+
+    static final int DICTIONARY = 1;
+
+    private ColumnarFormat() {
+    }
+
+    // unsigned LEB128
+    static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    static long readVarLong(InputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated columnar export");
+            }
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint in columnar export");
+    }
+
+    // small magnitudes of either sign become small unsigned values
+    static void writeZigZag(OutputStream out, long value) throws IOException {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+
+    static long readZigZag(InputStream in) throws IOException {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static void writeString(OutputStream out, byte[] utf8) throws IOException {
+        writeVarLong(out, utf8.length);
+        out.write(utf8);
+    }
+
+    static String readString(InputStream in) throws IOException {
+        int length = Math.toIntExact(readVarLong(in));
+        byte[] utf8 = in.readNBytes(length);
+        if (utf8.length < length) {
+            throw new EOFException("Truncated columnar export");
+        }
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+}
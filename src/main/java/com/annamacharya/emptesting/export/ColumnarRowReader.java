@@ -0,0 +1,143 @@
+package com.annamacharya.emptesting.export;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.LongFunction;
+
+/**
+ * Reads back what {@link ColumnarRowWriter} wrote, one row group in memory at a time. Rows come back as arrays
+ * of Long, String, LocalDate and BigDecimal values in the order of {@link #columns()}.
+ */
+public class ColumnarRowReader implements Iterator<Object[]>, Closeable {
+
+    private final InputStream in;
+
+    private final List<ExportColumn> columns;
+
+    // [column][row] of the current group
+    private Object[][] group;
+
+    private int groupRows;
+
+    private int next;
+
+    public ColumnarRowReader(InputStream inputStream) throws IOException {
+        this.in = inputStream instanceof BufferedInputStream ? inputStream : new BufferedInputStream(inputStream);
+        if (!Arrays.equals(in.readNBytes(ColumnarFormat.MAGIC.length), ColumnarFormat.MAGIC)) {
+            throw new IOException("Not a columnar employee export");
+        }
+        long version = ColumnarFormat.readVarLong(in);
+        if (version != ColumnarFormat.VERSION) {
+            throw new IOException("Unsupported columnar export version " + version);
+        }
+        int columnCount = Math.toIntExact(ColumnarFormat.readVarLong(in));
+        List<ExportColumn> header = new ArrayList<>(columnCount);
+        for (int i = 0; i < columnCount; i++) {
+            String name = ColumnarFormat.readString(in);
+            header.add(new ExportColumn(name, null, ExportColumn.Type.values()[in.read()]));
+        }
+        this.columns = List.copyOf(header);
+        readGroup();
+    }
+
+    public List<ExportColumn> columns() {
+        return columns;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return next < groupRows;
+    }
+
+    @Override
+    public Object[] next() {
+        if (next >= groupRows) {
+            throw new NoSuchElementException();
+        }
+        Object[] row = new Object[columns.size()];
+        for (int i = 0; i < row.length; i++) {
+            row[i] = group[i][next];
+        }
+        if (++next == groupRows) {
+            try {
+                readGroup();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        return row;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private void readGroup() throws IOException {
+        groupRows = Math.toIntExact(ColumnarFormat.readVarLong(in));
+        next = 0;
+        if (groupRows == 0) {
+            return;
+        }
+        group = new Object[columns.size()][];
+        for (int i = 0; i < group.length; i++) {
+            group[i] = switch (columns.get(i).type()) {
+                case LONG -> readDeltas(value -> value);
+                case DATE -> readDeltas(LocalDate::ofEpochDay);
+                case DECIMAL -> readDecimals();
+                case STRING -> readStrings();
+            };
+        }
+    }
+
+    private Object[] readDeltas(LongFunction<Object> fromLong) throws IOException {
+        Object[] values = new Object[groupRows];
+        long value = 0;
+        for (int row = 0; row < groupRows; row++) {
+            value += ColumnarFormat.readZigZag(in);
+            values[row] = fromLong.apply(value);
+        }
+        return values;
+    }
+
+    private Object[] readDecimals() throws IOException {
+        int scale = Math.toIntExact(ColumnarFormat.readVarLong(in));
+        Object[] values = new Object[groupRows];
+        for (int row = 0; row < groupRows; row++) {
+            values[row] = new BigDecimal(BigInteger.valueOf(ColumnarFormat.readZigZag(in)), scale);
+        }
+        return values;
+    }
+
+    private Object[] readStrings() throws IOException {
+        Object[] values = new Object[groupRows];
+        int encoding = in.read();
+        if (encoding == ColumnarFormat.DICTIONARY) {
+            String[] dictionary = new String[Math.toIntExact(ColumnarFormat.readVarLong(in))];
+            for (int entry = 0; entry < dictionary.length; entry++) {
+                dictionary[entry] = ColumnarFormat.readString(in);
+            }
+            for (int row = 0; row < groupRows; row++) {
+                values[row] = dictionary[Math.toIntExact(ColumnarFormat.readVarLong(in))];
+            }
+        } else if (encoding == ColumnarFormat.PLAIN) {
+            for (int row = 0; row < groupRows; row++) {
+                values[row] = ColumnarFormat.readString(in);
+            }
+        } else {
+            throw new IOException("Unknown string encoding " + encoding + " in columnar export");
+        }
+        return values;
+    }
+}
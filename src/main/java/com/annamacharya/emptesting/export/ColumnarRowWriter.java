@@ -0,0 +1,151 @@
+package com.annamacharya.emptesting.export;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+/**
+ * Writes rows in a compact columnar format, in the spirit of Parquet but without its dependencies.
+ * <p>
+ * Rows are buffered into groups of up to {@code rowGroupSize} and each group is written column by column, so the
+ * heap in use is bounded by one group however large the table. Layout:
+ * <pre>
+ * file      = "EMPC" version columnCount (name type)* group* 0
+ * group     = rowCount column*
+ * LONG/DATE = zigzag deltas from the previous value (dates in epoch days), so ascending ids take a byte each
+ * DECIMAL   = scale, then each value unscaled at that scale, zigzag encoded
+ * STRING    = DICTIONARY entryCount entry* index* or PLAIN entry*, whichever is smaller for the group
+ * </pre>
+ * Integers are unsigned LEB128 varints; strings are a varint byte length followed by UTF-8. Enums and other
+ * low cardinality strings end up dictionary encoded, unique ones such as emails plain.
+ */
+public class ColumnarRowWriter implements RowWriter {
+
+    private final OutputStream out;
+
+    private final List<ExportColumn> columns;
+
+    // [column][row] of the group being filled
+    private final Object[][] group;
+
+    // scratch for dictionary encoding, reused by every string column chunk
+    private final byte[][] entries;
+
+    private final int[] indices;
+
+    private int rows;
+
+    public ColumnarRowWriter(OutputStream outputStream, List<ExportColumn> columns, int rowGroupSize,
+                             int bufferSize) throws IOException {
+        this.out = new BufferedOutputStream(outputStream, bufferSize);
+        this.columns = columns;
+        this.group = new Object[columns.size()][rowGroupSize];
+        this.entries = new byte[rowGroupSize][];
+        this.indices = new int[rowGroupSize];
+        out.write(ColumnarFormat.MAGIC);
+        ColumnarFormat.writeVarLong(out, ColumnarFormat.VERSION);
+        ColumnarFormat.writeVarLong(out, columns.size());
+        for (ExportColumn column : columns) {
+            ColumnarFormat.writeString(out, column.name().getBytes(StandardCharsets.UTF_8));
+            out.write(column.type().ordinal());
+        }
+    }
+
+    @Override
+    public void write(Object[] row) throws IOException {
+        for (int i = 0; i < group.length; i++) {
+            group[i][rows] = ExportColumn.checkType(columns.get(i), row[i]);
+        }
+        if (++rows == entries.length) {
+            writeGroup();
+        }
+    }
+
+    @Override
+    public void finish() throws IOException {
+        if (rows > 0) {
+            writeGroup();
+        }
+        ColumnarFormat.writeVarLong(out, 0);
+        out.flush();
+    }
+
+    private void writeGroup() throws IOException {
+        ColumnarFormat.writeVarLong(out, rows);
+        for (int i = 0; i < group.length; i++) {
+            Object[] values = group[i];
+            switch (columns.get(i).type()) {
+                case LONG -> writeDeltas(values, value -> (Long) value);
+                case DATE -> writeDeltas(values, value -> ((LocalDate) value).toEpochDay());
+                case DECIMAL -> writeDecimals(values);
+                case STRING -> writeStrings(values);
+            }
+            Arrays.fill(values, 0, rows, null);
+        }
+        rows = 0;
+    }
+
+    private void writeDeltas(Object[] values, ToLongFunction<Object> toLong) throws IOException {
+        long previous = 0;
+        for (int row = 0; row < rows; row++) {
+            long value = toLong.applyAsLong(values[row]);
+            ColumnarFormat.writeZigZag(out, value - previous);
+            previous = value;
+        }
+    }
+
+    private void writeDecimals(Object[] values) throws IOException {
+        int scale = 0;
+        for (int row = 0; row < rows; row++) {
+            scale = Math.max(scale, ((BigDecimal) values[row]).scale());
+        }
+        ColumnarFormat.writeVarLong(out, scale);
+        for (int row = 0; row < rows; row++) {
+            ColumnarFormat.writeZigZag(out, ((BigDecimal) values[row]).setScale(scale).unscaledValue().longValueExact());
+        }
+    }
+
+    private void writeStrings(Object[] values) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        long plainSize = 0;
+        long dictionarySize = 0;
+        for (int row = 0; row < rows; row++) {
+            Integer index = dictionary.get((String) values[row]);
+            if (index == null) {
+                index = dictionary.size();
+                dictionary.put((String) values[row], index);
+                entries[index] = ((String) values[row]).getBytes(StandardCharsets.UTF_8);
+                dictionarySize += ColumnarFormat.varLongSize(entries[index].length) + entries[index].length;
+            }
+            indices[row] = index;
+            plainSize += ColumnarFormat.varLongSize(entries[index].length) + entries[index].length;
+            dictionarySize += ColumnarFormat.varLongSize(index);
+        }
+        dictionarySize += ColumnarFormat.varLongSize(dictionary.size());
+
+        if (dictionarySize < plainSize) {
+            out.write(ColumnarFormat.DICTIONARY);
+            ColumnarFormat.writeVarLong(out, dictionary.size());
+            for (int entry = 0; entry < dictionary.size(); entry++) {
+                ColumnarFormat.writeString(out, entries[entry]);
+            }
+            for (int row = 0; row < rows; row++) {
+                ColumnarFormat.writeVarLong(out, indices[row]);
+            }
+        } else {
+            out.write(ColumnarFormat.PLAIN);
+            for (int row = 0; row < rows; row++) {
+                ColumnarFormat.writeString(out, entries[indices[row]]);
+            }
+        }
+        Arrays.fill(entries, 0, dictionary.size(), null);
+    }
+}
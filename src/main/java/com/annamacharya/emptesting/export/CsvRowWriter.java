@@ -0,0 +1,54 @@
+package com.annamacharya.emptesting.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// RFC 4180: a header row of column names, CRLF line ends, fields quoted only when they need it
+public class CsvRowWriter implements RowWriter {
+
+    private final Writer writer;
+
+    private final List<ExportColumn> columns;
+
+    public CsvRowWriter(OutputStream outputStream, List<ExportColumn> columns, int bufferSize) throws IOException {
+        this.writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8), bufferSize);
+        this.columns = columns;
+        for (int i = 0; i < columns.size(); i++) {
+            field(i, columns.get(i).name());
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void write(Object[] row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            Object value = ExportColumn.checkType(columns.get(i), row[i]);
+            field(i, value instanceof BigDecimal decimal ? decimal.toPlainString() : value.toString());
+        }
+        writer.write("\r\n");
+    }
+
+    @Override
+    public void finish() throws IOException {
+        writer.flush();
+    }
+
+    private void field(int index, String value) throws IOException {
+        if (index > 0) {
+            writer.write(',');
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,79 @@
+package com.annamacharya.emptesting.export;
+
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the employees table into an export file straight off a JDBC cursor: rows are read into one reused
+ * array and handed to the format writer, with no entities, persistence context or intermediate list, so heap
+ * stays flat however many employees there are. The cursor fetches {@code fetch-size} rows per round trip
+ * (see useCursorFetch on the datasource url). The shards are read one after the other; their id ranges follow each
+ * other, so the file is still in id order.
+ */
+@Service
+public class EmployeeExporter {
+
+    private static final List<ExportColumn> COLUMNS = ExportColumn.EMPLOYEE_COLUMNS;
+
+    private static final String SELECT_ALL = COLUMNS.stream().map(ExportColumn::sqlColumn)
+            .collect(Collectors.joining(", ", "SELECT ", " FROM employees ORDER BY id"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EmployeeShards employeeShards;
+
+    private final int rowGroupSize;
+
+    private final int bufferSize;
+
+    public EmployeeExporter(DataSource dataSource,
+                            EmployeeShards employeeShards,
+                            @Value("${employees.export.fetch-size:1000}") int fetchSize,
+                            @Value("${employees.export.row-group-size:8192}") int rowGroupSize,
+                            @Value("${employees.export.buffer-size:65536}") int bufferSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.employeeShards = employeeShards;
+        this.rowGroupSize = rowGroupSize;
+        this.bufferSize = bufferSize;
+    }
+
+    // writes every employee in id order and returns how many; the stream is flushed but left open
+    public long export(ExportFormat format, OutputStream outputStream) throws IOException {
+        RowWriter writer = switch (format) {
+            case CSV -> new CsvRowWriter(outputStream, COLUMNS, bufferSize);
+            case COLUMNAR -> new ColumnarRowWriter(outputStream, COLUMNS, rowGroupSize, bufferSize);
+        };
+        Object[] row = new Object[COLUMNS.size()];
+        long[] rows = {0};
+        try {
+            for (int shard = 0; shard < employeeShards.count(); shard++) {
+                ShardContext.run(shard, () -> jdbcTemplate.query(SELECT_ALL, resultSet -> {
+                    for (int i = 0; i < row.length; i++) {
+                        row[i] = COLUMNS.get(i).read(resultSet, i + 1);
+                    }
+                    try {
+                        writer.write(row);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    rows[0]++;
+                }));
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.finish();
+        return rows[0];
+    }
+}
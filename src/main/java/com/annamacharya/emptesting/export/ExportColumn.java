@@ -0,0 +1,65 @@
+package com.annamacharya.emptesting.export;
+
+import com.annamacharya.emptesting.csv.EmployeeCsv;
+import com.annamacharya.emptesting.model.Employee;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Locale;
+
+// one exported column: its name in the file (the Employee attribute), the employees column it is read from and
+// how its values are encoded. Every exported column is NOT NULL in the schema
+public record ExportColumn(String name, String sqlColumn, Type type) {
+
+    public enum Type {
+        LONG, STRING, DATE, DECIMAL
+    }
+
+    // the columns of EmployeeCsv, in that order
+    public static final List<ExportColumn> EMPLOYEE_COLUMNS = EmployeeCsv.COLUMNS.stream()
+            .map(name -> new ExportColumn(name, name.replaceAll("([A-Z])", "_$1").toLowerCase(Locale.ROOT), switch (name) {
+                case "id" -> Type.LONG;
+                case "dateOfBirth", "hireDate" -> Type.DATE;
+                case "salary" -> Type.DECIMAL;
+                default -> Type.STRING;
+            }))
+            .toList();
+
+    public Object read(ResultSet resultSet, int index) throws SQLException {
+        return switch (type) {
+            case LONG -> resultSet.getLong(index);
+            case STRING -> resultSet.getString(index);
+            case DATE -> resultSet.getObject(index, LocalDate.class);
+            case DECIMAL -> resultSet.getBigDecimal(index);
+        };
+    }
+
+    // the row an employee is exported as; enums become their names, as in the table
+    public static Object[] toRow(Employee employee) {
+        BeanWrapper wrapper = new BeanWrapperImpl(employee);
+        Object[] row = new Object[EMPLOYEE_COLUMNS.size()];
+        for (int i = 0; i < row.length; i++) {
+            Object value = wrapper.getPropertyValue(EMPLOYEE_COLUMNS.get(i).name());
+            row[i] = value instanceof Enum<?> constant ? constant.name() : value;
+        }
+        return row;
+    }
+
+    static Object checkType(ExportColumn column, Object value) {
+        boolean matches = switch (column.type()) {
+            case LONG -> value instanceof Long;
+            case STRING -> value instanceof String;
+            case DATE -> value instanceof LocalDate;
+            case DECIMAL -> value instanceof BigDecimal;
+        };
+        if (!matches) {
+            throw new IllegalArgumentException("Column " + column.name() + " expects " + column.type() + ", got " + value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,33 @@
+package com.annamacharya.emptesting.export;
+
+import java.util.Locale;
+
+public enum ExportFormat {
+
+    // RFC 4180 with a header row, readable by EmployeeCsvReader and so by the CSV bulk import
+    CSV("text/csv", "csv"),
+
+    // row groups of columns, see ColumnarRowWriter
+    COLUMNAR("application/vnd.employees.columnar", "empc");
+
+    private final String mediaType;
+
+    private final String extension;
+
+    ExportFormat(String mediaType, String extension) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+    }
+
+    public String mediaType() {
+        return mediaType;
+    }
+
+    public String extension() {
+        return extension;
+    }
+
+    public static ExportFormat of(String name) {
+        return valueOf(name.trim().toUpperCase(Locale.ROOT));
+    }
+}
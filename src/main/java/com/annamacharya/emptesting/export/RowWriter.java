@@ -0,0 +1,12 @@
+package com.annamacharya.emptesting.export;
+
+import java.io.IOException;
+
+// writes exported rows to a stream; a row holds one value per column and may be reused by the caller
+public interface RowWriter {
+
+    void write(Object[] row) throws IOException;
+
+    // writes anything still buffered and flushes, leaving the underlying stream open
+    void finish() throws IOException;
+}
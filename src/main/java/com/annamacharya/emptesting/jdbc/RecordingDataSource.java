@@ -0,0 +1,222 @@
+package com.annamacharya.emptesting.jdbc;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * DataSource wrapper that reports every statement run on its connections to a {@link StatementLog}: the SQL, the
+ * shape of its bind parameters, the execution time and the row count. Parameter values are never kept.
+ * <p>
+ * The time is that of the execute call; the rows of a query are counted as the caller reads them, so a query is
+ * reported once its statement is closed or executed again.
+ */
+public class RecordingDataSource extends DelegatingDataSource {
+
+    private final StatementLog statementLog;
+
+    public RecordingDataSource(DataSource targetDataSource, StatementLog statementLog) {
+        super(targetDataSource);
+        this.statementLog = statementLog;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connection(super.getConnection(username, password));
+    }
+
+    private Connection connection(Connection connection) {
+        return proxy(Connection.class, (proxy, method, args) -> {
+            Object result = delegate(connection, method, args);
+            if (result instanceof Statement statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                StatementRecorder recorder = new StatementRecorder(statement, sql);
+                recorder.proxy = (Statement) proxy(method.getReturnType(), recorder);
+                return recorder.proxy;
+            }
+            return result;
+        });
+    }
+
+    private final class StatementRecorder implements InvocationHandler {
+
+        private final Statement statement;
+
+        private Statement proxy;
+
+        private String sql;
+
+        // bind parameter types by index - 1
+        private final List<String> parameters = new ArrayList<>();
+
+        private int batches;
+
+        // the last execution, reported once its rows are known
+        private boolean executed;
+
+        private String executedSql;
+
+        private String executedParameters;
+
+        private int executedBatches;
+
+        private long nanos;
+
+        private long rows;
+
+        StatementRecorder(Statement statement, String sql) {
+            this.statement = statement;
+            this.sql = sql;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            if (name.startsWith("execute")) {
+                return execute(method, args);
+            }
+            if (method.getDeclaringClass() == PreparedStatement.class && name.startsWith("set") && args.length >= 2) {
+                parameter((Integer) args[0], name, args[1]);
+            } else if (name.equals("clearParameters")) {
+                parameters.clear();
+            } else if (name.equals("addBatch")) {
+                batches++;
+                if (sql == null && args != null) {
+                    sql = (String) args[0];
+                }
+            } else if (name.equals("clearBatch")) {
+                batches = 0;
+            } else if (name.equals("close")) {
+                report();
+            }
+            Object result = delegate(statement, method, args);
+            if (name.equals("getResultSet") && result != null) {
+                rows = Math.max(0, rows);
+                return resultSet((ResultSet) result);
+            }
+            if (executed && rows < 0 && (name.equals("getUpdateCount") || name.equals("getLargeUpdateCount"))) {
+                rows = Math.max(-1, ((Number) result).longValue());
+            }
+            return result;
+        }
+
+        private Object execute(Method method, Object[] args) throws Throwable {
+            report();
+            executed = true;
+            executedSql = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+            executedParameters = String.join(",", parameters);
+            executedBatches = batches;
+            batches = 0;
+            rows = -1;
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = delegate(statement, method, args);
+            } catch (Throwable e) {
+                nanos = System.nanoTime() - start;
+                report();
+                throw e;
+            }
+            nanos = System.nanoTime() - start;
+            if (result instanceof ResultSet resultSet) {
+                rows = 0;
+                return resultSet(resultSet);
+            }
+            if (result instanceof Number count) {
+                rows = Math.max(-1, count.longValue());
+                report();
+            } else if (result instanceof int[] counts) {
+                rows = sum(Arrays.stream(counts).asLongStream().toArray());
+                report();
+            } else if (result instanceof long[] counts) {
+                rows = sum(counts);
+                report();
+            }
+            return result;
+        }
+
+        private void report() {
+            if (executed) {
+                executed = false;
+                statementLog.record(executedSql, executedParameters, executedBatches, nanos, rows);
+            }
+        }
+
+        // the type of a parameter, from the setter that bound it or the class of the object given to setObject
+        private void parameter(int index, String setter, Object value) {
+            while (parameters.size() < index) {
+                parameters.add("?");
+            }
+            String type;
+            if (setter.equals("setNull") || value == null) {
+                type = "null";
+            } else if (setter.equals("setObject")) {
+                type = value.getClass().getSimpleName().toLowerCase(Locale.ROOT);
+            } else {
+                type = setter.substring(3).toLowerCase(Locale.ROOT);
+            }
+            parameters.set(index - 1, type);
+        }
+
+        private ResultSet resultSet(ResultSet resultSet) {
+            return proxy(ResultSet.class, (proxy, method, args) -> {
+                Object result = delegate(resultSet, method, args);
+                if (method.getName().equals("next") && Boolean.TRUE.equals(result)) {
+                    rows++;
+                } else if (method.getName().equals("getStatement")) {
+                    return this.proxy;
+                }
+                return result;
+            });
+        }
+    }
+
+    // -1 when the driver reports a batch entry as succeeded without a count, as MySQL does for rewritten batches
+    private static long sum(long[] counts) {
+        long sum = 0;
+        for (long rows : counts) {
+            if (rows < 0) {
+                return -1;
+            }
+            sum += rows;
+        }
+        return sum;
+    }
+
+    // proxies compare by identity; everything else is up to the handler
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(RecordingDataSource.class.getClassLoader(), new Class<?>[]{type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> handler.invoke(proxy, method, args);
+                });
+    }
+
+    private static Object delegate(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
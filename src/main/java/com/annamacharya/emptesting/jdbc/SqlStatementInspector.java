@@ -0,0 +1,37 @@
+package com.annamacharya.emptesting.jdbc;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate hook that sees every SQL statement before it is prepared. It is registered through
+ * {@code hibernate.session_factory.statement_inspector} and leaves the SQL untouched; while
+ * {@link #capture(Runnable)} runs on a thread, the statements issued by that thread are recorded.
+ */
+public class SqlStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> CAPTURED = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        List<String> captured = CAPTURED.get();
+        if (captured != null) {
+            captured.add(sql);
+        }
+        return sql;
+    }
+
+    public static List<String> capture(Runnable action) {
+        List<String> previous = CAPTURED.get();
+        List<String> statements = new ArrayList<>();
+        CAPTURED.set(statements);
+        try {
+            action.run();
+            return statements;
+        } finally {
+            CAPTURED.set(previous);
+        }
+    }
+}
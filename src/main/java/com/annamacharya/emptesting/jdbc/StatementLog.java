@@ -0,0 +1,212 @@
+package com.annamacharya.emptesting.jdbc;
+
+import com.annamacharya.emptesting.dto.SqlDiagnosticsReport;
+import com.annamacharya.emptesting.dto.SqlExecution;
+import com.annamacharya.emptesting.dto.SqlHeavyRequest;
+import com.annamacharya.emptesting.dto.SqlStatementSummary;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded record of the SQL the application ran, fed by {@link RecordingDataSource}; it takes over from
+ * {@code spring.jpa.show-sql}, which printed every statement as it went.
+ * <p>
+ * Every execution is kept in a ring of the last {@code bufferSize} statements and only those slower than the
+ * threshold are logged. While a request is tracked on the thread, from {@link #beginRequest()} to
+ * {@link #endRequest(String, String)}, its statements are counted per SQL text; a request that issues more than
+ * the limit is logged and kept with the statement it repeated most, which is where an N+1 shows itself.
+ */
+public class StatementLog {
+
+    private static final Logger log = LoggerFactory.getLogger(StatementLog.class);
+
+    private static final int HEAVY_REQUESTS_KEPT = 128;
+
+    private static final ThreadLocal<Map<String, int[]>> REQUEST_STATEMENTS = new ThreadLocal<>();
+
+    private final Ring<Execution> executions;
+
+    private final Ring<SqlHeavyRequest> heavyRequests = new Ring<>(HEAVY_REQUESTS_KEPT);
+
+    private final long slowThresholdNanos;
+
+    private final int maxStatementsPerRequest;
+
+    public StatementLog(int bufferSize, Duration slowThreshold, int maxStatementsPerRequest) {
+        if (bufferSize < 1) {
+            throw new IllegalArgumentException("SQL statement buffer size must be positive, was " + bufferSize);
+        }
+        this.executions = new Ring<>(bufferSize);
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        this.maxStatementsPerRequest = maxStatementsPerRequest;
+    }
+
+    // rows is -1 when unknown
+    public void record(String sql, String parameters, int batches, long nanos, long rows) {
+        executions.add(new Execution(System.currentTimeMillis(), sql, parameters, batches, nanos, rows));
+        if (nanos >= slowThresholdNanos) {
+            log.warn("Slow SQL statement: {} ms, {} rows, {} batches, parameters [{}]: {}",
+                    millis(nanos), rows, batches, parameters, sql);
+        }
+        Map<String, int[]> requestStatements = REQUEST_STATEMENTS.get();
+        if (requestStatements != null) {
+            requestStatements.computeIfAbsent(sql, text -> new int[1])[0]++;
+        }
+    }
+
+    public void beginRequest() {
+        REQUEST_STATEMENTS.set(new HashMap<>());
+    }
+
+    public void endRequest(String method, String uri) {
+        Map<String, int[]> requestStatements = REQUEST_STATEMENTS.get();
+        REQUEST_STATEMENTS.remove();
+        if (requestStatements == null) {
+            return;
+        }
+        int statements = 0;
+        Map.Entry<String, int[]> mostRepeated = null;
+        for (Map.Entry<String, int[]> entry : requestStatements.entrySet()) {
+            statements += entry.getValue()[0];
+            if (mostRepeated == null || entry.getValue()[0] > mostRepeated.getValue()[0]) {
+                mostRepeated = entry;
+            }
+        }
+        if (statements > maxStatementsPerRequest) {
+            log.warn("{} {} issued {} SQL statements, {} of them: {}",
+                    method, uri, statements, mostRepeated.getValue()[0], mostRepeated.getKey());
+            heavyRequests.add(new SqlHeavyRequest(Instant.now(), method, uri, statements, mostRepeated.getKey(),
+                    mostRepeated.getValue()[0]));
+        }
+    }
+
+    // statements of the request tracked on the current thread so far, -1 when none is tracked
+    public int requestStatements() {
+        Map<String, int[]> requestStatements = REQUEST_STATEMENTS.get();
+        if (requestStatements == null) {
+            return -1;
+        }
+        int statements = 0;
+        for (int[] count : requestStatements.values()) {
+            statements += count[0];
+        }
+        return statements;
+    }
+
+    // forgets the tracked request without judging it, for a thread handing the request over to another one
+    public void discardRequest() {
+        REQUEST_STATEMENTS.remove();
+    }
+
+    // statements by total time over what is still in the buffer, the slowest single executions and the latest
+    // heavy requests first, at most limit of each
+    public SqlDiagnosticsReport report(int limit) {
+        List<Execution> recent = executions.snapshot();
+        Map<String, Summary> summaries = new LinkedHashMap<>();
+        recent.forEach(execution -> summaries.computeIfAbsent(execution.sql(), sql -> new Summary()).add(execution));
+        List<SqlStatementSummary> statements = summaries.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, Summary> entry) -> entry.getValue().nanos).reversed())
+                .limit(limit)
+                .map(entry -> entry.getValue().toSummary(entry.getKey()))
+                .toList();
+        List<SqlExecution> slowest = recent.stream()
+                .sorted(Comparator.comparingLong(Execution::nanos).reversed())
+                .limit(limit)
+                .map(Execution::toSqlExecution)
+                .toList();
+        List<SqlHeavyRequest> heavy = heavyRequests.snapshot();
+        heavy = new ArrayList<>(heavy.subList(Math.max(0, heavy.size() - limit), heavy.size()));
+        Collections.reverse(heavy);
+        return new SqlDiagnosticsReport(executions.capacity(), executions.added(), millis(slowThresholdNanos),
+                maxStatementsPerRequest, statements, slowest, heavy);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private record Execution(long executedAt, String sql, String parameters, int batches, long nanos, long rows) {
+
+        SqlExecution toSqlExecution() {
+            return new SqlExecution(Instant.ofEpochMilli(executedAt), sql, parameters, batches, millis(nanos), rows);
+        }
+    }
+
+    private static final class Summary {
+
+        private final Set<String> parameterShapes = new LinkedHashSet<>();
+
+        private long executions;
+
+        private long nanos;
+
+        private long maxNanos;
+
+        private long rows;
+
+        void add(Execution execution) {
+            parameterShapes.add(execution.parameters());
+            executions++;
+            nanos += execution.nanos();
+            maxNanos = Math.max(maxNanos, execution.nanos());
+            rows += Math.max(0, execution.rows());
+        }
+
+        SqlStatementSummary toSummary(String sql) {
+            return new SqlStatementSummary(sql, List.copyOf(parameterShapes), executions, millis(nanos),
+                    millis(maxNanos), rows);
+        }
+    }
+
+    // writers claim a slot with one atomic increment and overwrite the oldest entry; a snapshot taken while
+    // writers are busy may hold a few entries newer than the rest, which is fine for diagnostics
+    private static final class Ring<T> {
+
+        private final AtomicReferenceArray<T> slots;
+
+        private final AtomicLong added = new AtomicLong();
+
+        Ring(int capacity) {
+            this.slots = new AtomicReferenceArray<>(capacity);
+        }
+
+        void add(T entry) {
+            slots.set((int) (added.getAndIncrement() % slots.length()), entry);
+        }
+
+        long added() {
+            return added.get();
+        }
+
+        int capacity() {
+            return slots.length();
+        }
+
+        // oldest first
+        List<T> snapshot() {
+            long end = added.get();
+            List<T> entries = new ArrayList<>();
+            for (long i = Math.max(0, end - slots.length()); i < end; i++) {
+                T entry = slots.get((int) (i % slots.length()));
+                if (entry != null) {
+                    entries.add(entry);
+                }
+            }
+            return entries;
+        }
+    }
+}
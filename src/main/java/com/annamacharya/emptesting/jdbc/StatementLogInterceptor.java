@@ -0,0 +1,34 @@
+package com.annamacharya.emptesting.jdbc;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// tracks the statements of each request on its request thread, so the StatementLog can flag requests issuing too many
+public class StatementLogInterceptor implements AsyncHandlerInterceptor {
+
+    private final StatementLog statementLog;
+
+    public StatementLogInterceptor(StatementLog statementLog) {
+        this.statementLog = statementLog;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statementLog.beginRequest();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        statementLog.endRequest(request.getMethod(), pattern instanceof String uri ? uri : request.getRequestURI());
+    }
+
+    // an async request (the event stream, a Callable) leaves this thread, which goes on to serve other requests
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        statementLog.discardRequest();
+    }
+}
@@ -0,0 +1,91 @@
+package com.annamacharya.emptesting.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.framework.Advised;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call it intercepts into {@code metricName}, tagged with the called type, method and outcome.
+ * <p>
+ * The timers of a method are looked up once and kept, so after the first call recording takes two map reads
+ * and a histogram update, unlike {@code @Timed}, which builds its tags and looks its timer up on every call.
+ * The registry is resolved on first use because advisors are created before the registry is configured.
+ */
+public class MethodTimingInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final String metricName;
+
+    private final String typeTag;
+
+    // class of the target -> method -> {success, error}
+    private final Map<Class<?>, Map<Method, Timer[]>> timers = new ConcurrentHashMap<>();
+
+    public MethodTimingInterceptor(ObjectProvider<MeterRegistry> meterRegistry, String metricName, String typeTag) {
+        this.meterRegistry = meterRegistry;
+        this.metricName = metricName;
+        this.typeTag = typeTag;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer[] methodTimers = timers(invocation);
+        long start = System.nanoTime();
+        try {
+            Object result = invocation.proceed();
+            methodTimers[0].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            methodTimers[1].record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    // keyed by the class of the target itself: every Spring Data repository is a proxy class of its own
+    private Timer[] timers(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        Class<?> targetClass = target == null ? invocation.getMethod().getDeclaringClass() : target.getClass();
+        Map<Method, Timer[]> methods = timers.get(targetClass);
+        if (methods == null) {
+            methods = timers.computeIfAbsent(targetClass, type -> new ConcurrentHashMap<>());
+        }
+        Timer[] methodTimers = methods.get(invocation.getMethod());
+        if (methodTimers == null) {
+            String typeName = typeName(invocation);
+            methodTimers = methods.computeIfAbsent(invocation.getMethod(), method -> new Timer[]{
+                    timer(typeName, method, "SUCCESS"), timer(typeName, method, "ERROR")});
+        }
+        return methodTimers;
+    }
+
+    private Timer timer(String typeName, Method method, String outcome) {
+        return Timer.builder(metricName)
+                .tag(typeTag, typeName)
+                .tag("method", method.getName())
+                .tag("outcome", outcome)
+                .register(meterRegistry.getObject());
+    }
+
+    // a Spring Data repository is a proxy around the shared SimpleJpaRepository, so it is named by the repository
+    // interface it proxies, the first one
+    private static String typeName(MethodInvocation invocation) {
+        Object target = invocation.getThis();
+        if (target == null) {
+            return invocation.getMethod().getDeclaringClass().getSimpleName();
+        }
+        if (target instanceof Advised advised && advised.getProxiedInterfaces().length > 0) {
+            return advised.getProxiedInterfaces()[0].getSimpleName();
+        }
+        return AopUtils.getTargetClass(target).getSimpleName();
+    }
+}
@@ -0,0 +1,54 @@
+package com.annamacharya.emptesting.metrics;
+
+import com.annamacharya.emptesting.jdbc.StatementLog;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// records how many SQL statements each request issued on its request thread, per URI pattern and HTTP method;
+// an N+1 shows up as a count that grows with the page size. The count is the one the StatementLog tracks for the
+// request, so this has to complete before the StatementLogInterceptor ends the request
+public class SqlStatementMetricsInterceptor implements HandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    private final StatementLog statementLog;
+
+    // uri pattern -> method -> summary
+    private final Map<String, Map<String, DistributionSummary>> summaries = new ConcurrentHashMap<>();
+
+    public SqlStatementMetricsInterceptor(MeterRegistry meterRegistry, StatementLog statementLog) {
+        this.meterRegistry = meterRegistry;
+        this.statementLog = statementLog;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        int statements = statementLog.requestStatements();
+        if (statements >= 0 && request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String uri) {
+            summary(uri, request.getMethod()).record(statements);
+        }
+    }
+
+    private DistributionSummary summary(String uri, String method) {
+        Map<String, DistributionSummary> methods = summaries.get(uri);
+        if (methods == null) {
+            methods = summaries.computeIfAbsent(uri, pattern -> new ConcurrentHashMap<>());
+        }
+        DistributionSummary summary = methods.get(method);
+        if (summary == null) {
+            summary = methods.computeIfAbsent(method, name -> DistributionSummary.builder("employees.sql.statements")
+                    .baseUnit("statements")
+                    .tag("uri", uri)
+                    .tag("method", name)
+                    .register(meterRegistry));
+        }
+        return summary;
+    }
+}
@@ -5,92 +5,157 @@ import com.annamacharya.emptesting.enums.HireSource;
 import com.annamacharya.emptesting.enums.MaritalStatus;
 import com.annamacharya.emptesting.enums.EmploymentStatus;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.*;
 
 import jakarta.persistence.*;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 @Setter
 @Getter
 @AllArgsConstructor
 @NoArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 
+// UPDATEs list only the columns that changed
+@DynamicUpdate
 @Entity
-@Table(name = "employees")
+@Table(name = "employees",
+        uniqueConstraints = @UniqueConstraint(name = Employee.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"),
+        indexes = {
+                @Index(name = "idx_employees_last_first_name", columnList = "last_name, first_name"),
+                @Index(name = "idx_employees_department_salary", columnList = "department, salary"),
+                @Index(name = "idx_employees_job_title_salary", columnList = "job_title, salary"),
+                @Index(name = "idx_employees_hire_date", columnList = "hire_date"),
+                @Index(name = "idx_employees_employment_status", columnList = "employment_status")
+        })
 public class Employee {
 
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "uk_employees_email";
+
+    // pooled sequence (a table on MySQL) so ids are known before the INSERT and Hibernate can batch inserts;
+    // each shard has its own and hands out ids in the shard's range
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(generator = "employees_seq")
+    @GenericGenerator(name = "employees_seq", strategy = "com.annamacharya.emptesting.sharding.ShardedSequenceGenerator",
+            parameters = {@Parameter(name = "sequence_name", value = "employees_seq"),
+                    @Parameter(name = "increment_size", value = "50")})
     private long id;
 
+    @NotBlank
     @Column(name = "first_name", nullable = false)
     private String firstName;
 
+    @NotBlank
     @Column(name = "last_name", nullable = false)
     private String lastName;
 
+    @NotBlank
+    @Email
     @Column(name="email",nullable = false)
     private String email;
 
+    @NotBlank
     @Column(name = "phone_number",nullable = false)
     private String phoneNumber;
 
+    @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "gender",nullable=false)
     private Gender gender;
 
+    @NotNull
     @Column(name = "date_of_birth",nullable=false)
     private LocalDate dateOfBirth;
 
+    @NotNull
     @Column(name = "hire_date",nullable=false)
     private LocalDate hireDate;
 
 
+    @NotBlank
     @Column(name = "job_title",nullable=false)
     private String jobTitle;
 
+    @NotBlank
     @Column(name = "department",nullable=false)
     private String department;
 
+    @NotNull
     @Column(name = "salary",nullable=false)
     private BigDecimal salary;
 
+    @NotBlank
     @Column(name = "address",nullable=false)
     private String address;
 
 
+    @NotBlank
     @Column(name = "city",nullable=false)
     private String city;
 
 
+    @NotBlank
     @Column(name = "state",nullable=false)
     private String state;
 
 
+    @NotBlank
     @Column(name = "postal_code",nullable=false)
     private String postalCode;
 
+    @NotBlank
     @Column(name = "country",nullable=false)
     private String country;
 
+    @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "marital_status",nullable=false)
     private MaritalStatus maritalStatus;
 
+    @NotBlank
     @Column(name = "emergency_contact_name",nullable=false)
     private String emergencyContactName;
 
+    @NotBlank
     @Column(name = "emergency_contact_phone",nullable=false)
     private String emergencyContactPhone;
 
+    @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "hire_source",nullable=false)
     private HireSource hireSource;
 
+    @NotNull
     @Enumerated(EnumType.STRING)
     @Column(name = "employment_status",nullable=false)
     private EmploymentStatus employmentStatus;
     // Getters and setters for enums
+
+    // optimistic locking: checked and bumped by every update; it is also the employee's ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // UTC time of the last insert or update, served as Last-Modified
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Convert(converter = UtcInstantConverter.class)
+    @Column(name = "last_modified", nullable = false)
+    private Instant lastModified;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModified = Instant.now().truncatedTo(ChronoUnit.MICROS);
+    }
 }
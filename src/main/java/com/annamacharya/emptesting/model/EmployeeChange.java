@@ -0,0 +1,42 @@
+package com.annamacharya.emptesting.model;
+
+import com.annamacharya.emptesting.enums.ChangeType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+@NoArgsConstructor
+
+@Entity
+@Table(name = "employee_changes",
+        indexes = @Index(name = "idx_employee_changes_changed_at", columnList = "changed_at"))
+public class EmployeeChange {
+
+    // auto increment, so the id is the position in the feed
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "employee_id", nullable = false)
+    private long employeeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "change_type", nullable = false)
+    private ChangeType changeType;
+
+    // UTC; a plain LocalDateTime rather than a converted Instant so queries can compare against it
+    @Column(name = "changed_at", nullable = false)
+    private LocalDateTime changedAt;
+
+    public EmployeeChange(long employeeId, ChangeType changeType) {
+        this.employeeId = employeeId;
+        this.changeType = changeType;
+        this.changedAt = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+    }
+}
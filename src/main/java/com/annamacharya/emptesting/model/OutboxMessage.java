@@ -0,0 +1,57 @@
+package com.annamacharya.emptesting.model;
+
+import com.annamacharya.emptesting.enums.ChangeType;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+@Getter
+@NoArgsConstructor
+
+@Entity
+@Table(name = "employee_outbox",
+        indexes = {
+                @Index(name = "idx_employee_outbox_claimed_by", columnList = "claimed_by"),
+                @Index(name = "idx_employee_outbox_claimed_until", columnList = "claimed_until, id")
+        })
+public class OutboxMessage {
+
+    // auto increment; also the message id consumers deduplicate redeliveries by
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "employee_id", nullable = false)
+    private long employeeId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private ChangeType eventType;
+
+    // the EmployeeChangedEvent as JSON
+    @Column(name = "payload", nullable = false, length = 8000)
+    private String payload;
+
+    // UTC
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    // the relay claim holding this message, and until when; an expired claim is picked up again
+    @Column(name = "claimed_by", length = 64)
+    private String claimedBy;
+
+    @Column(name = "claimed_until")
+    private LocalDateTime claimedUntil;
+
+    public OutboxMessage(long employeeId, ChangeType eventType, String payload) {
+        this.employeeId = employeeId;
+        this.eventType = eventType;
+        this.payload = payload;
+        this.createdAt = LocalDateTime.now(ZoneOffset.UTC).truncatedTo(ChronoUnit.MICROS);
+    }
+}
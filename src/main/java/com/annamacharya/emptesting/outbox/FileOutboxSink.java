@@ -0,0 +1,49 @@
+package com.annamacharya.emptesting.outbox;
+
+import com.annamacharya.emptesting.model.OutboxMessage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Stand-in sink that appends one JSON line per message to a local file and forces it to disk before the batch
+ * counts as delivered: {@code {"id":..,"employeeId":..,"type":"UPDATED","event":{..}}}.
+ */
+public class FileOutboxSink implements OutboxSink {
+
+    private final Path path;
+
+    public FileOutboxSink(Path path) {
+        this.path = path;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxMessage message : batch) {
+            lines.append("{\"id\":").append(message.getId())
+                    .append(",\"employeeId\":").append(message.getEmployeeId())
+                    .append(",\"type\":\"").append(message.getEventType()).append('"')
+                    .append(",\"event\":").append(message.getPayload())
+                    .append("}\n");
+        }
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.annamacharya.emptesting.outbox;
+
+import com.annamacharya.emptesting.model.OutboxMessage;
+import com.annamacharya.emptesting.repository.OutboxMessageRepository;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the outbox to the {@link OutboxSink} in the background.
+ * <p>
+ * Messages are split into {@code parallelism} partitions by employee id, each drained by its own worker, so the
+ * events of one employee are delivered in order. A worker claims up to {@code batch-size} messages with a
+ * lease, publishes them and deletes them; it keeps going while batches come back full and otherwise waits
+ * {@code linger} for more to accumulate. A failed publish (or a crashed node) leaves the claim to expire and the
+ * batch is delivered again: at least once, deduplicated by message id on the consuming side. Until then the
+ * partition is held, no worker on any node claims the messages behind that batch. Every shard has
+ * its own outbox, next to its employees, and a worker drains its partition of each in turn.
+ */
+@Component
+@ConditionalOnProperty(name = "employees.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxMessageRepository outboxRepository;
+
+    private final EmployeeShards employeeShards;
+
+    private final OutboxSink sink;
+
+    private final int batchSize;
+
+    private final Duration linger;
+
+    private final int parallelism;
+
+    private final Duration lease;
+
+    private ScheduledExecutorService workers;
+
+    public OutboxRelay(OutboxMessageRepository outboxRepository, EmployeeShards employeeShards, OutboxSink sink,
+                       @Value("${employees.outbox.batch-size:100}") int batchSize,
+                       @Value("${employees.outbox.linger:200ms}") Duration linger,
+                       @Value("${employees.outbox.parallelism:2}") int parallelism,
+                       @Value("${employees.outbox.lease:30s}") Duration lease) {
+        this.outboxRepository = outboxRepository;
+        this.employeeShards = employeeShards;
+        this.sink = sink;
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.parallelism = parallelism;
+        this.lease = lease;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (workers != null) {
+            return;
+        }
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("outbox-relay-");
+        threadFactory.setDaemon(true);
+        workers = Executors.newScheduledThreadPool(parallelism, threadFactory);
+        for (int partition = 0; partition < parallelism; partition++) {
+            int worker = partition;
+            workers.scheduleWithFixedDelay(() -> drainQuietly(worker), linger.toMillis(), linger.toMillis(),
+                    TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (workers != null) {
+            workers.shutdownNow();
+            workers = null;
+        }
+    }
+
+    // delivers everything pending in every partition on the calling thread; returns the number of messages
+    public int drainAll() throws Exception {
+        int delivered = 0;
+        for (int partition = 0; partition < parallelism; partition++) {
+            delivered += drain(partition);
+        }
+        return delivered;
+    }
+
+    int drain(int partition) throws Exception {
+        int delivered = 0;
+        for (int shard = 0; shard < employeeShards.count(); shard++) {
+            delivered += ShardContext.call(shard, () -> drainShard(partition));
+        }
+        return delivered;
+    }
+
+    private int drainShard(int partition) throws Exception {
+        int delivered = 0;
+        while (true) {
+            String claim = UUID.randomUUID().toString();
+            LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+            int claimed = outboxRepository.claimBatch(claim, parallelism, partition, now, now.plus(lease), batchSize);
+            if (claimed == 0) {
+                return delivered;
+            }
+            List<OutboxMessage> batch = outboxRepository.findClaimed(claim);
+            sink.publish(batch);
+            outboxRepository.deleteClaimed(claim);
+            delivered += batch.size();
+            if (claimed < batchSize) {
+                return delivered;
+            }
+        }
+    }
+
+    // an exception must not escape: it would cancel the worker's schedule
+    private void drainQuietly(int partition) {
+        try {
+            drain(partition);
+        } catch (Exception e) {
+            log.warn("Outbox delivery of partition {} failed, retrying once the claim expires in {}", partition, lease, e);
+        }
+    }
+}
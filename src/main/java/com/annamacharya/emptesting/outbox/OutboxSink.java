@@ -0,0 +1,14 @@
+package com.annamacharya.emptesting.outbox;
+
+import com.annamacharya.emptesting.model.OutboxMessage;
+
+import java.util.List;
+
+/**
+ * Where the outbox relay delivers employee events. A batch counts as delivered when publish returns; if it
+ * throws, the whole batch is delivered again later, so implementations must tolerate redelivery.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxMessage> batch) throws Exception;
+}
@@ -0,0 +1,37 @@
+package com.annamacharya.emptesting.outbox;
+
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.model.OutboxMessage;
+import com.annamacharya.emptesting.repository.OutboxMessageRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes every service write to the outbox. Synchronous, so the message is inserted in the transaction of the
+ * employee write and exists exactly when the write committed; delivery is left to {@link OutboxRelay}.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxMessageRepository outboxRepository;
+
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxMessageRepository outboxRepository, ObjectMapper objectMapper) {
+        this.outboxRepository = outboxRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.type() + " of employee " + event.employeeId(), e);
+        }
+        outboxRepository.save(new OutboxMessage(event.employeeId(), event.type(), payload));
+    }
+}
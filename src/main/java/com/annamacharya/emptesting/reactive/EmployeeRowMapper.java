@@ -0,0 +1,64 @@
+package com.annamacharya.emptesting.reactive;
+
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.annamacharya.emptesting.enums.Gender;
+import com.annamacharya.emptesting.enums.HireSource;
+import com.annamacharya.emptesting.enums.MaritalStatus;
+import com.annamacharya.emptesting.model.Employee;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.function.BiFunction;
+
+// maps an employees row onto the shared JPA entity, column for column with its @Column names
+final class EmployeeRowMapper implements BiFunction<Row, RowMetadata, Employee> {
+
+    static final String COLUMNS = "id, first_name, last_name, email, phone_number, gender, date_of_birth, hire_date, "
+            + "job_title, department, salary, address, city, state, postal_code, country, marital_status, "
+            + "emergency_contact_name, emergency_contact_phone, hire_source, employment_status, version, last_modified";
+
+    static final EmployeeRowMapper INSTANCE = new EmployeeRowMapper();
+
+    @Override
+    public Employee apply(Row row, RowMetadata metadata) {
+        return Employee.builder()
+                .id(row.get("id", Long.class))
+                .firstName(row.get("first_name", String.class))
+                .lastName(row.get("last_name", String.class))
+                .email(row.get("email", String.class))
+                .phoneNumber(row.get("phone_number", String.class))
+                .gender(toEnum(Gender.class, row.get("gender", String.class)))
+                .dateOfBirth(row.get("date_of_birth", LocalDate.class))
+                .hireDate(row.get("hire_date", LocalDate.class))
+                .jobTitle(row.get("job_title", String.class))
+                .department(row.get("department", String.class))
+                .salary(row.get("salary", BigDecimal.class))
+                .address(row.get("address", String.class))
+                .city(row.get("city", String.class))
+                .state(row.get("state", String.class))
+                .postalCode(row.get("postal_code", String.class))
+                .country(row.get("country", String.class))
+                .maritalStatus(toEnum(MaritalStatus.class, row.get("marital_status", String.class)))
+                .emergencyContactName(row.get("emergency_contact_name", String.class))
+                .emergencyContactPhone(row.get("emergency_contact_phone", String.class))
+                .hireSource(toEnum(HireSource.class, row.get("hire_source", String.class)))
+                .employmentStatus(toEnum(EmploymentStatus.class, row.get("employment_status", String.class)))
+                .version(row.get("version", Long.class))
+                // stored as UTC wall clock time, the way Hibernate writes Instant to a DATETIME column
+                .lastModified(toInstant(row.get("last_modified", LocalDateTime.class)))
+                .build();
+    }
+
+    private static Instant toInstant(LocalDateTime value) {
+        return value == null ? null : value.toInstant(ZoneOffset.UTC);
+    }
+
+    private static <E extends Enum<E>> E toEnum(Class<E> type, String value) {
+        return value == null ? null : Enum.valueOf(type, value);
+    }
+}
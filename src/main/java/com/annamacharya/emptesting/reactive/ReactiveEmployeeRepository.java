@@ -0,0 +1,53 @@
+package com.annamacharya.emptesting.reactive;
+
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking reads of the employees table over R2DBC. Rows are emitted as the subscriber requests them,
+ * so a slow consumer slows the query down instead of having the result buffered in memory. A read about one
+ * employee goes to the shard of its id; keyset reads walk the shards' id ranges in order.
+ */
+@Repository
+public class ReactiveEmployeeRepository {
+
+    private final ShardDatabaseClients databaseClients;
+
+    private final EmployeeShards employeeShards;
+
+    public ReactiveEmployeeRepository(ShardDatabaseClients databaseClients, EmployeeShards employeeShards) {
+        this.databaseClients = databaseClients;
+        this.employeeShards = employeeShards;
+    }
+
+    // keyset read past afterId, like EmployeeRepository#findPageAfter; a limit of 0 reads to the end of the table.
+    // concatMap only queries a shard once the one before it is done, and take cancels before the shards not needed
+    public Flux<Employee> findAllAfter(long afterId, int limit) {
+        int firstShard = employeeShards.shardOf(afterId);
+        Flux<Employee> employees = Flux.range(firstShard, employeeShards.count() - firstShard)
+                .concatMap(shard -> findAllAfter(databaseClients.client(shard), afterId, limit));
+        return limit > 0 ? employees.take(limit) : employees;
+    }
+
+    private static Flux<Employee> findAllAfter(DatabaseClient databaseClient, long afterId, int limit) {
+        String sql = "select " + EmployeeRowMapper.COLUMNS + " from employees where id > :afterId order by id";
+        DatabaseClient.GenericExecuteSpec query = limit > 0
+                ? databaseClient.sql(sql + " limit :limit").bind("limit", limit)
+                : databaseClient.sql(sql);
+        return query.bind("afterId", afterId)
+                .map(EmployeeRowMapper.INSTANCE)
+                .all();
+    }
+
+    public Mono<Employee> findById(long id) {
+        DatabaseClient databaseClient = databaseClients.client(employeeShards.shardOf(id));
+        return databaseClient.sql("select " + EmployeeRowMapper.COLUMNS + " from employees where id = :id")
+                .bind("id", id)
+                .map(EmployeeRowMapper.INSTANCE)
+                .one();
+    }
+}
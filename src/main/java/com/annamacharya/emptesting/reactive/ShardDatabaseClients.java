@@ -0,0 +1,34 @@
+package com.annamacharya.emptesting.reactive;
+
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The R2DBC clients of the employee shards, by shard number. Shard 0 is the application's {@link DatabaseClient};
+ * the other shards have pools of their own, which are closed with this bean.
+ */
+public class ShardDatabaseClients implements DisposableBean {
+
+    private final List<DatabaseClient> clients = new ArrayList<>();
+
+    private final List<ConnectionPool> pools;
+
+    public ShardDatabaseClients(DatabaseClient databaseClient, List<ConnectionPool> pools) {
+        this.clients.add(databaseClient);
+        pools.forEach(pool -> this.clients.add(DatabaseClient.create(pool)));
+        this.pools = List.copyOf(pools);
+    }
+
+    public DatabaseClient client(int shard) {
+        return clients.get(shard);
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(ConnectionPool::dispose);
+    }
+}
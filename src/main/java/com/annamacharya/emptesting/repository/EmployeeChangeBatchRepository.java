@@ -0,0 +1,12 @@
+package com.annamacharya.emptesting.repository;
+
+import com.annamacharya.emptesting.model.EmployeeChange;
+
+import java.util.List;
+
+// change log rows written as one JDBC batch, which the driver rewrites into multi-row inserts
+public interface EmployeeChangeBatchRepository {
+
+    // the inserted changes do not get their ids back
+    void insertAll(List<EmployeeChange> changes);
+}
@@ -0,0 +1,37 @@
+package com.annamacharya.emptesting.repository;
+
+import com.annamacharya.emptesting.model.EmployeeChange;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+
+import java.sql.PreparedStatement;
+import java.util.List;
+
+// picked up by Spring Data as the implementation of the EmployeeChangeBatchRepository fragment of
+// EmployeeChangeRepository. Hibernate does not batch inserts of IDENTITY entities, so this goes to JDBC on the
+// connection of the current transaction
+class EmployeeChangeBatchRepositoryImpl implements EmployeeChangeBatchRepository {
+
+    private static final String INSERT = "INSERT INTO employee_changes (employee_id, change_type, changed_at) VALUES (?, ?, ?)";
+
+    private final EntityManager entityManager;
+
+    EmployeeChangeBatchRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public void insertAll(List<EmployeeChange> changes) {
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement insert = connection.prepareStatement(INSERT)) {
+                for (EmployeeChange change : changes) {
+                    insert.setLong(1, change.getEmployeeId());
+                    insert.setString(2, change.getChangeType().name());
+                    insert.setObject(3, change.getChangedAt());
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        });
+    }
+}
@@ -0,0 +1,28 @@
+package com.annamacharya.emptesting.repository;
+
+import com.annamacharya.emptesting.model.EmployeeChange;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface EmployeeChangeRepository extends JpaRepository<EmployeeChange, Long>, EmployeeChangeBatchRepository {
+
+    // times are UTC. A primary key range scan; changes younger than visibleBefore are left for the next poll
+    @Query("select c from EmployeeChange c where c.id > :afterId and c.changedAt <= :visibleBefore order by c.id")
+    List<EmployeeChange> findVisibleAfter(@Param("afterId") long afterId, @Param("visibleBefore") LocalDateTime visibleBefore,
+                                          Pageable pageable);
+
+    @Query("select coalesce(max(c.id), 0) from EmployeeChange c")
+    long findLatestId();
+
+    @Transactional
+    @Modifying
+    @Query("delete from EmployeeChange c where c.changedAt < :before")
+    int deleteChangedBefore(@Param("before") LocalDateTime before);
+}
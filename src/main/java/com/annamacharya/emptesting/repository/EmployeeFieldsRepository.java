@@ -0,0 +1,34 @@
+package com.annamacharya.emptesting.repository;
+
+import com.annamacharya.emptesting.dto.EmployeeFilter;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+// sparse fieldsets: only the named Employee attributes are selected (or updated), keyed by attribute name
+public interface EmployeeFieldsRepository {
+
+    List<Map<String, Object>> findFieldsAfter(List<String> fields, long afterId, int limit);
+
+    Optional<Map<String, Object>> findFieldsById(List<String> fields, long id);
+
+    // a blind UPDATE of just these attributes if the row is still at version; bumps version and lastModified
+    int updateFields(long id, long version, Map<String, Object> values, Instant lastModified);
+
+    long countMatching(EmployeeFilter filter);
+
+    // the next ids matching the filter in id order, locked against concurrent writes until the transaction ends
+    List<Long> lockIdsAfter(EmployeeFilter filter, long afterId, int limit);
+
+    // one set-based UPDATE of these rows: the values are assigned and salary is multiplied by salaryFactor
+    // (rounded to cents) unless that is null; bumps version and lastModified
+    int updateAll(Collection<Long> ids, Map<String, Object> values, BigDecimal salaryFactor, Instant lastModified);
+
+    // copies these rows into employees_archive, stamped with archivedAt; the caller deletes them in the same
+    // transaction
+    int archiveAll(Collection<Long> ids, Instant archivedAt);
+}
@@ -0,0 +1,165 @@
+package com.annamacharya.emptesting.repository;
+
+import com.annamacharya.emptesting.dto.EmployeeFilter;
+import com.annamacharya.emptesting.model.Employee;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+// picked up by Spring Data as the implementation of the EmployeeFieldsRepository fragment of EmployeeRepository
+class EmployeeFieldsRepositoryImpl implements EmployeeFieldsRepository {
+
+    // every column of employees, which employees_archive has as well
+    private static final String ARCHIVED_COLUMNS = "id, first_name, last_name, email, phone_number, gender, "
+            + "date_of_birth, hire_date, job_title, department, salary, address, city, state, postal_code, country, "
+            + "marital_status, emergency_contact_name, emergency_contact_phone, hire_source, employment_status, "
+            + "version, last_modified";
+
+    private static final String ARCHIVE = "INSERT INTO employees_archive (" + ARCHIVED_COLUMNS + ", archived_at) "
+            + "SELECT " + ARCHIVED_COLUMNS + ", :archivedAt FROM employees WHERE id IN (:ids)";
+
+    private final EntityManager entityManager;
+
+    EmployeeFieldsRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> findFieldsAfter(List<String> fields, long afterId, int limit) {
+        return entityManager.createQuery(select(fields, (cb, root) -> cb.greaterThan(root.get("id"), afterId)))
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(EmployeeFieldsRepositoryImpl::toMap)
+                .toList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> findFieldsById(List<String> fields, long id) {
+        return entityManager.createQuery(select(fields, (cb, root) -> cb.equal(root.get("id"), id)))
+                .getResultStream()
+                .findFirst()
+                .map(EmployeeFieldsRepositoryImpl::toMap);
+    }
+
+    @Override
+    public int updateFields(long id, long version, Map<String, Object> values, Instant lastModified) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> root = update.from(Employee.class);
+        values.forEach(update::set);
+        // lastModified goes through UtcInstantConverter; Hibernate 6.1 cannot bind a converted value as a
+        // plain parameter in an update, so it is passed as a literal instead.
+        update.set("version", version + 1)
+                .set(root.<Instant>get("lastModified"), cb.literal(lastModified))
+                .where(cb.equal(root.get("id"), id), cb.equal(root.get("version"), version));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public long countMatching(EmployeeFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Employee> root = query.from(Employee.class);
+        query.select(cb.count(root)).where(matching(filter, cb, root).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<Long> lockIdsAfter(EmployeeFilter filter, long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Employee> root = query.from(Employee.class);
+        List<Predicate> where = matching(filter, cb, root);
+        where.add(cb.greaterThan(root.get("id"), afterId));
+        query.select(root.get("id")).where(where.toArray(Predicate[]::new)).orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public int updateAll(Collection<Long> ids, Map<String, Object> values, BigDecimal salaryFactor, Instant lastModified) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Employee> update = cb.createCriteriaUpdate(Employee.class);
+        Root<Employee> root = update.from(Employee.class);
+        values.forEach(update::set);
+        if (salaryFactor != null) {
+            update.set(root.<BigDecimal>get("salary"), cb.function("round", BigDecimal.class,
+                    cb.prod(root.get("salary"), salaryFactor), cb.literal(2)));
+        }
+        update.set(root.<Long>get("version"), cb.sum(root.get("version"), 1L))
+                .set(root.<Instant>get("lastModified"), cb.literal(lastModified))
+                .where(root.get("id").in(ids));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    @Override
+    public int archiveAll(Collection<Long> ids, Instant archivedAt) {
+        return entityManager.createNativeQuery(ARCHIVE)
+                .setParameter("archivedAt", LocalDateTime.ofInstant(archivedAt, ZoneOffset.UTC))
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    private static List<Predicate> matching(EmployeeFilter filter, CriteriaBuilder cb, Root<Employee> root) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.ids() != null) {
+            predicates.add(root.get("id").in(filter.ids()));
+        }
+        if (filter.department() != null) {
+            predicates.add(cb.equal(root.get("department"), filter.department()));
+        }
+        if (filter.jobTitle() != null) {
+            predicates.add(cb.equal(root.get("jobTitle"), filter.jobTitle()));
+        }
+        if (filter.employmentStatus() != null) {
+            predicates.add(cb.equal(root.get("employmentStatus"), filter.employmentStatus()));
+        }
+        if (filter.hiredBefore() != null) {
+            predicates.add(cb.lessThan(root.get("hireDate"), filter.hiredBefore()));
+        }
+        return predicates;
+    }
+
+    // fields are attribute names of Employee; an unknown name fails in Criteria with IllegalArgumentException
+    private CriteriaQuery<Tuple> select(List<String> fields, BiFunction<CriteriaBuilder, Root<Employee>, Predicate> where) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Employee> root = query.from(Employee.class);
+        query.multiselect(fields.stream().<Selection<?>>map(field -> root.get(field).alias(field)).toList())
+                .where(where.apply(cb, root))
+                .orderBy(cb.asc(root.get("id")));
+        return query;
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            row.put(element.getAlias(), tuple.get(element));
+        }
+        return row;
+    }
+}
@@ -1,16 +1,34 @@
 package com.annamacharya.emptesting.repository;
 
+import com.annamacharya.emptesting.dto.EmployeeDirectoryEntry;
+import com.annamacharya.emptesting.dto.EmployeeSummary;
+import com.annamacharya.emptesting.dto.EmployeeVersion;
 import com.annamacharya.emptesting.model.Employee;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeFieldsRepository {
 
     Optional<Employee> findByEmail(String email);
 
+    // emails out of the given batch that are already taken, one IN query per import chunk
+    @Query("select e.email from Employee e where e.email in :emails")
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
     // define custom query using JPQL with index params
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
     Employee findByJPQL(String firstName, String lastName);
@@ -27,4 +45,41 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     @Query(value = "select * from employees e where e.first_name =:firstName and e.last_name =:lastName",
             nativeQuery = true)
     Employee findByNativeSQLNamed(@Param("firstName") String firstName, @Param("lastName") String lastName);
+
+    // keyset pagination: seek past the last id the caller has seen instead of using an OFFSET,
+    // so every page is a primary key range scan no matter how deep the caller is
+    @Query("select e from Employee e where e.id > :afterId order by e.id")
+    List<Employee> findPageAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // every salary of one group in ascending order, for exact statistics; covered by the (group, salary) indexes
+    @Query("select e.salary from Employee e where e.department = :department and e.salary is not null order by e.salary")
+    List<BigDecimal> findSalariesByDepartment(@Param("department") String department);
+
+    @Query("select e.salary from Employee e where e.jobTitle = :jobTitle and e.salary is not null order by e.salary")
+    List<BigDecimal> findSalariesByJobTitle(@Param("jobTitle") String jobTitle);
+
+    // autocomplete on last name, served from idx_employees_last_first_name in index order;
+    // pattern is a LIKE prefix pattern using the default backslash escape
+    @Query("select e.id as id, e.firstName as firstName, e.lastName as lastName, e.department as department"
+            + " from Employee e where e.lastName like :pattern order by e.lastName, e.firstName")
+    List<EmployeeSummary> findSummariesByLastNameLike(@Param("pattern") String pattern, Pageable pageable);
+
+    @Query("select new com.annamacharya.emptesting.dto.EmployeeDirectoryEntry(e.id, e.firstName, e.lastName, e.email,"
+            + " e.jobTitle, e.department) from Employee e where e.id > :afterId order by e.id")
+    List<EmployeeDirectoryEntry> findDirectoryPageAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // version lookups for conditional GETs: a primary key read of three columns instead of the whole row
+    @Query("select new com.annamacharya.emptesting.dto.EmployeeVersion(e.id, e.version, e.lastModified)"
+            + " from Employee e where e.id = :id")
+    Optional<EmployeeVersion> findVersionById(@Param("id") long id);
+
+    @Query("select new com.annamacharya.emptesting.dto.EmployeeVersion(e.id, e.version, e.lastModified)"
+            + " from Employee e where e.id > :afterId order by e.id")
+    List<EmployeeVersion> findVersionPageAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    // forward-only cursor over the whole table; rows are fetched from the server in chunks
+    // (see useCursorFetch on the datasource url), so callers must consume it inside a transaction
+    @QueryHints({@QueryHint(name = HINT_FETCH_SIZE, value = "500"), @QueryHint(name = HINT_READ_ONLY, value = "true")})
+    @Query("select e from Employee e order by e.id")
+    Stream<Employee> streamAll();
 }
@@ -0,0 +1,37 @@
+package com.annamacharya.emptesting.repository;
+
+import com.annamacharya.emptesting.model.OutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OutboxMessageRepository extends JpaRepository<OutboxMessage, Long> {
+
+    // claims the oldest unclaimed (or expired) messages of one partition in a single short statement; no row
+    // stays locked while the batch is delivered, so writers inserting new messages never wait for the relay.
+    // Nothing after a message still under an unexpired claim is claimed: that batch failed or is being delivered,
+    // and the messages behind it wait for it, so the events of an employee stay in order. The claim is read
+    // through a derived table, which MySQL requires for a subquery on the table being updated
+    @Transactional
+    @Modifying
+    @Query(value = "UPDATE employee_outbox SET claimed_by = :claim, claimed_until = :until"
+            + " WHERE MOD(employee_id, :partitions) = :partition AND (claimed_until IS NULL OR claimed_until < :now)"
+            + " AND id < (SELECT held.id FROM (SELECT COALESCE(MIN(id), " + Long.MAX_VALUE + ") AS id FROM employee_outbox"
+            + " WHERE MOD(employee_id, :partitions) = :partition AND claimed_until >= :now) held)"
+            + " ORDER BY id LIMIT :limit", nativeQuery = true)
+    int claimBatch(@Param("claim") String claim, @Param("partitions") int partitions, @Param("partition") int partition,
+                   @Param("now") LocalDateTime now, @Param("until") LocalDateTime until, @Param("limit") int limit);
+
+    @Query("select m from OutboxMessage m where m.claimedBy = :claim order by m.id")
+    List<OutboxMessage> findClaimed(@Param("claim") String claim);
+
+    @Transactional
+    @Modifying
+    @Query("delete from OutboxMessage m where m.claimedBy = :claim")
+    int deleteClaimed(@Param("claim") String claim);
+}
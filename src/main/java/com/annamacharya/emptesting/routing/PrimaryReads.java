@@ -0,0 +1,33 @@
+package com.annamacharya.emptesting.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Reads that {@link ReplicaRoutingDataSource} sends to the primary even in a read-only transaction, without
+ * counting them as writes for {@link ReadYourWrites}. For reads whose result outlives the request, such as near
+ * cache loads: a lagging replica's row would otherwise be served for as long as the entry lives. Only a
+ * transaction that takes its connection inside {@link #call(Supplier)} is affected.
+ */
+public final class PrimaryReads {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private PrimaryReads() {
+    }
+
+    public static <T> T call(Supplier<T> read) {
+        Boolean previous = ACTIVE.get();
+        ACTIVE.set(Boolean.TRUE);
+        try {
+            return read.get();
+        } finally {
+            if (previous == null) {
+                ACTIVE.remove();
+            }
+        }
+    }
+
+    static boolean active() {
+        return ACTIVE.get() != null;
+    }
+}
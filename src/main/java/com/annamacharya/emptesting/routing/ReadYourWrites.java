@@ -0,0 +1,51 @@
+package com.annamacharya.emptesting.routing;
+
+/**
+ * Per-thread read-your-writes state for the replica routing, opened by {@link ReadYourWritesFilter} for each
+ * request. Once the request writes, its own later reads go to the primary, and the filter tells the client to
+ * keep reading from the primary for a while. Threads without a session, such as background jobs, read from
+ * replicas as usual.
+ */
+final class ReadYourWrites {
+
+    private static final ThreadLocal<Session> SESSION = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void open(boolean readFromPrimary, Runnable onFirstWrite) {
+        SESSION.set(new Session(readFromPrimary, onFirstWrite));
+    }
+
+    static void close() {
+        SESSION.remove();
+    }
+
+    static boolean readsFromPrimary() {
+        Session session = SESSION.get();
+        return session != null && session.readFromPrimary;
+    }
+
+    static void wrote() {
+        Session session = SESSION.get();
+        if (session != null && !session.wrote) {
+            session.wrote = true;
+            session.readFromPrimary = true;
+            session.onFirstWrite.run();
+        }
+    }
+
+    private static final class Session {
+
+        private final Runnable onFirstWrite;
+
+        private boolean readFromPrimary;
+
+        private boolean wrote;
+
+        Session(boolean readFromPrimary, Runnable onFirstWrite) {
+            this.readFromPrimary = readFromPrimary;
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.annamacharya.emptesting.routing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else.
+ * <p>
+ * The routing looks at the transaction's read-only flag, which the transaction managers only set after they
+ * fetched the connection, so this data source has to sit behind a {@code LazyConnectionDataSourceProxy}. A read
+ * stays on the primary when the current request has written or its client wrote recently (see
+ * {@link ReadYourWrites}), and inside {@link PrimaryReads}. Every replica is probed each probe interval: one that fails a probe or a connection
+ * attempt is left out until it answers again, and with no replica up reads fall back to the primary.
+ * The replicas are closed with this data source.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final String PRIMARY = "primary";
+
+    private static final int PROBE_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+
+    private final List<Replica> replicas;
+
+    private final ReplicaSelection selection;
+
+    private final Duration probeInterval;
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    private ScheduledExecutorService prober;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, ReplicaSelection selection,
+                                    Duration probeInterval) {
+        Map<Object, Object> targets = new LinkedHashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream().map(replica -> new Replica(replica.getKey(), replica.getValue())).toList();
+        this.selection = selection;
+        this.probeInterval = probeInterval;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        if (!replicas.isEmpty()) {
+            CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("replica-probe-");
+            threadFactory.setDaemon(true);
+            prober = Executors.newSingleThreadScheduledExecutor(threadFactory);
+            prober.scheduleWithFixedDelay(this::probeReplicas, 0, probeInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        if (prober != null) {
+            prober.shutdownNow();
+        }
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = replicaForCurrentTransaction();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                replica.failed(e);
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = replicaForCurrentTransaction();
+        if (replica != null) {
+            try {
+                return replica.dataSource.getConnection(username, password);
+            } catch (SQLException e) {
+                replica.failed(e);
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    // connections are routed by getConnection; unwrap and the like see the primary
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return PRIMARY;
+    }
+
+    // null means the primary; a read-write transaction counts as a write for read-your-writes
+    private Replica replicaForCurrentTransaction() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.wrote();
+            }
+            return null;
+        }
+        if (replicas.isEmpty() || ReadYourWrites.readsFromPrimary() || PrimaryReads.active()) {
+            return null;
+        }
+        return selection == ReplicaSelection.LEAST_LATENCY ? fastestReplica() : nextReplica();
+    }
+
+    private Replica nextReplica() {
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.up) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private Replica fastestReplica() {
+        Replica fastest = null;
+        for (Replica replica : replicas) {
+            if (replica.up && (fastest == null || replica.latencyNanos < fastest.latencyNanos)) {
+                fastest = replica;
+            }
+        }
+        return fastest;
+    }
+
+    void probeReplicas() {
+        replicas.forEach(Replica::probe);
+    }
+
+    private static final class Replica {
+
+        private final String name;
+
+        private final DataSource dataSource;
+
+        private volatile boolean up = true;
+
+        // moving average of the probe round trips; 0 until the first probe
+        private volatile long latencyNanos;
+
+        Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        void probe() {
+            long start = System.nanoTime();
+            try (Connection connection = dataSource.getConnection()) {
+                if (!connection.isValid(PROBE_TIMEOUT_SECONDS)) {
+                    throw new SQLException("connection is not valid");
+                }
+                long roundTrip = System.nanoTime() - start;
+                latencyNanos = latencyNanos == 0 ? roundTrip : latencyNanos + (roundTrip - latencyNanos) * 3 / 10;
+                if (!up) {
+                    log.info("Replica {} answers again", name);
+                    up = true;
+                }
+            } catch (SQLException e) {
+                failed(e);
+            }
+        }
+
+        void failed(SQLException e) {
+            if (up) {
+                log.warn("Replica {} is down, its reads go elsewhere until it answers a probe: {}", name, e.getMessage());
+                up = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package com.annamacharya.emptesting.routing;
+
+public enum ReplicaSelection {
+    // each read-only transaction takes the next replica in turn
+    ROUND_ROBIN,
+    // the replica with the lowest probe round trip, smoothed over recent probes
+    LEAST_LATENCY
+}
@@ -0,0 +1,4 @@
+package com.annamacharya.emptesting.schema;
+
+public record QueryPlan(String query, String sql, String plan, boolean fullScan) {
+}
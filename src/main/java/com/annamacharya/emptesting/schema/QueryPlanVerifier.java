@@ -0,0 +1,159 @@
+package com.annamacharya.emptesting.schema;
+
+import com.annamacharya.emptesting.jdbc.SqlStatementInspector;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import com.annamacharya.emptesting.sharding.ShardContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Runs EXPLAIN on the SQL behind each {@link EmployeeRepository} query and reports the ones that plan as a
+ * full table scan. The SQL is taken from Hibernate while the finder runs, so the check follows the queries
+ * as they change. Understands MySQL (access type ALL) and H2 (tableScan) plans.
+ * With {@code employees.schema.verify-query-plans=true} a full scan fails application startup.
+ */
+@Component
+public class QueryPlanVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryPlanVerifier.class);
+
+    private static final String PROBE_EMAIL = "probe@example.com";
+
+    private final EmployeeRepository employeeRepository;
+
+    private final DataSource dataSource;
+
+    private final boolean verifyOnStartup;
+
+    public QueryPlanVerifier(EmployeeRepository employeeRepository, DataSource dataSource,
+                             @Value("${employees.schema.verify-query-plans:false}") boolean verifyOnStartup) {
+        this.employeeRepository = employeeRepository;
+        this.dataSource = dataSource;
+        this.verifyOnStartup = verifyOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void verifyOnStartup() {
+        if (!verifyOnStartup) {
+            return;
+        }
+        List<QueryPlan> fullScans = explainAll().stream().filter(QueryPlan::fullScan).toList();
+        if (!fullScans.isEmpty()) {
+            throw new IllegalStateException("Repository queries fall back to a full table scan: " + fullScans.stream()
+                    .map(plan -> plan.query() + " [" + plan.plan() + "]")
+                    .collect(Collectors.joining(", ")));
+        }
+        log.info("Verified query plans of {} repository queries", probes().size());
+    }
+
+    // the plans of shard 0, as every shard has the same migrations; pinning the shard also keeps the finders on
+    // this thread, where their SQL is captured
+    public List<QueryPlan> explainAll() {
+        List<QueryPlan> plans = new ArrayList<>();
+        ShardContext.run(0, () -> {
+            for (Probe probe : probes()) {
+                List<String> statements = SqlStatementInspector.capture(probe.invocation());
+                if (statements.isEmpty()) {
+                    throw new IllegalStateException("No SQL captured for " + probe.query()
+                            + "; is SqlStatementInspector registered as hibernate.session_factory.statement_inspector?");
+                }
+                plans.add(explain(probe, statements.get(0)));
+            }
+        });
+        return plans;
+    }
+
+    // one probe per repository query: the call that makes Hibernate render its SQL, and values for its placeholders
+    private List<Probe> probes() {
+        return List.of(
+                new Probe("findByEmail", () -> employeeRepository.findByEmail(PROBE_EMAIL), List.of(PROBE_EMAIL)),
+                new Probe("findExistingEmails", () -> employeeRepository.findExistingEmails(List.of(PROBE_EMAIL)),
+                        List.of(PROBE_EMAIL)),
+                new Probe("findByJPQL", () -> employeeRepository.findByJPQL("Ram", "Kasala"), List.of("Ram", "Kasala")),
+                new Probe("findByJPQLNamedParams", () -> employeeRepository.findByJPQLNamedParams("Ram", "Kasala"),
+                        List.of("Ram", "Kasala")),
+                new Probe("findByNativeSQL", () -> employeeRepository.findByNativeSQL("Ram", "Kasala"),
+                        List.of("Ram", "Kasala")),
+                new Probe("findByNativeSQLNamed", () -> employeeRepository.findByNativeSQLNamed("Ram", "Kasala"),
+                        List.of("Ram", "Kasala")),
+                new Probe("findPageAfter", () -> employeeRepository.findPageAfter(0L, PageRequest.ofSize(10)),
+                        List.of(0L, 10)),
+                new Probe("findSalariesByDepartment", () -> employeeRepository.findSalariesByDepartment("Engineering"),
+                        List.of("Engineering")),
+                new Probe("findSalariesByJobTitle", () -> employeeRepository.findSalariesByJobTitle("Engineer"),
+                        List.of("Engineer")),
+                new Probe("findSummariesByLastNameLike", () -> employeeRepository
+                        .findSummariesByLastNameLike("Kas%", PageRequest.ofSize(10)), List.of("Kas%", 10)),
+                new Probe("findDirectoryPageAfter", () -> employeeRepository.findDirectoryPageAfter(0L, PageRequest.ofSize(10)),
+                        List.of(0L, 10)),
+                new Probe("findFieldsAfter", () -> employeeRepository.findFieldsAfter(List.of("id", "lastName"), 0L, 10),
+                        List.of(0L, 10)),
+                new Probe("findVersionById", () -> employeeRepository.findVersionById(1L), List.of(1L)),
+                new Probe("findVersionPageAfter", () -> employeeRepository.findVersionPageAfter(0L, PageRequest.ofSize(10)),
+                        List.of(0L, 10)));
+    }
+
+    private QueryPlan explain(Probe probe, String sql) {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            int parameters = statement.getParameterMetaData().getParameterCount();
+            for (int i = 0; i < parameters; i++) {
+                statement.setObject(i + 1, probe.parameters().get(Math.min(i, probe.parameters().size() - 1)));
+            }
+            try (ResultSet rows = statement.executeQuery()) {
+                return readPlan(probe.query(), sql, rows);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("EXPLAIN failed for " + probe.query() + ": " + sql, e);
+        }
+    }
+
+    private static QueryPlan readPlan(String query, String sql, ResultSet rows) throws SQLException {
+        ResultSetMetaData metaData = rows.getMetaData();
+        int typeColumn = findColumn(metaData, "type");
+        StringBuilder plan = new StringBuilder();
+        boolean fullScan = false;
+        while (rows.next()) {
+            if (typeColumn > 0) {
+                // MySQL: one row per table access, type ALL means every row is read
+                String type = rows.getString(typeColumn);
+                fullScan |= "ALL".equalsIgnoreCase(type);
+                plan.append(rows.getString(findColumn(metaData, "table"))).append(':').append(type)
+                        .append(" key=").append(rows.getString(findColumn(metaData, "key"))).append(' ');
+            } else {
+                // H2: the plan is the rewritten statement with the chosen index in a comment
+                String text = rows.getString(1);
+                fullScan |= text.contains(".tableScan");
+                plan.append(text.replaceAll("\\s+", " "));
+            }
+        }
+        return new QueryPlan(query, sql, plan.toString().trim(), fullScan);
+    }
+
+    private static int findColumn(ResultSetMetaData metaData, String name) throws SQLException {
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            if (name.equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private record Probe(String query, Runnable invocation, List<Object> parameters) {
+    }
+}
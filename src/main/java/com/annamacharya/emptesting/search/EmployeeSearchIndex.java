@@ -0,0 +1,291 @@
+package com.annamacharya.emptesting.search;
+
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.view.EmployeeView;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the searchable employee fields. Every employee gets a dense row ordinal and each
+ * facet value or name token maps to a {@link BitSet} of ordinals, so a query is a handful of bitwise
+ * AND/OR operations. Ordinals of removed employees are reused, which keeps the bitsets compact.
+ */
+@Component
+public class EmployeeSearchIndex implements EmployeeView {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+
+    private final Deque<Integer> freeOrdinals = new ArrayDeque<>();
+
+    private final BitSet live = new BitSet();
+
+    private final Map<SearchFacet, Map<String, BitSet>> postings = new EnumMap<>(SearchFacet.class);
+
+    private final NavigableMap<String, BitSet> nameTokens = new TreeMap<>();
+
+    // per ordinal: the id, and the facet values and name tokens it was indexed under (needed to unindex it)
+    private long[] ids = new long[1024];
+
+    private final Map<SearchFacet, String[]> values = new EnumMap<>(SearchFacet.class);
+
+    private String[][] tokens = new String[1024][];
+
+    private int nextOrdinal;
+
+    public EmployeeSearchIndex() {
+        for (SearchFacet facet : SearchFacet.values()) {
+            postings.put(facet, new HashMap<>());
+            values.put(facet, new String[ids.length]);
+        }
+    }
+
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ordinals.clear();
+            freeOrdinals.clear();
+            live.clear();
+            postings.values().forEach(Map::clear);
+            nameTokens.clear();
+            values.values().forEach(facetValues -> Arrays.fill(facetValues, null));
+            Arrays.fill(tokens, null);
+            nextOrdinal = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void upsert(Employee employee) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(employee.getId());
+            if (ordinal != null) {
+                unindex(ordinal);
+            } else {
+                ordinal = allocate(employee.getId());
+            }
+            index(ordinal, employee);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(long employeeId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(employeeId);
+            if (ordinal != null) {
+                unindex(ordinal);
+                live.clear(ordinal);
+                freeOrdinals.push(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchHits search(SearchQuery query) {
+        lock.readLock().lock();
+        try {
+            BitSet matches = (BitSet) live.clone();
+            query.filters().forEach((facet, wanted) -> matches.and(union(postings.get(facet), wanted)));
+            if (query.namePrefix() != null && !query.namePrefix().isBlank()) {
+                String prefix = query.namePrefix().trim().toLowerCase(Locale.ROOT);
+                BitSet names = new BitSet();
+                nameTokens.subMap(prefix, true, prefix + Character.MAX_VALUE, true).values().forEach(names::or);
+                matches.and(names);
+            }
+            int total = matches.cardinality();
+            return new SearchHits(total, page(matches, total, query.afterId(), query.size()), facetCounts(matches));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int allocate(long id) {
+        int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.pop();
+        if (ordinal >= ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            tokens = Arrays.copyOf(tokens, capacity);
+            values.replaceAll((facet, facetValues) -> Arrays.copyOf(facetValues, capacity));
+        }
+        ids[ordinal] = id;
+        ordinals.put(id, ordinal);
+        live.set(ordinal);
+        return ordinal;
+    }
+
+    private void index(int ordinal, Employee employee) {
+        for (SearchFacet facet : SearchFacet.values()) {
+            String value = facet.valueOf(employee);
+            values.get(facet)[ordinal] = value;
+            if (value != null) {
+                postings.get(facet).computeIfAbsent(value, key -> new BitSet()).set(ordinal);
+            }
+        }
+        String[] nameTokensOfEmployee = tokenize(employee.getFirstName(), employee.getLastName());
+        tokens[ordinal] = nameTokensOfEmployee;
+        for (String token : nameTokensOfEmployee) {
+            nameTokens.computeIfAbsent(token, key -> new BitSet()).set(ordinal);
+        }
+    }
+
+    private void unindex(int ordinal) {
+        for (SearchFacet facet : SearchFacet.values()) {
+            String value = values.get(facet)[ordinal];
+            if (value != null) {
+                clearBit(postings.get(facet), value, ordinal);
+                values.get(facet)[ordinal] = null;
+            }
+        }
+        if (tokens[ordinal] != null) {
+            for (String token : tokens[ordinal]) {
+                clearBit(nameTokens, token, ordinal);
+            }
+            tokens[ordinal] = null;
+        }
+    }
+
+    private static void clearBit(Map<String, BitSet> postingLists, String key, int ordinal) {
+        BitSet bits = postingLists.get(key);
+        if (bits != null) {
+            bits.clear(ordinal);
+            if (bits.isEmpty()) {
+                postingLists.remove(key);
+            }
+        }
+    }
+
+    private static BitSet union(Map<String, BitSet> postingLists, Set<String> wanted) {
+        BitSet union = new BitSet();
+        for (String value : wanted) {
+            BitSet bits = postingLists.get(value);
+            if (bits != null) {
+                union.or(bits);
+            }
+        }
+        return union;
+    }
+
+    // the size smallest matching ids after afterId, kept in a max-heap of at most size ids rather than sorting
+    // every match
+    private List<Long> page(BitSet matches, int total, long afterId, int size) {
+        long[] heap = new long[Math.min(size, total)];
+        int count = 0;
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0; ordinal = matches.nextSetBit(ordinal + 1)) {
+            long id = ids[ordinal];
+            if (id <= afterId) {
+                continue;
+            }
+            if (count < heap.length) {
+                heap[count] = id;
+                siftUp(heap, count++);
+            } else if (count > 0 && id < heap[0]) {
+                heap[0] = id;
+                siftDown(heap, count);
+            }
+        }
+        Arrays.sort(heap, 0, count);
+        return Arrays.stream(heap, 0, count).boxed().toList();
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent] >= heap[index]) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int count) {
+        int index = 0;
+        while (true) {
+            int largest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < count && heap[left] > heap[largest]) {
+                largest = left;
+            }
+            if (right < count && heap[right] > heap[largest]) {
+                largest = right;
+            }
+            if (largest == index) {
+                return;
+            }
+            swap(heap, index, largest);
+            index = largest;
+        }
+    }
+
+    private static void swap(long[] heap, int i, int j) {
+        long value = heap[i];
+        heap[i] = heap[j];
+        heap[j] = value;
+    }
+
+    // the count of a facet value is the cardinality of its posting list ANDed with the matches, in one scratch
+    // bitset reused across values
+    private Map<String, Map<String, Integer>> facetCounts(BitSet matches) {
+        Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+        BitSet scratch = new BitSet();
+        for (SearchFacet facet : SearchFacet.values()) {
+            Map<String, Integer> counts = new HashMap<>();
+            postings.get(facet).forEach((value, bits) -> {
+                scratch.clear();
+                scratch.or(bits);
+                scratch.and(matches);
+                int count = scratch.cardinality();
+                if (count > 0) {
+                    counts.put(value, count);
+                }
+            });
+            Map<String, Integer> sorted = new LinkedHashMap<>();
+            counts.entrySet().stream()
+                    .sorted(Map.Entry.<String, Integer>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                    .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+            facets.put(facet.parameter(), sorted);
+        }
+        return facets;
+    }
+
+    private static String[] tokenize(String... names) {
+        return Arrays.stream(names)
+                .filter(name -> name != null && !name.isBlank())
+                .flatMap(name -> Arrays.stream(name.trim().toLowerCase(Locale.ROOT).split("\\s+")))
+                .distinct()
+                .toArray(String[]::new);
+    }
+}
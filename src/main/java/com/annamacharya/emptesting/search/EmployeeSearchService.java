@@ -0,0 +1,37 @@
+package com.annamacharya.emptesting.search;
+
+import com.annamacharya.emptesting.dto.EmployeeSearchResult;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// matching and facet counting happen in the index; only the requested page of employees is read from the database
+@Service
+public class EmployeeSearchService {
+
+    private EmployeeSearchIndex searchIndex;
+
+    private EmployeeRepository employeeRepository;
+
+    public EmployeeSearchService(EmployeeSearchIndex searchIndex, EmployeeRepository employeeRepository) {
+        this.searchIndex = searchIndex;
+        this.employeeRepository = employeeRepository;
+    }
+
+    public EmployeeSearchResult search(SearchQuery query) {
+        SearchHits hits = searchIndex.search(query);
+        Map<Long, Employee> employeesById = employeeRepository.findAllById(hits.ids()).stream()
+                .collect(Collectors.toMap(Employee::getId, Function.identity()));
+        List<Employee> employees = hits.ids().stream()
+                .map(employeesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new EmployeeSearchResult(hits.total(), employees, hits.facets());
+    }
+}
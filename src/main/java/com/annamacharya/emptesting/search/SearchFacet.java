@@ -0,0 +1,43 @@
+package com.annamacharya.emptesting.search;
+
+import com.annamacharya.emptesting.model.Employee;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+// employee fields the search index keeps posting lists for; parameter names match the JSON property names
+public enum SearchFacet {
+    DEPARTMENT("department", Employee::getDepartment),
+    CITY("city", Employee::getCity),
+    STATE("state", Employee::getState),
+    COUNTRY("country", Employee::getCountry),
+    JOB_TITLE("jobTitle", Employee::getJobTitle),
+    EMPLOYMENT_STATUS("employmentStatus", employee -> nameOf(employee.getEmploymentStatus())),
+    HIRE_SOURCE("hireSource", employee -> nameOf(employee.getHireSource()));
+
+    private final String parameter;
+
+    private final Function<Employee, String> extractor;
+
+    SearchFacet(String parameter, Function<Employee, String> extractor) {
+        this.parameter = parameter;
+        this.extractor = extractor;
+    }
+
+    public String parameter() {
+        return parameter;
+    }
+
+    public String valueOf(Employee employee) {
+        return extractor.apply(employee);
+    }
+
+    public static Optional<SearchFacet> forParameter(String parameter) {
+        return Arrays.stream(values()).filter(facet -> facet.parameter.equals(parameter)).findFirst();
+    }
+
+    private static String nameOf(Enum<?> value) {
+        return value == null ? null : value.name();
+    }
+}
@@ -0,0 +1,8 @@
+package com.annamacharya.emptesting.search;
+
+import java.util.List;
+import java.util.Map;
+
+// ids of one result page plus, per facet, how many of all matching employees carry each value
+public record SearchHits(int total, List<Long> ids, Map<String, Map<String, Integer>> facets) {
+}
@@ -0,0 +1,11 @@
+package com.annamacharya.emptesting.search;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Facet filters are ANDed across facets and ORed within one facet. {@code namePrefix} matches the start of
+ * any word of the first or last name, case-insensitively. Results are ordered by id and paged by keyset.
+ */
+public record SearchQuery(Map<SearchFacet, Set<String>> filters, String namePrefix, long afterId, int size) {
+}
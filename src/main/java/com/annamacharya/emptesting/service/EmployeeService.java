@@ -1,14 +1,34 @@
 package com.annamacharya.emptesting.service;
 
+import com.annamacharya.emptesting.dto.BulkImportResult;
+import com.annamacharya.emptesting.dto.EmployeeDirectoryEntry;
+import com.annamacharya.emptesting.dto.EmployeeSummary;
+import com.annamacharya.emptesting.dto.EmployeeVersion;
 import com.annamacharya.emptesting.model.Employee;
 
+import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
+    BulkImportResult importEmployees(Iterator<Employee> employees);
     List<Employee> getAllEmployees();
+    List<Employee> getEmployeesAfter(long afterId, int size);
+    List<Map<String, Object>> getEmployeeFieldsAfter(List<String> fields, long afterId, int size);
+    List<EmployeeDirectoryEntry> getDirectoryAfter(long afterId, int size);
+    List<EmployeeSummary> findByLastNamePrefix(String prefix, int limit);
+    void streamEmployees(Consumer<Employee> consumer);
     Optional<Employee> getEmployeeById(long id);
+    List<Employee> getEmployeesFromPrimary(Collection<Long> ids);
+    Optional<EmployeeVersion> getEmployeeVersion(long id);
+    List<EmployeeVersion> getEmployeeVersionsAfter(long afterId, int size);
+    Optional<Map<String, Object>> getEmployeeFieldsById(List<String> fields, long id);
     Employee updateEmployee(Employee updatedEmployee);
+    Optional<Employee> patchEmployee(long id, UnaryOperator<Employee> patch, Long expectedVersion);
     void deleteEmployee(long id);
 }
@@ -1,50 +1,398 @@
 package com.annamacharya.emptesting.service.Impl;
 
-import com.annamacharya.emptesting.exception.ResourceNotFoundException;
+import com.annamacharya.emptesting.cache.EmployeeCache;
+import com.annamacharya.emptesting.csv.EmployeeCsv;
+import com.annamacharya.emptesting.dto.BulkImportResult;
+import com.annamacharya.emptesting.dto.EmployeeDirectoryEntry;
+import com.annamacharya.emptesting.dto.EmployeeSummary;
+import com.annamacharya.emptesting.dto.EmployeeVersion;
+import com.annamacharya.emptesting.dto.ImportRowResult;
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.exception.EmployeeAlreadyExistsException;
 import com.annamacharya.emptesting.model.Employee;
 import com.annamacharya.emptesting.repository.EmployeeRepository;
+import com.annamacharya.emptesting.routing.PrimaryReads;
 import com.annamacharya.emptesting.service.EmployeeService;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardContext;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.BeanWrapperImpl;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class EmployeeServiceImpl implements EmployeeService {
 
     private EmployeeRepository employeeRepository;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    private EntityManager entityManager;
+
+    private Validator validator;
+
+    private EmployeeCache employeeCache;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private EmployeeShards employeeShards;
+
+    private TransactionTemplate readOnlyTransactions;
+
+    private TransactionTemplate writeTransactions;
+
+    @Value("${employees.import.chunk-size:1000}")
+    private int importChunkSize;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, EntityManager entityManager, Validator validator,
+                               EmployeeCache employeeCache, ApplicationEventPublisher eventPublisher,
+                               EmployeeShards employeeShards, PlatformTransactionManager transactionManager) {
         this.employeeRepository = employeeRepository;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.employeeCache = employeeCache;
+        this.eventPublisher = eventPublisher;
+        this.employeeShards = employeeShards;
+        this.readOnlyTransactions = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactions.setReadOnly(true);
+        this.readOnlyTransactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.writeTransactions = new TransactionTemplate(transactionManager);
     }
 
     @Override
+    @Transactional
     public Employee saveEmployee(Employee employee) {
 
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if(savedEmployee.isPresent()){
-            throw new ResourceNotFoundException("Employee already exist with given email:" + employee.getEmail());
+        // the unique index on email decides, so there is no pre-check query and no check-then-insert race; it only
+        // covers one shard though, see checkEmailOnOtherShards
+        checkEmailOnOtherShards(employee.getEmail(), employee.getId());
+        Employee createdEmployee = saveAndFlush(employee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.created(createdEmployee));
+        return createdEmployee;
+    }
+
+    // flushed right away, so a taken email fails here as a 409 rather than at commit
+    private Employee saveAndFlush(Employee employee) {
+        try {
+            return employeeRepository.saveAndFlush(employee);
+        } catch (DataIntegrityViolationException e) {
+            if (isEmailConflict(e)) {
+                throw new EmployeeAlreadyExistsException("Employee already exist with given email:" + employee.getEmail(), e);
+            }
+            throw e;
         }
-        return employeeRepository.save(employee);
     }
 
+    // Hibernate leaves the constraint name out when a batched statement failed, so the driver's message is checked too
+    private static boolean isEmailConflict(DataIntegrityViolationException e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            String constraint = cause instanceof ConstraintViolationException violation ? violation.getConstraintName()
+                    : cause instanceof SQLException ? cause.getMessage() : null;
+            if (constraint != null && constraint.toLowerCase(Locale.ROOT).contains(Employee.EMAIL_UNIQUE_CONSTRAINT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // with more than one shard the unique index only sees the employee's own shard, so every shard is asked for the
+    // email first. Two writes of one email racing on different shards can still both get through
+    private void checkEmailOnOtherShards(String email, long id) {
+        if (employeeShards.count() > 1 && email != null
+                && employeeRepository.findByEmail(email).filter(holder -> holder.getId() != id).isPresent()) {
+            throw new EmployeeAlreadyExistsException("Employee already exist with given email:" + email);
+        }
+    }
+
+    // one transaction with a single shard. A transaction stays on one shard, so with more shards every chunk's rows
+    // are written per shard, each in a transaction of its own, and a failed import keeps what it wrote so far
     @Override
+    public BulkImportResult importEmployees(Iterator<Employee> employees) {
+        return employeeShards.count() == 1
+                ? writeTransactions.execute(status -> importAll(employees))
+                : importAll(employees);
+    }
+
+    private BulkImportResult importAll(Iterator<Employee> employees) {
+        List<ImportRowResult> results = new ArrayList<>();
+        Set<String> seenEmails = new HashSet<>();
+        List<Employee> chunk = new ArrayList<>(importChunkSize);
+        int row = 0;
+        while (employees.hasNext()) {
+            chunk.add(employees.next());
+            if (chunk.size() >= importChunkSize) {
+                importChunk(chunk, row + 1, seenEmails, results);
+                row += chunk.size();
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, row + 1, seenEmails, results);
+        }
+        return BulkImportResult.of(results);
+    }
+
+    // checks the chunk's emails with a single query, then lets Hibernate send the inserts as JDBC batches. Emails
+    // are compared ignoring case like MySQL's default collation, which the IN query and uk_employees_email use
+    private void importChunk(List<Employee> chunk, int firstRow, Set<String> seenEmails, List<ImportRowResult> results) {
+        Set<String> emails = chunk.stream()
+                .map(Employee::getEmail)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> existingEmails = emails.isEmpty() ? Set.of() : employeeRepository.findExistingEmails(emails).stream()
+                .map(EmployeeServiceImpl::normalizeEmail)
+                .collect(Collectors.toSet());
+
+        List<Employee> accepted = new ArrayList<>(chunk.size());
+        List<Integer> acceptedRows = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            Employee employee = chunk.get(i);
+            int row = firstRow + i;
+            employee.setId(0);
+            Set<ConstraintViolation<Employee>> violations = validator.validate(employee);
+            if (!violations.isEmpty()) {
+                results.add(ImportRowResult.rejected(row, ImportRowResult.Status.INVALID, violations.stream()
+                        .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "))));
+            } else if (existingEmails.contains(normalizeEmail(employee.getEmail()))
+                    || !seenEmails.add(normalizeEmail(employee.getEmail()))) {
+                results.add(ImportRowResult.rejected(row, ImportRowResult.Status.DUPLICATE_EMAIL,
+                        "Employee already exist with given email:" + employee.getEmail()));
+            } else {
+                accepted.add(employee);
+                acceptedRows.add(row);
+                results.add(null);
+            }
+        }
+
+        // each row goes to the shard of its own key; with one shard this joins the import's transaction
+        Map<Integer, List<Employee>> acceptedByShard = accepted.stream()
+                .collect(Collectors.groupingBy(employeeShards::shardFor, LinkedHashMap::new, Collectors.toList()));
+        acceptedByShard.forEach((shard, shardEmployees) -> ShardContext.run(shard,
+                () -> writeTransactions.executeWithoutResult(status -> {
+                    employeeRepository.saveAll(shardEmployees);
+                    entityManager.flush();
+                    entityManager.clear();
+                    shardEmployees.forEach(employee -> eventPublisher.publishEvent(EmployeeChangedEvent.created(employee)));
+                })));
+
+        // fill in the placeholders left for accepted rows now that their ids are known
+        int next = 0;
+        for (int i = results.size() - chunk.size(); i < results.size(); i++) {
+            if (results.get(i) == null) {
+                results.set(i, ImportRowResult.imported(acceptedRows.get(next), accepted.get(next).getId()));
+                next++;
+            }
+        }
+    }
+
+    private static String normalizeEmail(String email) {
+        return email.toLowerCase(Locale.ROOT);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
     public List<Employee> getAllEmployees() {
         return employeeRepository.findAll();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public List<Employee> getEmployeesAfter(long afterId, int size) {
+        return employeeRepository.findPageAfter(afterId, PageRequest.ofSize(size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> getEmployeeFieldsAfter(List<String> fields, long afterId, int size) {
+        return employeeRepository.findFieldsAfter(fields, afterId, size);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeDirectoryEntry> getDirectoryAfter(long afterId, int size) {
+        return employeeRepository.findDirectoryPageAfter(afterId, PageRequest.ofSize(size));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeSummary> findByLastNamePrefix(String prefix, int limit) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return employeeRepository.findSummariesByLastNameLike(pattern, PageRequest.ofSize(limit));
+    }
+
+    // one cursor per shard, each in its own transaction; the shards' id ranges follow each other, so the employees
+    // still come in id order
+    @Override
+    public void streamEmployees(Consumer<Employee> consumer) {
+        for (int shard = 0; shard < employeeShards.count(); shard++) {
+            ShardContext.run(shard, () -> readOnlyTransactions.executeWithoutResult(status -> {
+                try (Stream<Employee> employees = employeeRepository.streamAll()) {
+                    employees.forEach(employee -> {
+                        consumer.accept(employee);
+                        // drop the row from the persistence context so heap stays flat over the whole table
+                        entityManager.detach(employee);
+                    });
+                }
+            }));
+        }
+    }
+
+    // the near cache is filled from the primary: an entry loaded from a lagging replica would outlive the lag by
+    // up to the cache's TTL. Versions come from the primary too, so they agree with what the cache holds
     @Override
     public Optional<Employee> getEmployeeById(long id) {
-        return employeeRepository.findById(id);
+        return employeeCache.get(id, key -> readFromPrimary(() -> employeeRepository.findById(key)));
     }
 
+    // bypasses the near cache, for callers that must not see a replica's lag either
     @Override
+    public List<Employee> getEmployeesFromPrimary(Collection<Long> ids) {
+        return readFromPrimary(() -> employeeRepository.findAllById(ids));
+    }
+
+    @Override
+    public Optional<EmployeeVersion> getEmployeeVersion(long id) {
+        return employeeCache.cachedVersion(id).or(() -> readFromPrimary(() -> employeeRepository.findVersionById(id)));
+    }
+
+    // a transaction of its own, so that it takes a connection inside PrimaryReads
+    private <T> T readFromPrimary(Supplier<T> read) {
+        return PrimaryReads.call(() -> readOnlyTransactions.execute(status -> read.get()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<EmployeeVersion> getEmployeeVersionsAfter(long afterId, int size) {
+        return employeeRepository.findVersionPageAfter(afterId, PageRequest.ofSize(size));
+    }
+
+    // goes to the database for just these columns; the near cache only holds whole employees
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<Map<String, Object>> getEmployeeFieldsById(List<String> fields, long id) {
+        return employeeRepository.findFieldsById(fields, id);
+    }
+
+    @Override
+    @Transactional
     public Employee updateEmployee(Employee updatedEmployee) {
-        return employeeRepository.save(updatedEmployee);
+        // drop the entry up front so a failed update cannot leave it behind; the commit refreshes it
+        employeeCache.invalidate(updatedEmployee.getId());
+        checkEmailOnOtherShards(updatedEmployee.getEmail(), updatedEmployee.getId());
+        Employee savedEmployee = saveAndFlush(updatedEmployee);
+        eventPublisher.publishEvent(EmployeeChangedEvent.updated(savedEmployee));
+        return savedEmployee;
+    }
+
+    // the state before the write comes from the near cache when it holds the employee, so the common edit is a
+    // single UPDATE of the changed columns guarded by the version; a stale cached copy fails that guard and the
+    // patch is applied once more to the row read from the database
+    @Override
+    @Transactional
+    public Optional<Employee> patchEmployee(long id, UnaryOperator<Employee> patch, Long expectedVersion) {
+        for (boolean fromCache = true; ; fromCache = false) {
+            Optional<Employee> loaded = fromCache ? employeeCache.getIfPresent(id) : employeeRepository.findById(id);
+            if (loaded.isEmpty()) {
+                if (fromCache) {
+                    continue;
+                }
+                return Optional.empty();
+            }
+            Employee current = loaded.get();
+            if (expectedVersion != null && expectedVersion != current.getVersion()) {
+                if (fromCache) {
+                    continue;
+                }
+                throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+            }
+            Employee patched = patch.apply(current.toBuilder().build());
+            Set<ConstraintViolation<Employee>> violations = validator.validate(patched);
+            if (!violations.isEmpty()) {
+                throw new jakarta.validation.ConstraintViolationException(violations);
+            }
+            Map<String, Object> changes = changedAttributes(current, patched);
+            if (changes.isEmpty()) {
+                return Optional.of(patched);
+            }
+
+            if (changes.containsKey("email")) {
+                checkEmailOnOtherShards(patched.getEmail(), id);
+            }
+            employeeCache.invalidate(id);
+            Instant lastModified = Instant.now().truncatedTo(ChronoUnit.MICROS);
+            int updated;
+            try {
+                updated = employeeRepository.updateFields(id, current.getVersion(), changes, lastModified);
+            } catch (DataIntegrityViolationException e) {
+                if (isEmailConflict(e)) {
+                    throw new EmployeeAlreadyExistsException("Employee already exist with given email:" + patched.getEmail(), e);
+                }
+                throw e;
+            }
+            if (updated == 1) {
+                patched.setVersion(current.getVersion() + 1);
+                patched.setLastModified(lastModified);
+                eventPublisher.publishEvent(EmployeeChangedEvent.updated(patched));
+                return Optional.of(patched);
+            }
+            if (!fromCache) {
+                if (!employeeRepository.existsById(id)) {
+                    return Optional.empty();
+                }
+                throw new ObjectOptimisticLockingFailureException(Employee.class, id);
+            }
+        }
+    }
+
+    private static Map<String, Object> changedAttributes(Employee current, Employee patched) {
+        BeanWrapper before = new BeanWrapperImpl(current);
+        BeanWrapper after = new BeanWrapperImpl(patched);
+        Map<String, Object> changes = new LinkedHashMap<>();
+        for (String attribute : EmployeeCsv.COLUMNS) {
+            Object value = after.getPropertyValue(attribute);
+            if (!attribute.equals("id") && !Objects.equals(before.getPropertyValue(attribute), value)) {
+                changes.put(attribute, value);
+            }
+        }
+        return changes;
     }
 
     @Override
+    @Transactional
     public void deleteEmployee(long id) {
         employeeRepository.deleteById(id);
+        eventPublisher.publishEvent(EmployeeChangedEvent.deleted(id));
     }
 }
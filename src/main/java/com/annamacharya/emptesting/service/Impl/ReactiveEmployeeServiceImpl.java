@@ -0,0 +1,42 @@
+package com.annamacharya.emptesting.service.Impl;
+
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.reactive.ReactiveEmployeeRepository;
+import com.annamacharya.emptesting.service.EmployeeService;
+import com.annamacharya.emptesting.service.ReactiveEmployeeService;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+@Service
+public class ReactiveEmployeeServiceImpl implements ReactiveEmployeeService {
+
+    private ReactiveEmployeeRepository reactiveEmployeeRepository;
+
+    private EmployeeService employeeService;
+
+    public ReactiveEmployeeServiceImpl(ReactiveEmployeeRepository reactiveEmployeeRepository,
+                                       EmployeeService employeeService) {
+        this.reactiveEmployeeRepository = reactiveEmployeeRepository;
+        this.employeeService = employeeService;
+    }
+
+    // writes go through the blocking service so ids, the unique email check, the cache and the change events
+    // stay in one place; the call runs on the bounded elastic pool, never on a request thread
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+        return Mono.fromCallable(() -> employeeService.saveEmployee(employee))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    @Override
+    public Flux<Employee> getEmployeesAfter(long afterId, int size) {
+        return reactiveEmployeeRepository.findAllAfter(afterId, size);
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(long id) {
+        return reactiveEmployeeRepository.findById(id);
+    }
+}
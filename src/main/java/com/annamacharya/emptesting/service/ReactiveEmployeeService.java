@@ -0,0 +1,11 @@
+package com.annamacharya.emptesting.service;
+
+import com.annamacharya.emptesting.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveEmployeeService {
+    Mono<Employee> saveEmployee(Employee employee);
+    Flux<Employee> getEmployeesAfter(long afterId, int size);
+    Mono<Employee> getEmployeeById(long id);
+}
@@ -0,0 +1,77 @@
+package com.annamacharya.emptesting.sharding;
+
+import com.annamacharya.emptesting.model.Employee;
+
+import java.util.Map;
+
+/**
+ * The shards the employees table is split over and where a new employee goes.
+ * <p>
+ * Every shard owns a range of ids: the shard number sits above the low {@value #SEQUENCE_BITS} bits, which hold
+ * a value of the shard's own employees_seq, so ids are unique across shards, an id tells which shard has the row
+ * and shard 0 keeps plain sequence ids. Ids stay below 2^53 for JavaScript clients, which allows
+ * {@value #MAX_SHARDS} shards. A new employee is placed by the {@link ShardKey}; values of the key can be
+ * assigned to a shard, the others are spread by hash.
+ */
+public class EmployeeShards {
+
+    public static final int SEQUENCE_BITS = 48;
+
+    public static final int MAX_SHARDS = 32;
+
+    private final int count;
+
+    private final ShardKey key;
+
+    private final Map<String, Integer> assignments;
+
+    public EmployeeShards(int count, ShardKey key, Map<String, Integer> assignments) {
+        if (count < 1 || count > MAX_SHARDS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_SHARDS + " shards are supported, not " + count);
+        }
+        assignments.forEach((value, shard) -> {
+            if (shard < 0 || shard >= count) {
+                throw new IllegalArgumentException(value + " is assigned to shard " + shard + " of " + count);
+            }
+        });
+        this.count = count;
+        this.key = key;
+        this.assignments = Map.copyOf(assignments);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public int shardFor(Employee employee) {
+        return switch (key) {
+            case ID_RANGE -> count - 1;
+            case DEPARTMENT -> shardFor(employee.getDepartment());
+            case COUNTRY -> shardFor(employee.getCountry());
+        };
+    }
+
+    // String.hashCode is specified, so every node places a value on the same shard
+    private int shardFor(String value) {
+        if (value == null) {
+            return 0;
+        }
+        Integer shard = assignments.get(value);
+        return shard != null ? shard : Math.floorMod(value.hashCode(), count);
+    }
+
+    // an id outside every shard's range belongs to no row; it is looked up on shard 0 and not found there
+    public int shardOf(long id) {
+        long shard = id >>> SEQUENCE_BITS;
+        return shard < count ? (int) shard : 0;
+    }
+
+    public static long id(int shard, long sequence) {
+        return rangeStart(shard) | sequence;
+    }
+
+    // below the first id of the shard, as sequences start at 1
+    public static long rangeStart(int shard) {
+        return (long) shard << SEQUENCE_BITS;
+    }
+}
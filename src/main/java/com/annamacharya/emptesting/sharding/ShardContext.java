@@ -0,0 +1,97 @@
+package com.annamacharya.emptesting.sharding;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+
+/**
+ * The shard the current thread works on, which {@link ShardRoutingDataSource} hands out connections for; a thread
+ * that has not picked one works on shard 0. A transaction is bound to one shard, the first one it was routed to
+ * or took a connection from, see {@link #transactionShard()}.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    // transaction resource key of the shard a transaction is on
+    private static final Object TRANSACTION_SHARD = new Object();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = CURRENT.get();
+        return shard == null ? 0 : shard;
+    }
+
+    public static boolean isSet() {
+        return CURRENT.get() != null;
+    }
+
+    // returns what to pass to close
+    public static Integer open(int shard) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        return previous;
+    }
+
+    public static void close(Integer previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+
+    public static <T> T call(int shard, Callable<T> work) throws Exception {
+        Integer previous = open(shard);
+        try {
+            return work.call();
+        } finally {
+            close(previous);
+        }
+    }
+
+    public static void run(int shard, Runnable work) {
+        Integer previous = open(shard);
+        try {
+            work.run();
+        } finally {
+            close(previous);
+        }
+    }
+
+    // null outside a transaction and in one that has not used a connection yet
+    public static Integer transactionShard() {
+        return (Integer) TransactionSynchronizationManager.getResource(TRANSACTION_SHARD);
+    }
+
+    static void bindToTransaction(int shard) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.hasResource(TRANSACTION_SHARD)) {
+            TransactionSynchronizationManager.bindResource(TRANSACTION_SHARD, shard);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionShard(shard));
+        }
+    }
+
+    // keeps the binding with its transaction while an inner transaction suspends it
+    private record TransactionShard(int shard) implements TransactionSynchronization {
+
+        @Override
+        public void suspend() {
+            TransactionSynchronizationManager.unbindResource(TRANSACTION_SHARD);
+        }
+
+        @Override
+        public void resume() {
+            TransactionSynchronizationManager.bindResource(TRANSACTION_SHARD, shard);
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TRANSACTION_SHARD);
+        }
+    }
+}
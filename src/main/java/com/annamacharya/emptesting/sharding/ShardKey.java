@@ -0,0 +1,11 @@
+package com.annamacharya.emptesting.sharding;
+
+// what places a new employee on a shard; the employee stays there when the key changes later
+public enum ShardKey {
+    // the last shard, whose id range is the open one: adding a shard moves new employees to it
+    ID_RANGE,
+    // a hash of the department, unless the department is assigned to a shard
+    DEPARTMENT,
+    // a hash of the country, unless the country is assigned to a shard
+    COUNTRY
+}
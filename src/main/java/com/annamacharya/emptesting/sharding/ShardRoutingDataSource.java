@@ -0,0 +1,65 @@
+package com.annamacharya.emptesting.sharding;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hands out connections to the shard of the current transaction, or else of the current thread (see
+ * {@link ShardContext}); a transaction not bound to a shard yet is bound to the shard of its first connection.
+ * Like the replica routing it has to sit behind a {@code LazyConnectionDataSourceProxy}, so that a transaction
+ * takes its connection on its first statement, once the shard is known. Shard 0 is owned by the caller, the
+ * other shards are closed with this data source.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        Map<Object, Object> targets = new LinkedHashMap<>();
+        for (int shard = 0; shard < shards.size(); shard++) {
+            targets.put(shard, shards.get(shard));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        this.shards = List.copyOf(shards);
+    }
+
+    public List<DataSource> getShards() {
+        return shards;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        ShardContext.bindToTransaction(ShardContext.current());
+        return super.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        ShardContext.bindToTransaction(ShardContext.current());
+        return super.getConnection(username, password);
+    }
+
+    // a transaction's statements all go to its shard, also those Hibernate flushes after the shard was picked
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer transactionShard = ShardContext.transactionShard();
+        return transactionShard != null ? transactionShard : ShardContext.current();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource shard : shards.subList(1, shards.size())) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
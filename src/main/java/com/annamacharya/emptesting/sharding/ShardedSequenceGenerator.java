@@ -0,0 +1,50 @@
+package com.annamacharya.emptesting.sharding;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.Optimizer;
+import org.hibernate.id.enhanced.OptimizerFactory;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Sequence generator whose ids fall in the range of the shard the entity is written to (see
+ * {@link EmployeeShards}). Every shard has its own sequence, which the generator reads on a connection of the
+ * current shard, and its own optimizer for the blocks of values taken from it. Shard 0 is the plain sequence.
+ */
+public class ShardedSequenceGenerator extends SequenceStyleGenerator {
+
+    private final Map<Integer, Optimizer> shardOptimizers = new ConcurrentHashMap<>();
+
+    private long initialValue;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry) throws MappingException {
+        super.configure(type, parameters, serviceRegistry);
+        initialValue = determineInitialValue(parameters);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object object) {
+        int shard = ShardContext.current();
+        if (shard == 0) {
+            return super.generate(session, object);
+        }
+        Optimizer optimizer = shardOptimizers.computeIfAbsent(shard, key -> OptimizerFactory.buildOptimizer(
+                getOptimizer().getClass().getName(), getIdentifierType().getReturnedClass(),
+                getOptimizer().getIncrementSize(), initialValue));
+        long sequence = ((Number) optimizer.generate(getDatabaseStructure().buildCallback(session))).longValue();
+        return EmployeeShards.id(shard, sequence);
+    }
+
+    // an INSERT ... SELECT would take plain sequence values on every shard
+    @Override
+    public boolean supportsBulkInsertionIdentifierGeneration() {
+        return false;
+    }
+}
@@ -0,0 +1,267 @@
+package com.annamacharya.emptesting.sharding;
+
+import com.annamacharya.emptesting.dto.EmployeeSummary;
+import com.annamacharya.emptesting.model.Employee;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.lang.reflect.UndeclaredThrowableException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Spreads the calls to the employee repository over the {@link EmployeeShards}.
+ * <p>
+ * A call about one employee goes to the shard of its id, a new employee to the shard its key places it on. A
+ * transaction stays on one shard: new employees written later in it join that shard, and a write for an
+ * employee of another shard fails. Finders over all employees run on every shard at once, each on a query
+ * thread in its own transaction, and their results are merged in the finder's order. Keyset pages walk the
+ * shards' id ranges in order instead, asking the next shard only while the page is not full. Calls not listed
+ * here run on the current shard, as does every call of a caller that picked a shard with {@link ShardContext}.
+ */
+public class ShardingRepositoryInterceptor implements MethodInterceptor, DisposableBean {
+
+    // near enough to the case-insensitive collation the database sorted each shard's rows by
+    private static final Comparator<Object> SUMMARY_ORDER = Comparator
+            .comparing((Object summary) -> ((EmployeeSummary) summary).getLastName(), String.CASE_INSENSITIVE_ORDER)
+            .thenComparing(summary -> ((EmployeeSummary) summary).getFirstName(), String.CASE_INSENSITIVE_ORDER);
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Comparator<Object> NATURAL_ORDER = (left, right) -> ((Comparable) left).compareTo(right);
+
+    private final EmployeeShards shards;
+
+    private final ExecutorService queries;
+
+    public ShardingRepositoryInterceptor(EmployeeShards shards, int queryThreads) {
+        this.shards = shards;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("shard-query-");
+        threadFactory.setDaemon(true);
+        this.queries = Executors.newFixedThreadPool(queryThreads, threadFactory);
+    }
+
+    @Override
+    public void destroy() {
+        queries.shutdownNow();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (shards.count() == 1 || ShardContext.isSet()) {
+            return invocation.proceed();
+        }
+        Object[] arguments = invocation.getArguments();
+        return switch (invocation.getMethod().getName()) {
+            case "findById", "existsById", "getById", "getReferenceById", "findVersionById" ->
+                    onShard(shards.shardOf(id(arguments[0])), invocation, false);
+            case "findFieldsById" -> onShard(shards.shardOf(id(arguments[1])), invocation, false);
+            case "deleteById", "updateFields" -> onShard(shards.shardOf(id(arguments[0])), invocation, true);
+            case "lockIdsAfter" -> onShard(shards.shardOf(id(arguments[1])), invocation, true);
+            case "save", "saveAndFlush", "delete" -> onShard(shardFor(List.of(arguments[0])), invocation, true);
+            case "saveAll", "saveAllAndFlush", "deleteAll", "deleteAllInBatch" -> arguments.length == 0
+                    ? everyShard(invocation)
+                    : onShard(shardFor((Iterable<?>) arguments[0]), invocation, true);
+            case "deleteAllById", "deleteAllByIdInBatch", "updateAll", "archiveAll" ->
+                    onShard(shardOf((Iterable<?>) arguments[0]), invocation, true);
+            case "findAllById" -> findAllById(invocation, (Iterable<?>) arguments[0]);
+            case "findPageAfter", "findDirectoryPageAfter", "findVersionPageAfter" -> pageAfter(invocation, 0, 1);
+            case "findFieldsAfter" -> pageAfter(invocation, 1, 2);
+            case "findSummariesByLastNameLike" ->
+                    merge(scatter(invocation), SUMMARY_ORDER, ((Pageable) arguments[1]).getPageSize());
+            case "findSalariesByDepartment", "findSalariesByJobTitle" ->
+                    merge(scatter(invocation), NATURAL_ORDER, Integer.MAX_VALUE);
+            case "findAll" -> arguments.length == 0 ? merge(scatter(invocation), null, Integer.MAX_VALUE)
+                    : invocation.proceed();
+            case "findExistingEmails" -> union(scatter(invocation));
+            case "findByEmail" -> scatter(invocation).stream()
+                    .map(Optional.class::cast)
+                    .filter(Optional::isPresent)
+                    .findFirst()
+                    .orElse(Optional.empty());
+            case "findByJPQL", "findByJPQLNamedParams", "findByNativeSQL", "findByNativeSQLNamed" ->
+                    scatter(invocation).stream().filter(result -> result != null).findFirst().orElse(null);
+            case "count", "countMatching" ->
+                    scatter(invocation).stream().mapToLong(count -> ((Number) count).longValue()).sum();
+            default -> invocation.proceed();
+        };
+    }
+
+    // on the calling thread unless the caller's transaction is on another shard, where only reads can go
+    private Object onShard(int shard, MethodInvocation invocation, boolean write) throws Throwable {
+        Integer transactionShard = ShardContext.transactionShard();
+        if (transactionShard == null || transactionShard == shard) {
+            // Hibernate may write later, at flush, so the transaction is bound now
+            ShardContext.bindToTransaction(shard);
+            return proceed(shard, invocation);
+        }
+        if (write) {
+            throw new IllegalStateException("The transaction is on shard " + transactionShard
+                    + " and cannot write to shard " + shard);
+        }
+        return await(queries.submit(task(shard, invocation)));
+    }
+
+    // an employee with an id is on the shard of its id; a new one goes where its key says, or to the shard of the
+    // employees written before it
+    private int shardFor(Iterable<?> employees) {
+        Integer shard = ShardContext.transactionShard();
+        for (Object element : employees) {
+            Employee employee = (Employee) element;
+            int target = employee.getId() != 0 ? shards.shardOf(employee.getId())
+                    : shard != null ? shard : shards.shardFor(employee);
+            if (shard == null) {
+                shard = target;
+            } else if (shard != target) {
+                throw new IllegalStateException("Employees of shards " + shard + " and " + target
+                        + " cannot be written together");
+            }
+        }
+        return shard == null ? 0 : shard;
+    }
+
+    private int shardOf(Iterable<?> ids) {
+        Integer shard = null;
+        for (Object id : ids) {
+            int target = shards.shardOf(id(id));
+            if (shard == null) {
+                shard = target;
+            } else if (shard != target) {
+                throw new IllegalStateException("Employees of shards " + shard + " and " + target
+                        + " cannot be written together");
+            }
+        }
+        return shard == null ? 0 : shard;
+    }
+
+    private Object findAllById(MethodInvocation invocation, Iterable<?> ids) throws Throwable {
+        Map<Integer, List<Object>> idsByShard = new LinkedHashMap<>();
+        ids.forEach(id -> idsByShard.computeIfAbsent(shards.shardOf(id(id)), shard -> new ArrayList<>()).add(id));
+        if (idsByShard.size() <= 1) {
+            return onShard(idsByShard.isEmpty() ? 0 : idsByShard.keySet().iterator().next(), invocation, false);
+        }
+        Map<Integer, Object[]> calls = new LinkedHashMap<>();
+        idsByShard.forEach((shard, shardIds) -> calls.put(shard, new Object[]{shardIds}));
+        return merge(gather(invocation, calls), null, Integer.MAX_VALUE);
+    }
+
+    // the page is filled from the shard of afterId on: the shards' id ranges follow each other, so every row of
+    // a later shard comes after every row of an earlier one
+    private Object pageAfter(MethodInvocation invocation, int afterIdIndex, int sizeIndex) throws Throwable {
+        Object[] arguments = invocation.getArguments();
+        int size = arguments[sizeIndex] instanceof Pageable pageable ? pageable.getPageSize() : (Integer) arguments[sizeIndex];
+        List<Object> page = new ArrayList<>(size);
+        for (int shard = shards.shardOf(id(arguments[afterIdIndex])); shard < shards.count() && page.size() < size; shard++) {
+            Object[] shardArguments = arguments.clone();
+            int remaining = size - page.size();
+            shardArguments[sizeIndex] = arguments[sizeIndex] instanceof Pageable pageable
+                    ? PageRequest.of(0, remaining, pageable.getSort()) : remaining;
+            page.addAll((List<?>) onShard(shard, clone(invocation, shardArguments), false));
+        }
+        return page;
+    }
+
+    private Object everyShard(MethodInvocation invocation) throws Throwable {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Writing to every shard needs a transaction per shard, not the caller's");
+        }
+        scatter(invocation);
+        return null;
+    }
+
+    private List<Object> scatter(MethodInvocation invocation) throws Throwable {
+        Map<Integer, Object[]> calls = new LinkedHashMap<>();
+        for (int shard = 0; shard < shards.count(); shard++) {
+            calls.put(shard, invocation.getArguments());
+        }
+        return gather(invocation, calls);
+    }
+
+    // the results by shard, in the order of the calls
+    private List<Object> gather(MethodInvocation invocation, Map<Integer, Object[]> calls) throws Throwable {
+        List<Future<Object>> futures = new ArrayList<>(calls.size());
+        try {
+            calls.forEach((shard, arguments) -> futures.add(queries.submit(task(shard, clone(invocation, arguments)))));
+            List<Object> results = new ArrayList<>(futures.size());
+            for (Future<Object> future : futures) {
+                results.add(await(future));
+            }
+            return results;
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private static Callable<Object> task(int shard, MethodInvocation invocation) {
+        return () -> {
+            try {
+                return proceed(shard, invocation);
+            } catch (Error | Exception e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new UndeclaredThrowableException(e);
+            }
+        };
+    }
+
+    private static Object proceed(int shard, MethodInvocation invocation) throws Throwable {
+        Integer previous = ShardContext.open(shard);
+        try {
+            return invocation.proceed();
+        } finally {
+            ShardContext.close(previous);
+        }
+    }
+
+    private static Object await(Future<Object> future) throws Throwable {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the shards", e);
+        }
+    }
+
+    // a proceed per shard needs its own copy of the invocation
+    private static MethodInvocation clone(MethodInvocation invocation, Object[] arguments) {
+        return ((ProxyMethodInvocation) invocation).invocableClone(arguments);
+    }
+
+    // concatenated in shard order, or sorted when given an order
+    private static List<Object> merge(List<Object> results, Comparator<Object> order, int limit) {
+        List<Object> merged = new ArrayList<>();
+        results.forEach(result -> merged.addAll((List<?>) result));
+        if (order != null) {
+            merged.sort(order);
+        }
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    private static Set<Object> union(List<Object> results) {
+        Set<Object> union = new HashSet<>();
+        results.forEach(result -> union.addAll((Set<?>) result));
+        return union;
+    }
+
+    private static long id(Object id) {
+        return ((Number) id).longValue();
+    }
+}
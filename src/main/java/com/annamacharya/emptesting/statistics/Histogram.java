@@ -0,0 +1,44 @@
+package com.annamacharya.emptesting.statistics;
+
+import com.annamacharya.emptesting.dto.SalaryStatisticsResult;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+// equal width bins between the lowest and highest salary
+public class Histogram {
+
+    private final double min;
+
+    private final double width;
+
+    private final long[] counts;
+
+    public Histogram(double min, double max, int bins) {
+        this.min = min;
+        this.counts = new long[max > min ? Math.max(1, bins) : 1];
+        this.width = (max - min) / counts.length;
+    }
+
+    public void add(double value, long count) {
+        if (count == 0) {
+            return;
+        }
+        int bin = width == 0 ? 0 : (int) ((value - min) / width);
+        counts[Math.max(0, Math.min(counts.length - 1, bin))] += count;
+    }
+
+    public List<SalaryStatisticsResult.Bin> bins() {
+        List<SalaryStatisticsResult.Bin> bins = new ArrayList<>(counts.length);
+        for (int i = 0; i < counts.length; i++) {
+            bins.add(new SalaryStatisticsResult.Bin(money(min + i * width), money(min + (i + 1) * width), counts[i]));
+        }
+        return bins;
+    }
+
+    static BigDecimal money(double value) {
+        return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+    }
+}
@@ -0,0 +1,110 @@
+package com.annamacharya.emptesting.statistics;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Quantile sketch over salaries with a relative error guarantee (the DDSketch bucketing): a value v is counted in
+ * bucket ceil(log_gamma(v)) with gamma = (1 + e) / (1 - e), so every quantile is answered within a factor e of the
+ * true value. The bucket count only grows with the log of the salary range, never with the number of employees.
+ * Sketches with the same error merge by adding bucket counts, and a value can be removed again by the same rule.
+ * Zero and negative salaries share one bucket reported as zero. Not thread safe.
+ */
+public class SalarySketch {
+
+    private final double relativeError;
+
+    private final double gamma;
+
+    private final double logGamma;
+
+    private final TreeMap<Integer, Long> buckets = new TreeMap<>();
+
+    private long zeroCount;
+
+    private long count;
+
+    public SalarySketch(double relativeError) {
+        if (!(relativeError > 0 && relativeError < 1)) {
+            throw new IllegalArgumentException("relativeError must be between 0 and 1: " + relativeError);
+        }
+        this.relativeError = relativeError;
+        this.gamma = (1 + relativeError) / (1 - relativeError);
+        this.logGamma = Math.log(gamma);
+    }
+
+    public void add(BigDecimal salary) {
+        adjust(salary.doubleValue(), 1);
+    }
+
+    public void remove(BigDecimal salary) {
+        adjust(salary.doubleValue(), -1);
+    }
+
+    public void merge(SalarySketch other) {
+        if (other.gamma != gamma) {
+            throw new IllegalArgumentException("Cannot merge sketches with different relative errors");
+        }
+        other.buckets.forEach((index, bucketCount) -> buckets.merge(index, bucketCount, Long::sum));
+        zeroCount += other.zeroCount;
+        count += other.count;
+    }
+
+    public long count() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    public double relativeError() {
+        return relativeError;
+    }
+
+    // value at rank q * (count - 1), the same rank the exact computation uses
+    public double quantile(double q) {
+        if (count == 0) {
+            throw new IllegalStateException("Empty sketch");
+        }
+        long rank = (long) (q * (count - 1));
+        long seen = zeroCount;
+        if (seen > rank) {
+            return 0;
+        }
+        for (Map.Entry<Integer, Long> bucket : buckets.entrySet()) {
+            seen += bucket.getValue();
+            if (seen > rank) {
+                return valueOf(bucket.getKey());
+            }
+        }
+        return buckets.isEmpty() ? 0 : valueOf(buckets.lastKey());
+    }
+
+    public Histogram histogram(int bins) {
+        if (count == 0) {
+            throw new IllegalStateException("Empty sketch");
+        }
+        double min = zeroCount > 0 ? 0 : valueOf(buckets.firstKey());
+        double max = buckets.isEmpty() ? 0 : valueOf(buckets.lastKey());
+        Histogram histogram = new Histogram(min, max, bins);
+        histogram.add(0, zeroCount);
+        buckets.forEach((index, bucketCount) -> histogram.add(valueOf(index), bucketCount));
+        return histogram;
+    }
+
+    private void adjust(double value, long delta) {
+        if (value <= 0) {
+            zeroCount += delta;
+        } else {
+            buckets.merge((int) Math.ceil(Math.log(value) / logGamma), delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+        count += delta;
+    }
+
+    // representative value of a bucket, within the relative error of everything counted in it
+    private double valueOf(int index) {
+        return 2 * Math.pow(gamma, index) / (gamma + 1);
+    }
+}
@@ -0,0 +1,131 @@
+package com.annamacharya.emptesting.statistics;
+
+import com.annamacharya.emptesting.dto.SalaryStatisticsResult;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.view.EmployeeView;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * One {@link SalarySketch} per department and per job title, kept current like the other views. Reading a
+ * group's percentiles and histogram walks its sketch only, so the cost does not depend on how many employees
+ * the group has.
+ */
+@Component
+public class SalaryStatistics implements EmployeeView {
+
+    static final double[] PERCENTILES = {0.25, 0.50, 0.75, 0.90, 0.99};
+
+    private final double relativeError;
+
+    private final int histogramBins;
+
+    private final Map<Long, Contribution> contributions = new HashMap<>();
+
+    private final Map<StatisticsDimension, Map<String, SalarySketch>> sketches = new EnumMap<>(StatisticsDimension.class);
+
+    public SalaryStatistics(@Value("${employees.statistics.relative-error:0.01}") double relativeError,
+                            @Value("${employees.statistics.histogram-bins:10}") int histogramBins) {
+        new SalarySketch(relativeError); // fail on startup rather than on the first employee
+        this.relativeError = relativeError;
+        this.histogramBins = histogramBins;
+        for (StatisticsDimension dimension : StatisticsDimension.values()) {
+            sketches.put(dimension, new HashMap<>());
+        }
+    }
+
+    @Override
+    public synchronized void clear() {
+        contributions.clear();
+        sketches.values().forEach(Map::clear);
+    }
+
+    @Override
+    public synchronized void upsert(Employee employee) {
+        Contribution contribution = Contribution.of(employee);
+        Contribution previous = contributions.put(employee.getId(), contribution);
+        if (previous != null) {
+            apply(previous, false);
+        }
+        apply(contribution, true);
+    }
+
+    @Override
+    public synchronized void remove(long employeeId) {
+        Contribution previous = contributions.remove(employeeId);
+        if (previous != null) {
+            apply(previous, false);
+        }
+    }
+
+    public synchronized List<SalaryStatisticsResult> statistics(StatisticsDimension dimension) {
+        return new TreeMap<>(sketches.get(dimension)).entrySet().stream()
+                .map(entry -> toResult(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    public synchronized Optional<SalaryStatisticsResult> statistics(StatisticsDimension dimension, String key) {
+        return Optional.ofNullable(sketches.get(dimension).get(key)).map(sketch -> toResult(key, sketch));
+    }
+
+    int histogramBins() {
+        return histogramBins;
+    }
+
+    private void apply(Contribution contribution, boolean add) {
+        if (contribution.salary() == null) {
+            return;
+        }
+        for (Map.Entry<StatisticsDimension, String> group : contribution.keys().entrySet()) {
+            StatisticsDimension dimension = group.getKey();
+            String key = group.getValue();
+            Map<String, SalarySketch> groups = sketches.get(dimension);
+            SalarySketch sketch = groups.computeIfAbsent(key, k -> new SalarySketch(relativeError));
+            if (add) {
+                sketch.add(contribution.salary());
+            } else {
+                sketch.remove(contribution.salary());
+            }
+            if (sketch.isEmpty()) {
+                groups.remove(key);
+            }
+        }
+    }
+
+    private SalaryStatisticsResult toResult(String key, SalarySketch sketch) {
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put(label(percentile), Histogram.money(sketch.quantile(percentile)));
+        }
+        return new SalaryStatisticsResult(key, sketch.count(), false, relativeError, percentiles,
+                sketch.histogram(histogramBins).bins());
+    }
+
+    static String label(double percentile) {
+        return "p" + Math.round(percentile * 100);
+    }
+
+    // the groups and salary an employee was last counted under, so it can be taken out again
+    private record Contribution(Map<StatisticsDimension, String> keys, BigDecimal salary) {
+
+        static Contribution of(Employee employee) {
+            Map<StatisticsDimension, String> keys = new EnumMap<>(StatisticsDimension.class);
+            for (StatisticsDimension dimension : StatisticsDimension.values()) {
+                String key = dimension.valueOf(employee);
+                if (key != null) {
+                    keys.put(dimension, key);
+                }
+            }
+            return new Contribution(keys, employee.getSalary());
+        }
+    }
+}
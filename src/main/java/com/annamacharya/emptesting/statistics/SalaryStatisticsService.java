@@ -0,0 +1,51 @@
+package com.annamacharya.emptesting.statistics;
+
+import com.annamacharya.emptesting.dto.SalaryStatisticsResult;
+import com.annamacharya.emptesting.exception.ResourceNotFoundException;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class SalaryStatisticsService {
+
+    private final SalaryStatistics salaryStatistics;
+
+    private final EmployeeRepository employeeRepository;
+
+    public SalaryStatisticsService(SalaryStatistics salaryStatistics, EmployeeRepository employeeRepository) {
+        this.salaryStatistics = salaryStatistics;
+        this.employeeRepository = employeeRepository;
+    }
+
+    public List<SalaryStatisticsResult> getStatistics(StatisticsDimension dimension) {
+        return salaryStatistics.statistics(dimension);
+    }
+
+    public SalaryStatisticsResult getStatistics(StatisticsDimension dimension, String key, boolean exact) {
+        if (!exact) {
+            return salaryStatistics.statistics(dimension, key)
+                    .orElseThrow(() -> new ResourceNotFoundException("No salaries for " + dimension + " " + key));
+        }
+        // audit path: read and rank every salary of the group
+        List<BigDecimal> salaries = switch (dimension) {
+            case DEPARTMENT -> employeeRepository.findSalariesByDepartment(key);
+            case JOB_TITLE -> employeeRepository.findSalariesByJobTitle(key);
+        };
+        if (salaries.isEmpty()) {
+            throw new ResourceNotFoundException("No salaries for " + dimension + " " + key);
+        }
+        Map<String, BigDecimal> percentiles = new LinkedHashMap<>();
+        for (double percentile : SalaryStatistics.PERCENTILES) {
+            percentiles.put(SalaryStatistics.label(percentile), salaries.get((int) (percentile * (salaries.size() - 1))));
+        }
+        Histogram histogram = new Histogram(salaries.get(0).doubleValue(),
+                salaries.get(salaries.size() - 1).doubleValue(), salaryStatistics.histogramBins());
+        salaries.forEach(salary -> histogram.add(salary.doubleValue(), 1));
+        return new SalaryStatisticsResult(key, salaries.size(), true, 0, percentiles, histogram.bins());
+    }
+}
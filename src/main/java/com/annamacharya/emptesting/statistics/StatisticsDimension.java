@@ -0,0 +1,20 @@
+package com.annamacharya.emptesting.statistics;
+
+import com.annamacharya.emptesting.model.Employee;
+
+import java.util.function.Function;
+
+public enum StatisticsDimension {
+    DEPARTMENT(Employee::getDepartment),
+    JOB_TITLE(Employee::getJobTitle);
+
+    private final Function<Employee, String> extractor;
+
+    StatisticsDimension(Function<Employee, String> extractor) {
+        this.extractor = extractor;
+    }
+
+    public String valueOf(Employee employee) {
+        return extractor.apply(employee);
+    }
+}
@@ -0,0 +1,131 @@
+package com.annamacharya.emptesting.stream;
+
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Fans committed employee writes out to SSE subscribers. A write serializes its event once, stores it in the
+ * ring and signals the subscribers; it never waits for one of them. Event ids are {@code <epoch>-<sequence>}
+ * with a per-process epoch, so a reconnect with Last-Event-ID resumes from the ring while the missed events
+ * are still buffered here, and is told to resync from the change feed otherwise. A subscriber whose client does
+ * not take an event within the send timeout is closed.
+ */
+@Component
+public class EmployeeEventStream {
+
+    private final EventRing ring;
+
+    private final ObjectMapper objectMapper;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final Duration timeout;
+
+    private final Duration sendTimeout;
+
+    private final ExecutorService dispatcher;
+
+    private final Set<EventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    public EmployeeEventStream(ObjectMapper objectMapper,
+                               @Value("${employees.events.buffer-capacity:4096}") int bufferCapacity,
+                               @Value("${employees.events.overflow-policy:skip}") OverflowPolicy overflowPolicy,
+                               @Value("${employees.events.timeout:30m}") Duration timeout,
+                               @Value("${employees.events.dispatch-threads:4}") int dispatchThreads,
+                               @Value("${employees.events.send-timeout:10s}") Duration sendTimeout) {
+        this.ring = new EventRing(bufferCapacity);
+        this.objectMapper = objectMapper;
+        this.overflowPolicy = overflowPolicy;
+        this.timeout = timeout;
+        this.sendTimeout = sendTimeout;
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("employee-events-");
+        threadFactory.setDaemon(true);
+        this.dispatcher = Executors.newFixedThreadPool(dispatchThreads, threadFactory);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + event.type() + " of employee " + event.employeeId(), e);
+        }
+        ring.publish(event.type().name().toLowerCase(Locale.ROOT), data);
+        subscribers.forEach(EventSubscriber::signal);
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        long lastSequence = ring.lastSequence();
+        long cursor = lastSequence + 1;
+        boolean reset = false;
+        if (lastEventId != null) {
+            long resumeAfter = resumeAfter(lastEventId);
+            if (resumeAfter >= 0 && resumeAfter <= lastSequence && resumeAfter + 1 >= ring.firstAvailable()) {
+                cursor = resumeAfter + 1;
+            } else {
+                reset = true;
+            }
+        }
+        EventSubscriber[] subscriber = new EventSubscriber[1];
+        subscriber[0] = new EventSubscriber(emitter, ring, dispatcher, overflowPolicy, epoch, cursor, reset,
+                () -> subscribers.remove(subscriber[0]));
+        subscribers.add(subscriber[0]);
+        subscriber[0].signal();
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    // keeps idle connections open through proxies and notices clients that went away
+    @Scheduled(fixedDelayString = "${employees.events.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        subscribers.forEach(EventSubscriber::heartbeat);
+    }
+
+    // sends block on a client that stopped reading; this bounds how long one holds a dispatcher thread
+    @Scheduled(fixedDelayString = "${employees.events.stall-check-interval-ms:1000}")
+    public void closeStalled() {
+        long timeoutNanos = sendTimeout.toNanos();
+        subscribers.forEach(subscriber -> subscriber.closeIfStalled(timeoutNanos));
+    }
+
+    @PreDestroy
+    public void close() {
+        subscribers.forEach(EventSubscriber::close);
+        dispatcher.shutdownNow();
+    }
+
+    // the sequence after which to resume, or -1 for an id from another process or not issued by this stream
+    private long resumeAfter(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
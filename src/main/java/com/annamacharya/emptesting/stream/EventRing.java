@@ -0,0 +1,55 @@
+package com.annamacharya.emptesting.stream;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent events. A writer claims a sequence with one atomic increment and stores
+ * its entry without waiting for anybody; readers keep their own position, and one that falls more than the
+ * capacity behind finds the slot it wants overwritten.
+ */
+final class EventRing {
+
+    record Entry(long sequence, String name, String data) {
+    }
+
+    private final AtomicReferenceArray<Entry> slots;
+
+    private final int mask;
+
+    private final AtomicLong lastSequence = new AtomicLong();
+
+    EventRing(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Event buffer capacity must be a power of two, was " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+    }
+
+    long publish(String name, String data) {
+        long sequence = lastSequence.incrementAndGet();
+        slots.set(index(sequence), new Entry(sequence, name, data));
+        return sequence;
+    }
+
+    // sequences start at 1; 0 means nothing was published yet
+    long lastSequence() {
+        return lastSequence.get();
+    }
+
+    // the oldest sequence that has not been overwritten
+    long firstAvailable() {
+        return Math.max(1, lastSequence.get() - slots.length() + 1);
+    }
+
+    // null while the writer of that sequence has not stored it yet, and once it has been overwritten
+    Entry get(long sequence) {
+        Entry entry = slots.get(index(sequence));
+        return entry != null && entry.sequence() == sequence ? entry : null;
+    }
+
+    private int index(long sequence) {
+        return (int) (sequence & mask);
+    }
+}
@@ -0,0 +1,167 @@
+package com.annamacharya.emptesting.stream;
+
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * One SSE connection reading the ring at its own pace. Writers only signal it; the sends happen in a drain
+ * task on the dispatcher, at most one at a time per subscriber, and a drain task hands its thread back after a
+ * batch of events. A send still blocked on the client after the send timeout gets the subscriber closed (see
+ * {@link #closeIfStalled(long)}), so a client that stopped reading holds a dispatcher thread only that long.
+ */
+final class EventSubscriber {
+
+    private static final int EVENTS_PER_DRAIN = 256;
+
+    private static final long IDLE = Long.MIN_VALUE;
+
+    private final SseEmitter emitter;
+
+    private final EventRing ring;
+
+    private final Executor dispatcher;
+
+    private final OverflowPolicy overflowPolicy;
+
+    private final String epoch;
+
+    private final Runnable onClose;
+
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    private volatile boolean heartbeatDue = true;
+
+    private volatile boolean resetDue;
+
+    // System.nanoTime() when the send in progress started, IDLE between sends
+    private volatile long sendStarted = IDLE;
+
+    // next sequence to send; only the drain task touches it
+    private long cursor;
+
+    EventSubscriber(SseEmitter emitter, EventRing ring, Executor dispatcher, OverflowPolicy overflowPolicy,
+                    String epoch, long cursor, boolean resetDue, Runnable onClose) {
+        this.emitter = emitter;
+        this.ring = ring;
+        this.dispatcher = dispatcher;
+        this.overflowPolicy = overflowPolicy;
+        this.epoch = epoch;
+        this.cursor = cursor;
+        this.resetDue = resetDue;
+        this.onClose = onClose;
+        emitter.onCompletion(this::detach);
+        emitter.onTimeout(this::detach);
+        emitter.onError(error -> detach());
+    }
+
+    void signal() {
+        if (!closed.get() && scheduled.compareAndSet(false, true)) {
+            try {
+                dispatcher.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close();
+            }
+        }
+    }
+
+    void heartbeat() {
+        heartbeatDue = true;
+        signal();
+    }
+
+    void close() {
+        if (detach()) {
+            emitter.complete();
+        }
+    }
+
+    // closes the subscriber with an error when a send has been blocked for longer than timeoutNanos; the
+    // container then drops the connection, which fails the blocked write and frees its dispatcher thread
+    boolean closeIfStalled(long timeoutNanos) {
+        long started = sendStarted;
+        if (started != IDLE && System.nanoTime() - started > timeoutNanos && detach()) {
+            emitter.completeWithError(new IOException("SSE client did not take an event within the send timeout"));
+            return true;
+        }
+        return false;
+    }
+
+    // the emitter is done already (completed, timed out or failed): only stop using it
+    private boolean detach() {
+        if (closed.compareAndSet(false, true)) {
+            onClose.run();
+            return true;
+        }
+        return false;
+    }
+
+    private void drain() {
+        try {
+            sendPending();
+        } catch (IOException | IllegalStateException e) {
+            // the client went away
+            close();
+        } finally {
+            scheduled.set(false);
+        }
+        // an event stored after the loop gave up on its slot signalled while this task was still scheduled
+        if (!closed.get() && (heartbeatDue || ring.get(cursor) != null || cursor < ring.firstAvailable())) {
+            signal();
+        }
+    }
+
+    private void sendPending() throws IOException {
+        if (resetDue) {
+            resetDue = false;
+            send(SseEmitter.event().id(eventId(cursor - 1)).name("reset")
+                    .data(Map.of("resync", "/api/employees/changes")));
+        }
+        if (heartbeatDue) {
+            heartbeatDue = false;
+            send(SseEmitter.event().comment("heartbeat"));
+        }
+        // the rest of a long backlog is sent by the next drain task, after the other subscribers' turns
+        for (int sent = 0; sent < EVENTS_PER_DRAIN && !closed.get() && cursor <= ring.lastSequence(); sent++) {
+            EventRing.Entry entry = ring.get(cursor);
+            if (entry == null) {
+                long firstAvailable = ring.firstAvailable();
+                if (cursor >= firstAvailable) {
+                    // claimed but not stored yet; its writer signals once it is
+                    return;
+                }
+                long missed = firstAvailable - cursor;
+                if (overflowPolicy == OverflowPolicy.DISCONNECT) {
+                    send(SseEmitter.event().name("overflow").data(Map.of("missed", missed)));
+                    close();
+                    return;
+                }
+                send(SseEmitter.event().id(eventId(firstAvailable - 1)).name("lagged")
+                        .data(Map.of("missed", missed)));
+                cursor = firstAvailable;
+                continue;
+            }
+            send(SseEmitter.event().id(eventId(entry.sequence())).name(entry.name()).data(entry.data()));
+            cursor++;
+        }
+    }
+
+    private void send(SseEmitter.SseEventBuilder event) throws IOException {
+        sendStarted = System.nanoTime();
+        try {
+            emitter.send(event);
+        } finally {
+            sendStarted = IDLE;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + "-" + sequence;
+    }
+}
@@ -0,0 +1,9 @@
+package com.annamacharya.emptesting.stream;
+
+// what happens to a subscriber that fell further behind than the event buffer holds
+public enum OverflowPolicy {
+    // send a lagged event with the number of missed events and continue from the oldest buffered one
+    SKIP,
+    // send an overflow event and close the stream; the client reconnects and is told to resync
+    DISCONNECT
+}
@@ -0,0 +1,18 @@
+package com.annamacharya.emptesting.view;
+
+import com.annamacharya.emptesting.model.Employee;
+
+/**
+ * An in-memory structure derived from the employees table, kept current by {@link EmployeeViewMaintainer}.
+ * Implementations are registered as beans and must be safe for concurrent reads while they are updated.
+ */
+public interface EmployeeView {
+
+    // forget everything, a full rebuild follows
+    void clear();
+
+    // add the employee, or replace what the view knows about it
+    void upsert(Employee employee);
+
+    void remove(long employeeId);
+}
@@ -0,0 +1,80 @@
+package com.annamacharya.emptesting.view;
+
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.service.EmployeeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Feeds every {@link EmployeeView}: one pass over the table on startup rebuilds all of them together,
+ * after that each committed service write is applied incrementally. Writes on other nodes arrive as ids
+ * through {@code ClusterCacheInvalidator} and are applied by {@link #refresh(Collection)}.
+ */
+@Component
+public class EmployeeViewMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeeViewMaintainer.class);
+
+    private final List<EmployeeView> views;
+
+    private final EmployeeService employeeService;
+
+    private final boolean rebuildOnStartup;
+
+    public EmployeeViewMaintainer(List<EmployeeView> views, EmployeeService employeeService,
+                                  @Value("${employees.views.rebuild-on-startup:true}") boolean rebuildOnStartup) {
+        this.views = views;
+        this.employeeService = employeeService;
+        this.rebuildOnStartup = rebuildOnStartup;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    public void rebuild() {
+        long started = System.nanoTime();
+        views.forEach(EmployeeView::clear);
+        long[] rows = new long[1];
+        employeeService.streamEmployees(employee -> {
+            views.forEach(view -> view.upsert(employee));
+            rows[0]++;
+        });
+        log.info("Rebuilt {} employee views from {} rows in {} ms", views.size(), rows[0],
+                (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // the employees are read back from the primary and applied like a local write; the ids no longer there were
+    // deleted
+    public void refresh(Collection<Long> employeeIds) {
+        Set<Long> removed = new HashSet<>(employeeIds);
+        for (Employee employee : employeeService.getEmployeesFromPrimary(employeeIds)) {
+            views.forEach(view -> view.upsert(employee));
+            removed.remove(employee.getId());
+        }
+        removed.forEach(employeeId -> views.forEach(view -> view.remove(employeeId)));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.employee() != null) {
+            views.forEach(view -> view.upsert(event.employee()));
+        } else {
+            views.forEach(view -> view.remove(event.employeeId()));
+        }
+    }
+}
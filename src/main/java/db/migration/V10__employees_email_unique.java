@@ -0,0 +1,82 @@
+package db.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Brings an employees table created by {@code ddl-auto=update} (baselined at 0, so V1 left it as it was) in line
+ * with V1: it gets the {@code uk_employees_email} unique constraint, and its id loses the AUTO_INCREMENT that
+ * Hibernate's IDENTITY ids needed. Does nothing on a table V1 created. Java rather than SQL because both steps
+ * depend on what the table already has, which plain DDL cannot test for.
+ */
+public class V10__employees_email_unique extends BaseJavaMigration {
+
+    private static final int REPORTED_DUPLICATES = 10;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        DatabaseMetaData metaData = connection.getMetaData();
+        String table = metaData.storesUpperCaseIdentifiers() ? "EMPLOYEES" : "employees";
+        try (Statement statement = connection.createStatement()) {
+            if (!hasUniqueEmailIndex(connection, metaData, table)) {
+                // grouped by the column's collation, the one the constraint will compare with
+                List<String> duplicates = new ArrayList<>();
+                try (ResultSet resultSet = statement.executeQuery(
+                        "SELECT email FROM employees GROUP BY email HAVING COUNT(*) > 1 ORDER BY email")) {
+                    while (resultSet.next() && duplicates.size() < REPORTED_DUPLICATES) {
+                        duplicates.add(resultSet.getString(1));
+                    }
+                }
+                if (!duplicates.isEmpty()) {
+                    throw new FlywayException("uk_employees_email cannot be created, employees has more than one row"
+                            + " for the emails " + duplicates + (duplicates.size() == REPORTED_DUPLICATES ? " and maybe more" : "")
+                            + ". Give those employees distinct emails (or remove the duplicates) and start again");
+                }
+                statement.execute("ALTER TABLE employees ADD CONSTRAINT uk_employees_email UNIQUE (email)");
+            }
+            if (isAutoIncrement(connection, metaData, table)) {
+                String product = metaData.getDatabaseProductName().toLowerCase(Locale.ROOT);
+                statement.execute(product.contains("mysql") || product.contains("mariadb")
+                        ? "ALTER TABLE employees MODIFY id BIGINT NOT NULL"
+                        : "ALTER TABLE employees ALTER COLUMN id DROP IDENTITY");
+            }
+        }
+    }
+
+    // any unique index on email alone, whatever it is called
+    private static boolean hasUniqueEmailIndex(Connection connection, DatabaseMetaData metaData, String table)
+            throws SQLException {
+        Map<String, List<String>> columnsByIndex = new HashMap<>();
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), table, true, false)) {
+            while (indexes.next()) {
+                String column = indexes.getString("COLUMN_NAME");
+                if (column != null) {
+                    columnsByIndex.computeIfAbsent(indexes.getString("INDEX_NAME"), name -> new ArrayList<>())
+                            .add(column.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return columnsByIndex.values().stream().anyMatch(columns -> columns.equals(List.of("email")));
+    }
+
+    private static boolean isAutoIncrement(Connection connection, DatabaseMetaData metaData, String table)
+            throws SQLException {
+        String column = metaData.storesUpperCaseIdentifiers() ? "ID" : "id";
+        try (ResultSet columns = metaData.getColumns(connection.getCatalog(), connection.getSchema(), table, column)) {
+            return columns.next() && "YES".equals(columns.getString("IS_AUTOINCREMENT"));
+        }
+    }
+}
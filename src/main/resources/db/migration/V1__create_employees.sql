@@ -0,0 +1,38 @@
+-- Schema as previously generated by spring.jpa.hibernate.ddl-auto=update.
+-- Databases created that way are baselined at version 0 and run this script too. It only adds what is missing, and
+-- for them that is employees_seq: their employees table is left as it is, without uk_employees_email and with an
+-- AUTO_INCREMENT id, until V10 fixes both.
+CREATE TABLE IF NOT EXISTS employees (
+    id                      BIGINT         NOT NULL,
+    first_name              VARCHAR(255)   NOT NULL,
+    last_name               VARCHAR(255)   NOT NULL,
+    email                   VARCHAR(255)   NOT NULL,
+    phone_number            VARCHAR(255)   NOT NULL,
+    gender                  VARCHAR(255)   NOT NULL,
+    date_of_birth           DATE           NOT NULL,
+    hire_date               DATE           NOT NULL,
+    job_title               VARCHAR(255)   NOT NULL,
+    department              VARCHAR(255)   NOT NULL,
+    salary                  DECIMAL(38, 2) NOT NULL,
+    address                 VARCHAR(255)   NOT NULL,
+    city                    VARCHAR(255)   NOT NULL,
+    state                   VARCHAR(255)   NOT NULL,
+    postal_code             VARCHAR(255)   NOT NULL,
+    country                 VARCHAR(255)   NOT NULL,
+    marital_status          VARCHAR(255)   NOT NULL,
+    emergency_contact_name  VARCHAR(255)   NOT NULL,
+    emergency_contact_phone VARCHAR(255)   NOT NULL,
+    hire_source             VARCHAR(255)   NOT NULL,
+    employment_status       VARCHAR(255)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_employees_email UNIQUE (email)
+);
+
+-- pooled id allocation for Employee (allocationSize 50); MySQL has no sequences so Hibernate uses a table
+CREATE TABLE IF NOT EXISTS employees_seq (
+    next_val BIGINT
+);
+
+INSERT INTO employees_seq (next_val)
+SELECT COALESCE(MAX(id), 0) + 1 FROM employees
+WHERE NOT EXISTS (SELECT 1 FROM employees_seq);
@@ -0,0 +1,6 @@
+-- indexes for the EmployeeRepository finders; email is covered by uk_employees_email (from V1, or V10 for
+-- databases from before Flyway)
+CREATE INDEX idx_employees_last_first_name ON employees (last_name, first_name);
+CREATE INDEX idx_employees_department ON employees (department);
+CREATE INDEX idx_employees_hire_date ON employees (hire_date);
+CREATE INDEX idx_employees_employment_status ON employees (employment_status);
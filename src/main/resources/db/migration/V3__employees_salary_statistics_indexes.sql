@@ -0,0 +1,5 @@
+-- exact salary statistics read one group's salaries in order; (group, salary) serves that from the index alone
+-- and its department prefix takes over from idx_employees_department
+CREATE INDEX idx_employees_department_salary ON employees (department, salary);
+CREATE INDEX idx_employees_job_title_salary ON employees (job_title, salary);
+ALTER TABLE employees DROP INDEX idx_employees_department;
@@ -0,0 +1,3 @@
+-- optimistic locking version and last modification time (UTC), served as ETag and Last-Modified
+ALTER TABLE employees ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE employees ADD COLUMN last_modified DATETIME(6) NOT NULL DEFAULT CURRENT_TIMESTAMP(6);
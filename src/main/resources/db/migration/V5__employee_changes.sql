@@ -0,0 +1,11 @@
+-- change log behind GET /api/employees/changes: one row per employee write, in the writing transaction
+CREATE TABLE employee_changes (
+    id          BIGINT       NOT NULL AUTO_INCREMENT,
+    employee_id BIGINT       NOT NULL,
+    change_type VARCHAR(255) NOT NULL,
+    changed_at  DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- retention purge deletes by age
+CREATE INDEX idx_employee_changes_changed_at ON employee_changes (changed_at);
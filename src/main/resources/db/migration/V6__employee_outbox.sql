@@ -0,0 +1,14 @@
+-- transactional outbox: written with every employee write, drained by OutboxRelay and deleted once delivered
+CREATE TABLE employee_outbox (
+    id            BIGINT        NOT NULL AUTO_INCREMENT,
+    employee_id   BIGINT        NOT NULL,
+    event_type    VARCHAR(255)  NOT NULL,
+    payload       VARCHAR(8000) NOT NULL,
+    created_at    DATETIME(6)   NOT NULL,
+    claimed_by    VARCHAR(64),
+    claimed_until DATETIME(6),
+    PRIMARY KEY (id)
+);
+
+-- a relay worker reads back and deletes the batch it claimed
+CREATE INDEX idx_employee_outbox_claimed_by ON employee_outbox (claimed_by);
@@ -0,0 +1,30 @@
+-- employees moved out of employees by archive jobs, with the time they were archived; never updated afterwards.
+-- The primary key includes hire_date so that MySQL can partition the table by hire year (db/vendor/mysql), and
+-- email is not unique here: a former employee's address may belong to someone hired since
+CREATE TABLE employees_archive (
+    id                      BIGINT         NOT NULL,
+    first_name              VARCHAR(255)   NOT NULL,
+    last_name               VARCHAR(255)   NOT NULL,
+    email                   VARCHAR(255)   NOT NULL,
+    phone_number            VARCHAR(255)   NOT NULL,
+    gender                  VARCHAR(255)   NOT NULL,
+    date_of_birth           DATE           NOT NULL,
+    hire_date               DATE           NOT NULL,
+    job_title               VARCHAR(255)   NOT NULL,
+    department              VARCHAR(255)   NOT NULL,
+    salary                  DECIMAL(38, 2) NOT NULL,
+    address                 VARCHAR(255)   NOT NULL,
+    city                    VARCHAR(255)   NOT NULL,
+    state                   VARCHAR(255)   NOT NULL,
+    postal_code             VARCHAR(255)   NOT NULL,
+    country                 VARCHAR(255)   NOT NULL,
+    marital_status          VARCHAR(255)   NOT NULL,
+    emergency_contact_name  VARCHAR(255)   NOT NULL,
+    emergency_contact_phone VARCHAR(255)   NOT NULL,
+    hire_source             VARCHAR(255)   NOT NULL,
+    employment_status       VARCHAR(255)   NOT NULL,
+    version                 BIGINT         NOT NULL,
+    last_modified           DATETIME(6)    NOT NULL,
+    archived_at             DATETIME(6)    NOT NULL,
+    PRIMARY KEY (id, hire_date)
+);
@@ -0,0 +1,3 @@
+-- a relay worker claims the unclaimed and expired messages in id order, and first looks up the oldest message of
+-- its partition still under an unexpired claim, which it must not claim past
+CREATE INDEX idx_employee_outbox_claimed_until ON employee_outbox (claimed_until, id);
@@ -0,0 +1,76 @@
+package com.annamacharya.emptesting.aggregation;
+
+import com.annamacharya.emptesting.dto.RollupResult;
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.annamacharya.emptesting.enums.Gender;
+import com.annamacharya.emptesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeRollupsTests {
+
+    private EmployeeRollups employeeRollups;
+
+    @BeforeEach
+    public void setup(){
+        employeeRollups = new EmployeeRollups();
+        employeeRollups.upsert(employee(1L, "Engineering", "Bangalore", Gender.MALE, EmploymentStatus.FULL_TIME, "100000.00"));
+        employeeRollups.upsert(employee(2L, "Engineering", "Chennai", Gender.FEMALE, EmploymentStatus.CONTRACTOR, "80000.00"));
+        employeeRollups.upsert(employee(3L, "Finance", "Chennai", Gender.FEMALE, EmploymentStatus.FULL_TIME, "90000.00"));
+    }
+
+    // JUnit test for rollups grouped by department
+    @DisplayName("JUnit test for rollups grouped by department")
+    @Test
+    public void givenEmployees_whenRollupByDepartment_thenReturnTotalsAndBreakdowns(){
+        // when -  action or the behaviour that we are going test
+        List<RollupResult> rollups = employeeRollups.rollups(AggregationDimension.DEPARTMENT);
+
+        // then - verify the output
+        assertThat(rollups).extracting(RollupResult::key).containsExactly("Engineering", "Finance");
+        RollupResult engineering = rollups.get(0);
+        assertThat(engineering.headcount()).isEqualTo(2);
+        assertThat(engineering.totalSalary()).isEqualByComparingTo("180000");
+        assertThat(engineering.averageSalary()).isEqualByComparingTo("90000");
+        assertThat(engineering.genders()).containsEntry(Gender.MALE, 1L).containsEntry(Gender.FEMALE, 1L);
+        assertThat(engineering.employmentStatuses()).containsEntry(EmploymentStatus.CONTRACTOR, 1L);
+    }
+
+    // JUnit test for applying updates and deletes as deltas
+    @DisplayName("JUnit test for applying updates and deletes as deltas")
+    @Test
+    public void givenUpdateAndDelete_whenRollupByCity_thenReflectLatestState(){
+        // when -  action or the behaviour that we are going test
+        employeeRollups.upsert(employee(2L, "Engineering", "Bangalore", Gender.FEMALE, EmploymentStatus.FULL_TIME, "85000.00"));
+        employeeRollups.remove(3L);
+
+        // then - verify the output
+        assertThat(employeeRollups.rollup(AggregationDimension.CITY, "Chennai")).isEmpty();
+        RollupResult bangalore = employeeRollups.rollup(AggregationDimension.CITY, "Bangalore").orElseThrow();
+        assertThat(bangalore.headcount()).isEqualTo(2);
+        assertThat(bangalore.totalSalary()).isEqualByComparingTo("185000");
+        assertThat(bangalore.employmentStatuses()).containsOnlyKeys(EmploymentStatus.FULL_TIME);
+        assertThat(employeeRollups.rollups(AggregationDimension.COUNTRY)).singleElement()
+                .extracting(RollupResult::headcount).isEqualTo(2L);
+    }
+
+    private static Employee employee(long id, String department, String city, Gender gender,
+                                     EmploymentStatus employmentStatus, String salary){
+        return Employee.builder()
+                .id(id)
+                .department(department)
+                .city(city)
+                .state("Karnataka")
+                .country("India")
+                .gender(gender)
+                .employmentStatus(employmentStatus)
+                .salary(new BigDecimal(salary))
+                .build();
+    }
+}
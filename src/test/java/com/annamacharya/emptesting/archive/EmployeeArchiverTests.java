@@ -0,0 +1,82 @@
+package com.annamacharya.emptesting.archive;
+
+import com.annamacharya.emptesting.bulk.EmployeeBulkOperations;
+import com.annamacharya.emptesting.dto.BulkJobStatus;
+import com.annamacharya.emptesting.dto.BulkJobStatus.Operation;
+import com.annamacharya.emptesting.dto.BulkJobStatus.State;
+import com.annamacharya.emptesting.dto.EmployeeFilter;
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeArchiverTests {
+
+    @Mock
+    private EmployeeBulkOperations bulkOperations;
+
+    // JUnit test for the archive policy
+    @DisplayName("JUnit test for the archive policy")
+    @Test
+    public void givenTerminatedAndHiredYearsAgo_whenPolicy_thenFilterForEach(){
+        // given - precondition or setup
+        EmployeeArchiver archiver = new EmployeeArchiver(bulkOperations, true, true, 20);
+
+        // when -  action or the behaviour that we are going test
+        List<EmployeeFilter> policy = archiver.policy();
+
+        // then - verify the output
+        assertThat(policy).containsExactly(
+                new EmployeeFilter(null, null, null, EmploymentStatus.TERMINATED, null),
+                new EmployeeFilter(null, null, null, null, LocalDate.now().minusYears(20)));
+    }
+
+    // JUnit test for skipping a run while the previous one is still going
+    @DisplayName("JUnit test for skipping a run while the previous one is still going")
+    @Test
+    public void givenRunningJob_whenArchive_thenSubmitNothingUntilItIsDone(){
+        // given - precondition or setup
+        EmployeeArchiver archiver = new EmployeeArchiver(bulkOperations, true, true, 0);
+        given(bulkOperations.submitArchive(any(EmployeeFilter.class))).willReturn(job(State.QUEUED));
+        given(bulkOperations.status("job-1")).willReturn(Optional.of(job(State.RUNNING)), Optional.of(job(State.COMPLETED)));
+
+        // when -  action or the behaviour that we are going test
+        archiver.archive();
+        archiver.archive();
+        archiver.archive();
+
+        // then - verify the output
+        verify(bulkOperations, times(2)).submitArchive(new EmployeeFilter(null, null, null, EmploymentStatus.TERMINATED, null));
+    }
+
+    // negative scenario - archiving turned off
+    @DisplayName("JUnit test for a disabled archiver")
+    @Test
+    public void givenDisabled_whenArchive_thenSubmitNothing(){
+        // given - precondition or setup
+        EmployeeArchiver archiver = new EmployeeArchiver(bulkOperations, false, true, 20);
+
+        // when -  action or the behaviour that we are going test
+        archiver.archive();
+
+        // then - verify the output
+        verifyNoInteractions(bulkOperations);
+    }
+
+    private static BulkJobStatus job(State state) {
+        return new BulkJobStatus("job-1", Operation.ARCHIVE, state, 0, 0, 0, Instant.now(), null, null);
+    }
+}
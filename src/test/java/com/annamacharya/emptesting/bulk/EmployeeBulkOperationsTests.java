@@ -0,0 +1,170 @@
+package com.annamacharya.emptesting.bulk;
+
+import com.annamacharya.emptesting.cache.EmployeeCache;
+import com.annamacharya.emptesting.dto.BulkJobStatus;
+import com.annamacharya.emptesting.dto.BulkJobStatus.Operation;
+import com.annamacharya.emptesting.dto.BulkJobStatus.State;
+import com.annamacharya.emptesting.dto.EmployeeFilter;
+import com.annamacharya.emptesting.enums.ChangeType;
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardKey;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeBulkOperationsTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    @Mock
+    private EmployeeCache employeeCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private EmployeeBulkOperations bulkOperations;
+
+    private final EmployeeFilter sales = new EmployeeFilter(null, "Sales", null, null, null);
+
+    @BeforeEach
+    public void setup(){
+        bulkOperations = new EmployeeBulkOperations(employeeRepository,
+                new EmployeeShards(1, ShardKey.ID_RANGE, Map.of()), employeeCache, eventPublisher,
+                TransactionOperations.withoutTransaction(), Validation.buildDefaultValidatorFactory().getValidator(),
+                2, 1, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    public void tearDown(){
+        bulkOperations.stop();
+    }
+
+    // JUnit test for a bulk update applied chunk by chunk
+    @DisplayName("JUnit test for a bulk update applied chunk by chunk")
+    @Test
+    public void givenMatchingEmployees_whenRunUpdate_thenUpdateEachChunkAndPublishEvents(){
+        // given - precondition or setup
+        BigDecimal raise = new BigDecimal("1.05");
+        given(employeeRepository.countMatching(sales)).willReturn(3L);
+        given(employeeRepository.lockIdsAfter(sales, 0, 2)).willReturn(List.of(1L, 2L));
+        given(employeeRepository.lockIdsAfter(sales, 2, 2)).willReturn(List.of(3L));
+        given(employeeRepository.updateAll(eq(List.of(1L, 2L)), anyMap(), eq(raise), any(Instant.class))).willReturn(2);
+        given(employeeRepository.updateAll(eq(List.of(3L)), anyMap(), eq(raise), any(Instant.class))).willReturn(1);
+        given(employeeRepository.findAllById(List.of(1L, 2L))).willReturn(List.of(employee(1), employee(2)));
+        given(employeeRepository.findAllById(List.of(3L))).willReturn(List.of(employee(3)));
+        BulkJob job = new BulkJob(Operation.UPDATE, sales, Map.of(), raise);
+
+        // when -  action or the behaviour that we are going test
+        bulkOperations.run(job);
+
+        // then - verify the output
+        BulkJobStatus status = job.status();
+        assertThat(status.state()).isEqualTo(State.COMPLETED);
+        assertThat(status.total()).isEqualTo(3);
+        assertThat(status.processed()).isEqualTo(3);
+        assertThat(status.affected()).isEqualTo(3);
+        verify(employeeCache).invalidateAll(List.of(1L, 2L));
+        verify(employeeCache).invalidateAll(List.of(3L));
+        ArgumentCaptor<EmployeeChangedEvent> events = ArgumentCaptor.forClass(EmployeeChangedEvent.class);
+        verify(eventPublisher, times(3)).publishEvent(events.capture());
+        assertThat(events.getAllValues()).extracting(EmployeeChangedEvent::type).containsOnly(ChangeType.UPDATED);
+    }
+
+    // JUnit test for a bulk delete that fails part way
+    @DisplayName("JUnit test for a bulk delete that fails part way")
+    @Test
+    public void givenFailingChunk_whenRunDelete_thenKeepProgressAndFail(){
+        // given - precondition or setup
+        given(employeeRepository.countMatching(sales)).willReturn(4L);
+        given(employeeRepository.lockIdsAfter(sales, 0, 2)).willReturn(List.of(1L, 2L));
+        given(employeeRepository.lockIdsAfter(sales, 2, 2)).willThrow(new QueryTimeoutException("lock wait timeout"));
+        BulkJob job = new BulkJob(Operation.DELETE, sales, Map.of(), null);
+
+        // when -  action or the behaviour that we are going test
+        bulkOperations.run(job);
+
+        // then - verify the output
+        BulkJobStatus status = job.status();
+        assertThat(status.state()).isEqualTo(State.FAILED);
+        assertThat(status.processed()).isEqualTo(2);
+        assertThat(status.affected()).isEqualTo(2);
+        assertThat(status.error()).contains("lock wait timeout");
+        verify(employeeRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(1));
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(2));
+    }
+
+    // JUnit test for a bulk archive applied chunk by chunk
+    @DisplayName("JUnit test for a bulk archive applied chunk by chunk")
+    @Test
+    public void givenMatchingEmployees_whenRunArchive_thenArchiveAndDeleteEachChunk(){
+        // given - precondition or setup
+        given(employeeRepository.countMatching(sales)).willReturn(3L);
+        given(employeeRepository.lockIdsAfter(sales, 0, 2)).willReturn(List.of(1L, 2L));
+        given(employeeRepository.lockIdsAfter(sales, 2, 2)).willReturn(List.of(3L));
+        given(employeeRepository.archiveAll(eq(List.of(1L, 2L)), any(Instant.class))).willReturn(2);
+        given(employeeRepository.archiveAll(eq(List.of(3L)), any(Instant.class))).willReturn(1);
+        BulkJob job = new BulkJob(Operation.ARCHIVE, sales, Map.of(), null);
+
+        // when -  action or the behaviour that we are going test
+        bulkOperations.run(job);
+
+        // then - verify the output
+        BulkJobStatus status = job.status();
+        assertThat(status.state()).isEqualTo(State.COMPLETED);
+        assertThat(status.processed()).isEqualTo(3);
+        assertThat(status.affected()).isEqualTo(3);
+        InOrder order = inOrder(employeeRepository);
+        order.verify(employeeRepository).archiveAll(eq(List.of(1L, 2L)), any(Instant.class));
+        order.verify(employeeRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        order.verify(employeeRepository).archiveAll(eq(List.of(3L)), any(Instant.class));
+        order.verify(employeeRepository).deleteAllByIdInBatch(List.of(3L));
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(3));
+    }
+
+    // negative scenario - a value the employee constraints reject
+    @DisplayName("JUnit test for rejecting an invalid bulk update value")
+    @Test
+    public void givenBlankDepartment_whenSubmitUpdate_thenThrowsConstraintViolation(){
+        // when -  action or the behaviour that we are going test
+        assertThatThrownBy(() -> bulkOperations.submitUpdate(sales, Map.of("department", " "), null))
+                .isInstanceOf(ConstraintViolationException.class);
+
+        // then - verify the output
+        verifyNoInteractions(employeeRepository);
+    }
+
+    private static Employee employee(long id) {
+        return Employee.builder().id(id).department("Sales").build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.annamacharya.emptesting.cache;
+
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.view.EmployeeViewMaintainer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class ClusterCacheInvalidatorTests {
+
+    private LoopbackInvalidationChannel channel;
+
+    private EmployeeCache cacheA;
+
+    private EmployeeCache cacheB;
+
+    private EmployeeViewMaintainer viewsA;
+
+    private EmployeeViewMaintainer viewsB;
+
+    private ClusterCacheInvalidator nodeA;
+
+    private List<InvalidationMessage> messages;
+
+    @BeforeEach
+    public void setup(){
+        channel = new LoopbackInvalidationChannel();
+        messages = new ArrayList<>();
+        channel.subscribe(messages::add);
+        cacheA = new EmployeeCache(100, Duration.ofMinutes(1));
+        cacheB = new EmployeeCache(100, Duration.ofMinutes(1));
+        viewsA = mock(EmployeeViewMaintainer.class);
+        viewsB = mock(EmployeeViewMaintainer.class);
+        nodeA = new ClusterCacheInvalidator(cacheA, viewsA, channel, "node-a", 100);
+        new ClusterCacheInvalidator(cacheB, viewsB, channel, "node-b", 100);
+    }
+
+    // JUnit test for coalescing writes into one broadcast
+    @DisplayName("JUnit test for coalescing writes into one broadcast")
+    @Test
+    public void givenSeveralWrites_whenFlush_thenPublishOneMessage(){
+        // given - precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Ram").build();
+        cacheB.get(1L, id -> Optional.of(employee));
+        cacheB.get(2L, id -> Optional.of(employee.toBuilder().id(2L).build()));
+        cacheB.get(3L, id -> Optional.of(employee.toBuilder().id(3L).build()));
+
+        // when -  action or the behaviour that we are going test
+        nodeA.onEmployeeChanged(EmployeeChangedEvent.updated(employee));
+        nodeA.onEmployeeChanged(EmployeeChangedEvent.updated(employee));
+        nodeA.onEmployeeChanged(EmployeeChangedEvent.deleted(2L));
+        nodeA.flush();
+        nodeA.flush();
+
+        // then - verify the output
+        assertThat(messages).hasSize(1);
+        assertThat(messages.get(0).employeeIds()).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(cacheB.get(1L, id -> Optional.empty())).isEmpty();
+        assertThat(cacheB.get(2L, id -> Optional.empty())).isEmpty();
+        assertThat(cacheB.get(3L, id -> Optional.empty())).isPresent();
+        verify(viewsB).refresh(messages.get(0).employeeIds());
+        verifyNoInteractions(viewsA);
+    }
+
+    // JUnit test for ignoring a node's own broadcast
+    @DisplayName("JUnit test for ignoring a node's own broadcast")
+    @Test
+    public void givenOwnMessage_whenReceive_thenKeepLocalEntry(){
+        // given - precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Ram").build();
+        cacheA.put(employee);
+
+        // when -  action or the behaviour that we are going test
+        nodeA.receive(new InvalidationMessage("node-a", List.of(1L)));
+
+        // then - verify the output
+        assertThat(cacheA.get(1L, id -> Optional.empty())).isPresent();
+    }
+}
@@ -0,0 +1,80 @@
+package com.annamacharya.emptesting.cache;
+
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeCacheTests {
+
+    private EmployeeCache employeeCache;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        employeeCache = new EmployeeCache(100, Duration.ofMinutes(1));
+        employee = Employee.builder().id(1L).firstName("Durga Mahesh").email("ramesh@gmail.com").build();
+    }
+
+    // JUnit test for collapsing concurrent misses
+    @DisplayName("JUnit test for collapsing concurrent misses")
+    @Test
+    public void givenConcurrentMisses_whenGet_thenLoadOnce() throws Exception{
+        // given - precondition or setup
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when -  action or the behaviour that we are going test
+        List<CompletableFuture<Optional<Employee>>> readers = List.of(1, 2, 3, 4).stream()
+                .map(i -> CompletableFuture.supplyAsync(() -> employeeCache.get(1L, id -> {
+                    loads.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return Optional.of(employee);
+                })))
+                .toList();
+        Thread.sleep(100);
+        release.countDown();
+
+        // then - verify the output
+        for (CompletableFuture<Optional<Employee>> reader : readers) {
+            assertThat(reader.get(5, TimeUnit.SECONDS)).isPresent();
+        }
+        assertThat(loads.get()).isEqualTo(1);
+    }
+
+    // JUnit test for refreshing and invalidating entries from change events
+    @DisplayName("JUnit test for refreshing and invalidating entries from change events")
+    @Test
+    public void givenChangeEvents_whenGet_thenServeLatestState(){
+        // given - precondition or setup
+        employeeCache.get(1L, id -> Optional.of(employee));
+        Employee updatedEmployee = employee.toBuilder().firstName("Ram").build();
+
+        // when -  action or the behaviour that we are going test
+        employeeCache.onEmployeeChanged(EmployeeChangedEvent.updated(updatedEmployee));
+        Optional<Employee> afterUpdate = employeeCache.get(1L, id -> Optional.empty());
+        employeeCache.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+        Optional<Employee> afterDelete = employeeCache.get(1L, id -> Optional.empty());
+
+        // then - verify the output
+        assertThat(afterUpdate).map(Employee::getFirstName).contains("Ram");
+        assertThat(afterDelete).isEmpty();
+        assertThat(employeeCache.statistics().missCount()).isEqualTo(2);
+    }
+}
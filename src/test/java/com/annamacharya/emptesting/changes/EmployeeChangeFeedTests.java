@@ -0,0 +1,186 @@
+package com.annamacharya.emptesting.changes;
+
+import com.annamacharya.emptesting.dto.EmployeeChangesPage;
+import com.annamacharya.emptesting.enums.ChangeType;
+import com.annamacharya.emptesting.exception.SyncTokenExpiredException;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.model.EmployeeChange;
+import com.annamacharya.emptesting.repository.EmployeeChangeRepository;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardContext;
+import com.annamacharya.emptesting.sharding.ShardKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeChangeFeedTests {
+
+    @Mock
+    private EmployeeChangeRepository changeRepository;
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeChangeFeed changeFeed;
+
+    @BeforeEach
+    public void setup(){
+        changeFeed = new EmployeeChangeFeed(changeRepository, employeeRepository,
+                new EmployeeShards(1, ShardKey.ID_RANGE, Map.of()), Duration.ofSeconds(2), Duration.ofDays(7));
+    }
+
+    // JUnit test for coalescing the changes of one page per employee
+    @DisplayName("JUnit test for coalescing the changes of one page per employee")
+    @Test
+    public void givenSeveralChangesPerEmployee_whenChangesSince_thenReturnNetChanges(){
+        // given - precondition or setup
+        Employee created = Employee.builder().id(1L).firstName("Ramesh").build();
+        Employee updated = Employee.builder().id(2L).firstName("Mahesh").build();
+        given(changeRepository.findVisibleAfter(eq(10L), any(LocalDateTime.class), any())).willReturn(List.of(
+                change(11, 1, ChangeType.CREATED), change(12, 2, ChangeType.UPDATED), change(13, 3, ChangeType.UPDATED),
+                change(14, 1, ChangeType.UPDATED), change(15, 3, ChangeType.DELETED), change(16, 2, ChangeType.UPDATED)));
+        given(employeeRepository.findAllById(List.of(1L, 2L))).willReturn(List.of(created, updated));
+
+        // when -  action or the behaviour that we are going test
+        EmployeeChangesPage page = changeFeed.changesSince(new SyncToken(10, Instant.now()), 6);
+
+        // then - verify the output
+        assertThat(page.changes()).extracting(EmployeeChangesPage.Change::employeeId).containsExactly(1L, 3L, 2L);
+        assertThat(page.changes()).extracting(EmployeeChangesPage.Change::type)
+                .containsExactly(ChangeType.CREATED, ChangeType.DELETED, ChangeType.UPDATED);
+        assertThat(page.changes().get(1).employee()).isNull();
+        assertThat(page.hasMore()).isTrue();
+        assertThat(SyncToken.decode(page.nextToken()).sequence(0)).isEqualTo(16);
+    }
+
+    // JUnit test for merging the changes of several shards
+    @DisplayName("JUnit test for merging the changes of several shards")
+    @Test
+    public void givenChangesOnTwoShards_whenChangesSince_thenTakeOldestFirstAndKeepPositionPerShard(){
+        // given - precondition or setup
+        changeFeed = new EmployeeChangeFeed(changeRepository, employeeRepository,
+                new EmployeeShards(2, ShardKey.ID_RANGE, Map.of()), Duration.ofSeconds(2), Duration.ofDays(7));
+        long shardOneEmployee = EmployeeShards.id(1, 1);
+        LocalDateTime start = LocalDateTime.of(2026, 1, 1, 9, 0);
+        given(changeRepository.findVisibleAfter(anyLong(), any(LocalDateTime.class), any())).willAnswer(invocation ->
+                ShardContext.current() == 0
+                        ? List.of(change(5, 1, ChangeType.UPDATED, start.plusSeconds(1)),
+                                  change(6, 2, ChangeType.UPDATED, start.plusSeconds(3)))
+                        : List.of(change(8, shardOneEmployee, ChangeType.UPDATED, start.plusSeconds(2)),
+                                  change(9, shardOneEmployee, ChangeType.DELETED, start.plusSeconds(4))));
+        given(employeeRepository.findAllById(List.of(1L, shardOneEmployee, 2L))).willReturn(List.of(
+                Employee.builder().id(1L).build(), Employee.builder().id(2L).build(),
+                Employee.builder().id(shardOneEmployee).build()));
+
+        // when -  action or the behaviour that we are going test
+        EmployeeChangesPage page = changeFeed.changesSince(new SyncToken(4, Instant.now()), 3);
+
+        // then - verify the output
+        assertThat(page.changes()).extracting(EmployeeChangesPage.Change::employeeId)
+                .containsExactly(1L, shardOneEmployee, 2L);
+        assertThat(page.hasMore()).isTrue();
+        assertThat(SyncToken.decode(page.nextToken()).sequences()).containsExactly(6L, 8L);
+    }
+
+    // negative scenario - a consumer pausing while catching up is not served past purged changes
+    @DisplayName("JUnit test for resuming a full page after its changes were purged")
+    @Test
+    public void givenFullPageOfOldChanges_whenPurgedAndResumed_thenThrowsException(){
+        // given - precondition or setup
+        LocalDateTime almostExpired = LocalDateTime.now(ZoneOffset.UTC).minus(Duration.ofDays(7)).plusSeconds(1);
+        given(changeRepository.findVisibleAfter(eq(10L), any(LocalDateTime.class), any())).willReturn(List.of(
+                change(11, 1, ChangeType.DELETED, almostExpired), change(12, 2, ChangeType.DELETED, almostExpired)));
+        EmployeeChangesPage page = changeFeed.changesSince(new SyncToken(10, Instant.now()), 2);
+
+        // when -  action or the behaviour that we are going test
+        changeFeed.purgeExpired();
+        SyncToken next = SyncToken.decode(page.nextToken());
+
+        // then - verify the output
+        assertThat(page.hasMore()).isTrue();
+        assertThat(next.issuedAt()).isBefore(Instant.now().minus(Duration.ofDays(6)));
+        verify(changeRepository).deleteChangedBefore(any(LocalDateTime.class));
+        assertThatThrownBy(() -> changeFeed.changesSince(next, 2)).isInstanceOf(SyncTokenExpiredException.class);
+    }
+
+    // JUnit test for polling without new changes
+    @DisplayName("JUnit test for polling without new changes")
+    @Test
+    public void givenNoNewChanges_whenChangesSince_thenKeepPosition(){
+        // given - precondition or setup
+        given(changeRepository.findVisibleAfter(anyLong(), any(LocalDateTime.class), any())).willReturn(List.of());
+
+        // when -  action or the behaviour that we are going test
+        EmployeeChangesPage page = changeFeed.changesSince(new SyncToken(42, Instant.now().minusSeconds(60)), 100);
+
+        // then - verify the output
+        assertThat(page.changes()).isEmpty();
+        assertThat(page.hasMore()).isFalse();
+        assertThat(SyncToken.decode(page.nextToken()).sequence(0)).isEqualTo(42);
+        verifyNoInteractions(employeeRepository);
+    }
+
+    // JUnit test for a token older than the change retention
+    @DisplayName("JUnit test for a token older than the change retention")
+    @Test
+    public void givenExpiredToken_whenChangesSince_thenThrowsException(){
+        // given - precondition or setup
+        SyncToken token = new SyncToken(42, Instant.now().minus(Duration.ofDays(8)));
+
+        // when -  action or the behaviour that we are going test
+        assertThatThrownBy(() -> changeFeed.changesSince(token, 100))
+                .isInstanceOf(SyncTokenExpiredException.class);
+
+        // then - verify the output
+        verifyNoInteractions(changeRepository);
+    }
+
+    // JUnit test for the sync token round trip
+    @DisplayName("JUnit test for the sync token round trip")
+    @Test
+    public void givenSyncToken_whenEncodeAndDecode_thenReturnSamePosition(){
+        // given - precondition or setup
+        SyncToken token = new SyncToken(123456789L, Instant.ofEpochSecond(1700000000L));
+
+        // when -  action or the behaviour that we are going test
+        SyncToken decoded = SyncToken.decode(token.encode());
+
+        // then - verify the output
+        assertThat(decoded).isEqualTo(token);
+        assertThatThrownBy(() -> SyncToken.decode("not-a-token")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static EmployeeChange change(long id, long employeeId, ChangeType type) {
+        EmployeeChange change = new EmployeeChange(employeeId, type);
+        ReflectionTestUtils.setField(change, "id", id);
+        return change;
+    }
+
+    private static EmployeeChange change(long id, long employeeId, ChangeType type, LocalDateTime changedAt) {
+        EmployeeChange change = change(id, employeeId, type);
+        ReflectionTestUtils.setField(change, "changedAt", changedAt);
+        return change;
+    }
+}
@@ -0,0 +1,108 @@
+package com.annamacharya.emptesting.changes;
+
+import com.annamacharya.emptesting.enums.ChangeType;
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.model.EmployeeChange;
+import com.annamacharya.emptesting.repository.EmployeeChangeRepository;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardContext;
+import com.annamacharya.emptesting.sharding.ShardKey;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeChangeRecorderTests {
+
+    @Mock
+    private EmployeeChangeRepository changeRepository;
+
+    @AfterEach
+    public void tearDown(){
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    // JUnit test for inserting the changes of a transaction right before it commits
+    @DisplayName("JUnit test for inserting the changes of a transaction right before it commits")
+    @Test
+    public void givenTransaction_whenEmployeesChanged_thenInsertChangesInOneBatchBeforeCommit(){
+        // given - precondition or setup
+        EmployeeChangeRecorder recorder = new EmployeeChangeRecorder(changeRepository, new EmployeeShards(1, ShardKey.ID_RANGE, Map.of()));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // when -  action or the behaviour that we are going test
+        recorder.onEmployeeChanged(EmployeeChangedEvent.deleted(1));
+        recorder.onEmployeeChanged(EmployeeChangedEvent.deleted(2));
+        verifyNoInteractions(changeRepository);
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        // then - verify the output
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<EmployeeChange>> changes = ArgumentCaptor.forClass(List.class);
+        verify(changeRepository).insertAll(changes.capture());
+        assertThat(changes.getValue()).extracting(EmployeeChange::getEmployeeId).containsExactly(1L, 2L);
+        assertThat(changes.getValue()).extracting(EmployeeChange::getChangeType).containsOnly(ChangeType.DELETED);
+        assertThat(synchronizations).hasSize(1);
+        assertThat(TransactionSynchronizationManager.getResource(recorder)).isNull();
+    }
+
+    // negative scenario - a rolled back transaction records nothing
+    @DisplayName("JUnit test for a rolled back transaction")
+    @Test
+    public void givenRolledBackTransaction_whenEmployeeChanged_thenInsertNothing(){
+        // given - precondition or setup
+        EmployeeChangeRecorder recorder = new EmployeeChangeRecorder(changeRepository, new EmployeeShards(1, ShardKey.ID_RANGE, Map.of()));
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // when -  action or the behaviour that we are going test
+        recorder.onEmployeeChanged(EmployeeChangedEvent.deleted(1));
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        // then - verify the output
+        verify(changeRepository, never()).insertAll(any());
+        assertThat(TransactionSynchronizationManager.getResource(recorder)).isNull();
+    }
+
+    // JUnit test for writing a change to the shard of its employee
+    @DisplayName("JUnit test for writing a change to the shard of its employee")
+    @Test
+    public void givenShardedEmployee_whenEmployeeChanged_thenSaveChangeOnItsShard(){
+        // given - precondition or setup
+        EmployeeChangeRecorder recorder = new EmployeeChangeRecorder(changeRepository,
+                new EmployeeShards(2, ShardKey.ID_RANGE, Map.of()));
+        List<Integer> shards = new ArrayList<>();
+        when(changeRepository.save(any(EmployeeChange.class))).thenAnswer(invocation -> {
+            shards.add(ShardContext.current());
+            return invocation.getArgument(0);
+        });
+
+        // when -  action or the behaviour that we are going test
+        recorder.onEmployeeChanged(EmployeeChangedEvent.deleted(7));
+        recorder.onEmployeeChanged(EmployeeChangedEvent.deleted(EmployeeShards.id(1, 7)));
+
+        // then - verify the output
+        assertThat(shards).containsExactly(0, 1);
+    }
+}
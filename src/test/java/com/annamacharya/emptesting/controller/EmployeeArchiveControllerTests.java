@@ -0,0 +1,92 @@
+package com.annamacharya.emptesting.controller;
+
+import com.annamacharya.emptesting.archive.EmployeeArchive;
+import com.annamacharya.emptesting.contoller.EmployeeArchiveController;
+import com.annamacharya.emptesting.dto.ArchivedEmployee;
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.annamacharya.emptesting.model.Employee;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EmployeeArchiveController.class)
+public class EmployeeArchiveControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeArchive employeeArchive;
+
+    // JUnit test for a page of archived employees REST API
+    @Test
+    public void givenArchivedEmployees_whenGetHireYearRange_thenReturnPageWithNextLink() throws Exception{
+        // given - precondition or setup
+        given(employeeArchive.findAfter(0, LocalDate.of(2005, 1, 1), LocalDate.of(2010, 1, 1), 2))
+                .willReturn(List.of(archived(4), archived(9)));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/archive?hiredFrom=2005-01-01&hiredTo=2010-01-01&size=2"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(2)))
+                .andExpect(jsonPath("$[1].id", is(9)))
+                .andExpect(jsonPath("$[1].employmentStatus", is("TERMINATED")))
+                .andExpect(jsonPath("$[1].archivedAt", is("2026-03-01T02:00:00Z")))
+                .andExpect(header().string("Link", containsString("afterId=9")))
+                .andExpect(header().string("Link", containsString("hiredFrom=2005-01-01")));
+    }
+
+    // negative scenario - an employee that was never archived
+    @Test
+    public void givenUnknownId_whenGetArchivedEmployee_thenReturn404() throws Exception{
+        // given - precondition or setup
+        given(employeeArchive.findById(7)).willReturn(Optional.empty());
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/archive/{id}", 7));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound());
+    }
+
+    // negative scenario - the archive is read only
+    @Test
+    public void givenArchive_whenPost_thenReturn405() throws Exception{
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/archive"));
+
+        // then - verify the output
+        response.andExpect(status().isMethodNotAllowed());
+    }
+
+    private static ArchivedEmployee archived(long id) {
+        Employee employee = Employee.builder()
+                .id(id)
+                .lastName("Kasala")
+                .hireDate(LocalDate.of(2007, 6, 1))
+                .employmentStatus(EmploymentStatus.TERMINATED)
+                .build();
+        return new ArchivedEmployee(employee, Instant.parse("2026-03-01T02:00:00Z"));
+    }
+}
@@ -0,0 +1,107 @@
+package com.annamacharya.emptesting.controller;
+
+import com.annamacharya.emptesting.bulk.EmployeeBulkOperations;
+import com.annamacharya.emptesting.contoller.EmployeeBulkController;
+import com.annamacharya.emptesting.dto.BulkJobStatus;
+import com.annamacharya.emptesting.dto.BulkJobStatus.Operation;
+import com.annamacharya.emptesting.dto.BulkJobStatus.State;
+import com.annamacharya.emptesting.dto.EmployeeFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.hamcrest.CoreMatchers.endsWith;
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EmployeeBulkController.class)
+public class EmployeeBulkControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeBulkOperations bulkOperations;
+
+    // JUnit test for submitting a bulk update REST API
+    @Test
+    public void givenDepartmentMove_whenSubmitBulkUpdate_thenReturn202WithJob() throws Exception{
+        // given - precondition or setup
+        EmployeeFilter sales = new EmployeeFilter(null, "Sales", null, null, null);
+        given(bulkOperations.submitUpdate(eq(sales), eq(Map.of("department", "Marketing")), eq(new BigDecimal("5"))))
+                .willReturn(new BulkJobStatus("job-1", Operation.UPDATE, State.QUEUED, 0, 0, 0, Instant.now(), null, null));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/bulk-operations/update")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\": {\"department\": \"Sales\"}, \"set\": {\"department\": \"Marketing\"}, "
+                        + "\"raiseSalaryPercent\": 5}"));
+
+        // then - verify the output
+        response.andExpect(status().isAccepted())
+                .andDo(print())
+                .andExpect(header().string("Location", endsWith("/api/employees/bulk-operations/job-1")))
+                .andExpect(jsonPath("$.state", is("QUEUED")));
+    }
+
+    // negative scenario - no filter would touch every employee
+    @Test
+    public void givenNoFilter_whenSubmitBulkDelete_thenReturn400() throws Exception{
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/bulk-operations/delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{}"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(bulkOperations);
+    }
+
+    // negative scenario - the unique email cannot be set in bulk
+    @Test
+    public void givenEmailInSet_whenSubmitBulkUpdate_thenReturn400() throws Exception{
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/bulk-operations/update")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"filter\": {\"ids\": [1, 2]}, \"set\": {\"email\": \"same@example.com\"}}"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+        verifyNoInteractions(bulkOperations);
+    }
+
+    // JUnit test for polling a bulk job REST API
+    @Test
+    public void givenRunningJob_whenGetStatus_thenReturnProgress() throws Exception{
+        // given - precondition or setup
+        given(bulkOperations.status("job-1")).willReturn(Optional.of(
+                new BulkJobStatus("job-1", Operation.DELETE, State.RUNNING, 1000, 500, 498, Instant.now(), null, null)));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/bulk-operations/job-1"));
+        ResultActions unknown = mockMvc.perform(get("/api/employees/bulk-operations/job-2"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed", is(500)))
+                .andExpect(jsonPath("$.affected", is(498)));
+        unknown.andExpect(status().isNotFound());
+    }
+}
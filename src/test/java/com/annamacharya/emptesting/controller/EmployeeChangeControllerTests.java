@@ -0,0 +1,82 @@
+package com.annamacharya.emptesting.controller;
+
+import com.annamacharya.emptesting.changes.EmployeeChangeFeed;
+import com.annamacharya.emptesting.changes.SyncToken;
+import com.annamacharya.emptesting.contoller.EmployeeChangeController;
+import com.annamacharya.emptesting.dto.EmployeeChangesPage;
+import com.annamacharya.emptesting.enums.ChangeType;
+import com.annamacharya.emptesting.exception.SyncTokenExpiredException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EmployeeChangeController.class)
+public class EmployeeChangeControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeChangeFeed changeFeed;
+
+    // JUnit test for GET changes since a sync token REST API
+    @Test
+    public void givenSyncToken_whenGetChanges_thenReturnChanges() throws Exception{
+        // given - precondition or setup
+        SyncToken token = new SyncToken(10, Instant.now().truncatedTo(ChronoUnit.SECONDS));
+        given(changeFeed.changesSince(eq(token), eq(50))).willReturn(new EmployeeChangesPage("next", false,
+                List.of(new EmployeeChangesPage.Change(7L, ChangeType.DELETED, null))));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/changes")
+                .param("since", token.encode()).param("limit", "50"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.nextToken", is("next")))
+                .andExpect(jsonPath("$.changes[0].employeeId", is(7)))
+                .andExpect(jsonPath("$.changes[0].type", is("DELETED")));
+    }
+
+    // negative scenario - token that was not issued by the feed
+    @Test
+    public void givenMalformedToken_whenGetChanges_thenReturn400() throws Exception{
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/changes").param("since", "%%%"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+    }
+
+    // negative scenario - token older than the change retention
+    @Test
+    public void givenExpiredToken_whenGetChanges_thenReturn410() throws Exception{
+        // given - precondition or setup
+        given(changeFeed.changesSince(any(SyncToken.class), eq(500)))
+                .willThrow(new SyncTokenExpiredException("Sync token is older than the change retention"));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/changes")
+                .param("since", new SyncToken(1, Instant.EPOCH).encode()));
+
+        // then - verify the output
+        response.andExpect(status().isGone());
+    }
+}
@@ -1,8 +1,14 @@
 package com.annamacharya.emptesting.controller;
+import com.annamacharya.emptesting.contoller.EmployeeController;
+import com.annamacharya.emptesting.dto.BulkImportResult;
+import com.annamacharya.emptesting.dto.EmployeeDirectoryEntry;
+import com.annamacharya.emptesting.dto.EmployeeVersion;
+import com.annamacharya.emptesting.dto.ImportRowResult;
 import com.annamacharya.emptesting.enums.EmploymentStatus;
 import com.annamacharya.emptesting.enums.Gender;
 import com.annamacharya.emptesting.enums.HireSource;
 import com.annamacharya.emptesting.enums.MaritalStatus;
+import com.annamacharya.emptesting.exception.EmployeeAlreadyExistsException;
 import com.annamacharya.emptesting.model.Employee;
 import com.annamacharya.emptesting.service.EmployeeService;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -10,26 +16,45 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.containsString;
 import static org.hamcrest.CoreMatchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@WebMvcTest
+@WebMvcTest(EmployeeController.class)
 public class EmployeeControllerTests {
 
     @Autowired
@@ -136,7 +161,7 @@ public class EmployeeControllerTests {
                 .hireSource(HireSource.INTERNAL_PROMOTION)
                 .employmentStatus(EmploymentStatus.FULL_TIME)
                 .build());
-        given(employeeService.getAllEmployees()).willReturn(listOfEmployees);
+        given(employeeService.getEmployeesAfter(0L, 100)).willReturn(listOfEmployees);
 
         // when -  action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(get("/api/employees"));
@@ -178,6 +203,8 @@ public class EmployeeControllerTests {
                 .hireSource(HireSource.REFERRAL)
                 .employmentStatus(EmploymentStatus.FULL_TIME)
                 .build();
+        employee.setVersion(3L);
+        employee.setLastModified(Instant.parse("2024-01-01T00:00:00Z"));
         given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
 
         // when -  action or the behaviour that we are going test
@@ -186,9 +213,12 @@ public class EmployeeControllerTests {
         // then - verify the output
         response.andExpect(status().isOk())
                 .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(header().exists(HttpHeaders.LAST_MODIFIED))
                 .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(employee.getLastName())))
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
+        verify(employeeService, never()).getEmployeeVersion(employeeId);
 
     }
 
@@ -321,6 +351,28 @@ public class EmployeeControllerTests {
                 .andDo(print());
     }
 
+    // JUnit test for update employee REST API - negative scenario, the new email is taken
+    @Test
+    public void givenTakenEmail_whenUpdateEmployee_thenReturn409() throws Exception{
+        // given - precondition or setup
+        long employeeId = 2L;
+        Employee savedEmployee = Employee.builder().id(employeeId).firstName("Ramesh").lastName("Kasala")
+                .email("ramesh@gmail.com").build();
+        Employee updatedEmployee = savedEmployee.toBuilder().email("a@x.com").build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+        given(employeeService.updateEmployee(any(Employee.class)))
+                .willThrow(new EmployeeAlreadyExistsException("Employee already exist with given email:a@x.com"));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        // then - verify the output
+        response.andExpect(status().isConflict())
+                .andDo(print());
+    }
+
 // JUnit test for delete employee REST API
     @Test
     public void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception{
@@ -335,4 +387,355 @@ public class EmployeeControllerTests {
         response.andExpect(status().isOk())
                 .andDo(print());
     }
+
+    // JUnit test for Get All employees REST API - next page link
+    @Test
+    public void givenFullPage_whenGetAllEmployees_thenReturnNextPageLink() throws Exception{
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .id(7L)
+                .firstName("Durga Mahesh")
+                .lastName("Kasala")
+                .email("ramesh@gmail.com")
+                .build();
+        given(employeeService.getEmployeesAfter(5L, 1)).willReturn(List.of(employee));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees")
+                .param("afterId", "5")
+                .param("size", "1"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(header().string(HttpHeaders.LINK, containsString("afterId=7")));
+    }
+
+    // JUnit test for streaming all employees REST API
+    @Test
+    public void givenEmployees_whenStreamAllEmployees_thenReturnNdjson() throws Exception{
+        // given - precondition or setup
+        List<Employee> listOfEmployees = List.of(
+                Employee.builder().id(1L).firstName("Durga Mahesh").lastName("Kasala").build(),
+                Employee.builder().id(2L).firstName("Arjun").lastName("Narayan").build());
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            listOfEmployees.forEach(consumer);
+            return null;
+        }).given(employeeService).streamEmployees(any());
+
+        // when -  action or the behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/employees/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - verify the output
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(containsString("\"firstName\":\"Arjun\"")))
+                .andExpect(result1 -> assertThat(result1.getResponse().getContentAsString().split("\n")).hasSize(2));
+    }
+
+    // JUnit test for bulk import REST API - JSON array
+    @Test
+    public void givenJsonArray_whenImportEmployees_thenReturnImportReport() throws Exception{
+        // given - precondition or setup
+        List<Employee> listOfEmployees = List.of(
+                Employee.builder().firstName("Durga Mahesh").lastName("Kasala").email("ramesh@gmail.com").build(),
+                Employee.builder().firstName("Arjun").lastName("Narayan").email("arjun.narayan@example.com").build());
+        given(employeeService.importEmployees(any())).willAnswer(invocation -> {
+            Iterator<Employee> employees = invocation.getArgument(0);
+            List<ImportRowResult> rows = new ArrayList<>();
+            while (employees.hasNext()) {
+                employees.next();
+                rows.add(ImportRowResult.imported(rows.size() + 1, rows.size() + 1));
+            }
+            return BulkImportResult.of(rows);
+        });
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(listOfEmployees)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.imported", is(2)))
+                .andExpect(jsonPath("$.rows[1].status", is("IMPORTED")));
+    }
+
+    // JUnit test for bulk import REST API - CSV body
+    @Test
+    public void givenCsv_whenImportEmployees_thenReturnImportReport() throws Exception{
+        // given - precondition or setup
+        String csv = "firstName,lastName,email\nDurga Mahesh,Kasala,ramesh@gmail.com\n";
+        given(employeeService.importEmployees(any())).willAnswer(invocation -> {
+            Iterator<Employee> employees = invocation.getArgument(0);
+            Employee employee = employees.next();
+            return BulkImportResult.of(List.of(ImportRowResult.rejected(1, ImportRowResult.Status.DUPLICATE_EMAIL,
+                    employee.getEmail())));
+        });
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/bulk")
+                .contentType("text/csv")
+                .content(csv));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.rejected", is(1)))
+                .andExpect(jsonPath("$.rows[0].message", is("ramesh@gmail.com")));
+    }
+
+    // JUnit test for create employee REST API - duplicate email
+    @Test
+    public void givenDuplicateEmail_whenCreateEmployee_thenReturn409() throws Exception{
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Durga Mahesh")
+                .lastName("Kasala")
+                .email("ramesh@gmail.com")
+                .phoneNumber("+917842630339")
+                .gender(Gender.MALE)
+                .dateOfBirth(LocalDate.of(2002, 2, 7))
+                .hireDate(LocalDate.now())
+                .jobTitle("Software Engineer")
+                .department("Engineering")
+                .salary(BigDecimal.valueOf(50000))
+                .address("123 Main St")
+                .city("Bangalore")
+                .state("Karnataka")
+                .postalCode("560001")
+                .country("India")
+                .maritalStatus(MaritalStatus.SINGLE)
+                .emergencyContactName("Venkata")
+                .emergencyContactPhone("+919876543210")
+                .hireSource(HireSource.REFERRAL)
+                .employmentStatus(EmploymentStatus.FULL_TIME)
+                .build();
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willThrow(new EmployeeAlreadyExistsException("Employee already exist with given email:ramesh@gmail.com"));
+
+        // when - action or behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.detail", is("Employee already exist with given email:ramesh@gmail.com")));
+    }
+
+    // JUnit test for create employee REST API - invalid employee
+    @Test
+    public void givenInvalidEmployee_whenCreateEmployee_thenReturn400() throws Exception{
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Durga Mahesh")
+                .email("not-an-email")
+                .build();
+
+        // when - action or behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(employee)));
+
+        // then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    // JUnit test for Get All employees REST API - sparse fieldset
+    @Test
+    public void givenFields_whenGetAllEmployees_thenReturnOnlyThoseFields() throws Exception{
+        // given - precondition or setup
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", 1L);
+        row.put("firstName", "Ramesh");
+        row.put("department", "Engineering");
+        row.put("version", 2L);
+        row.put("lastModified", Instant.parse("2024-01-01T00:00:00Z"));
+        given(employeeService.getEmployeeFieldsAfter(List.of("id", "firstName", "department", "version", "lastModified"), 0L, 100))
+                .willReturn(List.of(row));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "firstName,department"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$[0].firstName", is("Ramesh")))
+                .andExpect(jsonPath("$[0].department", is("Engineering")))
+                .andExpect(jsonPath("$[0].lastName").doesNotExist())
+                .andExpect(jsonPath("$[0].version").doesNotExist())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    // negative scenario - unknown field in the fieldset
+    @Test
+    public void givenUnknownField_whenGetEmployeeById_thenReturn400() throws Exception{
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", 1L).param("fields", "firstName,password"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+    }
+
+    // JUnit test for directory REST API
+    @Test
+    public void givenDirectoryEntries_whenGetDirectory_thenReturnEntriesAndNextLink() throws Exception{
+        // given - precondition or setup
+        given(employeeService.getDirectoryAfter(0L, 1)).willReturn(List.of(new EmployeeDirectoryEntry(
+                7L, "Ramesh", "Fadatare", "ramesh@gmail.com", "Software Engineer", "Engineering")));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/directory").param("size", "1"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$[0].email", is("ramesh@gmail.com")))
+                .andExpect(jsonPath("$[0].salary").doesNotExist())
+                .andExpect(header().string(HttpHeaders.LINK, containsString("afterId=7")));
+    }
+
+    // JUnit test for conditional GET employee by id REST API
+    @Test
+    public void givenMatchingETag_whenGetEmployeeById_thenReturn304() throws Exception{
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeVersion(employeeId))
+                .willReturn(Optional.of(new EmployeeVersion(employeeId, 3L, Instant.parse("2024-01-01T00:00:00Z"))));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"3\""));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        verify(employeeService, never()).getEmployeeById(employeeId);
+    }
+
+    // JUnit test for conditional GET employee by id REST API - updated after the version was looked up
+    @Test
+    public void givenStaleETagAndRacingUpdate_whenGetEmployeeById_thenReturnETagOfLoadedEmployee() throws Exception{
+        // given - precondition or setup
+        long employeeId = 1L;
+        given(employeeService.getEmployeeVersion(employeeId))
+                .willReturn(Optional.of(new EmployeeVersion(employeeId, 3L, Instant.parse("2024-01-01T00:00:00Z"))));
+        Employee employee = Employee.builder().id(employeeId).firstName("Ramesh").version(4L)
+                .lastModified(Instant.parse("2024-01-02T00:00:00Z")).build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_NONE_MATCH, "\"2\""));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+                .andExpect(jsonPath("$.firstName", is("Ramesh")));
+    }
+
+    // JUnit test for update employee REST API - stale If-Match
+    @Test
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception{
+        // given - precondition or setup
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder().id(employeeId).firstName("Ramesh").version(4L).build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        // then - verify the output
+        response.andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).updateEmployee(any(Employee.class));
+    }
+
+    // JUnit test for update employee REST API - concurrent update
+    @Test
+    public void givenConcurrentUpdate_whenUpdateEmployee_thenReturn409() throws Exception{
+        // given - precondition or setup
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder().id(employeeId).firstName("Ramesh").version(4L).build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
+        given(employeeService.updateEmployee(any(Employee.class)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, employeeId));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"4\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(savedEmployee)));
+
+        // then - verify the output
+        response.andExpect(status().isConflict());
+    }
+
+    // JUnit test for patch employee REST API
+    @Test
+    public void givenPartialEmployee_whenPatchEmployee_thenReturnPatchedEmployee() throws Exception{
+        // given - precondition or setup
+        long employeeId = 1L;
+        Employee savedEmployee = Employee.builder().id(employeeId).firstName("Ramesh").city("Bangalore").version(2L).build();
+        given(employeeService.patchEmployee(eq(employeeId), any(), eq(2L))).willAnswer(invocation -> {
+            UnaryOperator<Employee> patch = invocation.getArgument(1);
+            Employee patched = patch.apply(savedEmployee.toBuilder().build());
+            patched.setVersion(3L);
+            return Optional.of(patched);
+        });
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", employeeId)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType("application/merge-patch+json")
+                .content("{\"city\":\"Hyderabad\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"3\""))
+                .andExpect(jsonPath("$.city", is("Hyderabad")))
+                .andExpect(jsonPath("$.firstName", is("Ramesh")));
+    }
+
+    // negative scenario - field that cannot be patched
+    @Test
+    public void givenReadOnlyField_whenPatchEmployee_thenReturn400() throws Exception{
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":2}"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+        verify(employeeService, never()).patchEmployee(anyLong(), any(), any());
+    }
+
+    // negative scenario - If-Match of an older version
+    @Test
+    public void givenStaleIfMatch_whenPatchEmployee_thenReturn412() throws Exception{
+        // given - precondition or setup
+        given(employeeService.patchEmployee(eq(1L), any(), eq(2L)))
+                .willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L));
+
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"city\":\"Hyderabad\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isPreconditionFailed());
+    }
 }
@@ -0,0 +1,98 @@
+package com.annamacharya.emptesting.controller;
+
+import com.annamacharya.emptesting.contoller.EmployeeEventController;
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.stream.EmployeeEventStream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+@WebMvcTest(EmployeeEventController.class)
+@Import(EmployeeEventStream.class)
+public class EmployeeEventControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private EmployeeEventStream eventStream;
+
+    // JUnit test for streaming employee writes as server-sent events
+    @Test
+    public void givenSubscriber_whenEmployeeChanged_thenStreamEvent() throws Exception{
+        // given - precondition or setup
+        MvcResult result = mockMvc.perform(get("/api/employees/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // when -  action or the behaviour that we are going test
+        eventStream.onEmployeeChanged(EmployeeChangedEvent.created(Employee.builder().id(7L).firstName("Ramesh").build()));
+        eventStream.onEmployeeChanged(EmployeeChangedEvent.deleted(8L));
+
+        // then - verify the output
+        String body = awaitContent(result.getResponse(), "event:deleted");
+        assertThat(body).contains("event:created", "\"firstName\":\"Ramesh\"", "\"employeeId\":8");
+    }
+
+    // JUnit test for resuming a stream from Last-Event-ID
+    @Test
+    public void givenLastEventId_whenReconnect_thenReplayMissedEvents() throws Exception{
+        // given - precondition or setup
+        MvcResult first = mockMvc.perform(get("/api/employees/events")).andReturn();
+        eventStream.onEmployeeChanged(EmployeeChangedEvent.deleted(1L));
+        String lastEventId = lastEventId(awaitContent(first.getResponse(), "event:deleted"));
+        eventStream.onEmployeeChanged(EmployeeChangedEvent.deleted(2L));
+        eventStream.onEmployeeChanged(EmployeeChangedEvent.deleted(3L));
+
+        // when -  action or the behaviour that we are going test
+        MvcResult resumed = mockMvc.perform(get("/api/employees/events").header("Last-Event-ID", lastEventId))
+                .andReturn();
+
+        // then - verify the output
+        String body = awaitContent(resumed.getResponse(), "\"employeeId\":3");
+        assertThat(body).contains("\"employeeId\":2").doesNotContain("\"employeeId\":1");
+    }
+
+    // negative scenario - Last-Event-ID this stream cannot resume from
+    @Test
+    public void givenUnknownLastEventId_whenReconnect_thenSendReset() throws Exception{
+        // when -  action or the behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/employees/events").header("Last-Event-ID", "other-42"))
+                .andReturn();
+
+        // then - verify the output
+        assertThat(awaitContent(result.getResponse(), "event:reset")).contains("/api/employees/changes");
+    }
+
+    private static String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private static String lastEventId(String content) {
+        Matcher matcher = Pattern.compile("id:(\\S+)").matcher(content);
+        String id = null;
+        while (matcher.find()) {
+            id = matcher.group(1);
+        }
+        return id;
+    }
+}
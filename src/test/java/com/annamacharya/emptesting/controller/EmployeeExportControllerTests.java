@@ -0,0 +1,73 @@
+package com.annamacharya.emptesting.controller;
+
+import com.annamacharya.emptesting.contoller.EmployeeExportController;
+import com.annamacharya.emptesting.export.EmployeeExporter;
+import com.annamacharya.emptesting.export.ExportFormat;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(EmployeeExportController.class)
+public class EmployeeExportControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private EmployeeExporter exporter;
+
+    // JUnit test for a gzip compressed CSV export REST API
+    @Test
+    public void givenGzipAccepted_whenExportCsv_thenReturnCompressedCsv() throws Exception{
+        // given - precondition or setup
+        given(exporter.export(eq(ExportFormat.CSV), any(OutputStream.class))).willAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write("id,firstName\r\n1,Ramesh\r\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        });
+
+        // when -  action or the behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/employees/export").header(HttpHeaders.ACCEPT_ENCODING, "gzip, deflate"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "text/csv"))
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"));
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream csv = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertThat(new String(csv.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("id,firstName\r\n1,Ramesh\r\n");
+        }
+    }
+
+    // negative scenario - a format there is no writer for
+    @Test
+    public void givenUnknownFormat_whenExport_thenReturn400() throws Exception{
+        // when -  action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/export").param("format", "xlsx"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest());
+    }
+}
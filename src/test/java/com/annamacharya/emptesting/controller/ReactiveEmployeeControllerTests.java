@@ -0,0 +1,108 @@
+package com.annamacharya.emptesting.controller;
+
+import com.annamacharya.emptesting.contoller.ReactiveEmployeeController;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.service.ReactiveEmployeeService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.CoreMatchers.is;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ReactiveEmployeeController.class)
+public class ReactiveEmployeeControllerTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReactiveEmployeeService reactiveEmployeeService;
+
+    // JUnit test for streaming all employees from the reactive stack
+    @Test
+    public void givenEmployees_whenGetAllEmployees_thenStreamNdjson() throws Exception{
+        // given - precondition or setup
+        given(reactiveEmployeeService.getEmployeesAfter(0L, 0)).willReturn(Flux.just(
+                Employee.builder().id(1L).firstName("Ramesh").build(),
+                Employee.builder().id(2L).firstName("Tony").build()));
+
+        // when - action or behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/reactive/employees").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - verify the output
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).hasSize(2);
+        assertThat(body.lines().findFirst()).hasValueSatisfying(line -> assertThat(line).contains("\"firstName\":\"Ramesh\""));
+    }
+
+    // JUnit test for a keyset page from the reactive stack
+    @Test
+    public void givenAfterIdAndSize_whenGetAllEmployees_thenStreamPage() throws Exception{
+        // given - precondition or setup
+        given(reactiveEmployeeService.getEmployeesAfter(1L, 1))
+                .willReturn(Flux.just(Employee.builder().id(2L).firstName("Tony").build()));
+
+        // when - action or behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/reactive/employees").param("afterId", "1").param("size", "1")
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - verify the output
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertThat(body.lines()).singleElement().satisfies(line -> assertThat(line).contains("\"id\":2"));
+    }
+
+    // JUnit test for get employee by id from the reactive stack
+    @Test
+    public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployee() throws Exception{
+        // given - precondition or setup
+        given(reactiveEmployeeService.getEmployeeById(1L))
+                .willReturn(Mono.just(Employee.builder().id(1L).firstName("Ramesh").build()));
+
+        // when - action or behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/reactive/employees/{id}", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - verify the output
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.firstName", is("Ramesh")));
+    }
+
+    // negative scenario - unknown employee id
+    @Test
+    public void givenUnknownEmployeeId_whenGetEmployeeById_thenReturn404() throws Exception{
+        // given - precondition or setup
+        given(reactiveEmployeeService.getEmployeeById(1L)).willReturn(Mono.empty());
+
+        // when - action or behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/reactive/employees/{id}", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // then - verify the output
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+    }
+}
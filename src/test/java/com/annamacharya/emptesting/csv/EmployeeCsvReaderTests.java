@@ -0,0 +1,40 @@
+package com.annamacharya.emptesting.csv;
+
+import com.annamacharya.emptesting.enums.Gender;
+import com.annamacharya.emptesting.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeCsvReaderTests {
+
+    // JUnit test for reading quoted CSV records
+    @DisplayName("JUnit test for reading quoted CSV records")
+    @Test
+    public void givenQuotedCsv_whenRead_thenReturnEmployees(){
+        // given - precondition or setup
+        String csv = "firstName,lastName,address,gender,salary,unknown\r\n"
+                + "Durga Mahesh,Kasala,\"123 Main St, \"\"Block A\"\"\",MALE,50000,x\r\n"
+                + "\r\n"
+                + "Arjun,Narayan,\"789 Temple\nStreet\",UNKNOWN,abc,y";
+
+        // when -  action or the behaviour that we are going test
+        List<Employee> employees = new ArrayList<>();
+        new EmployeeCsvReader(new StringReader(csv)).forEachRemaining(employees::add);
+
+        // then - verify the output
+        assertThat(employees).hasSize(2);
+        assertThat(employees.get(0).getAddress()).isEqualTo("123 Main St, \"Block A\"");
+        assertThat(employees.get(0).getGender()).isEqualTo(Gender.MALE);
+        assertThat(employees.get(0).getSalary()).isEqualTo(BigDecimal.valueOf(50000));
+        assertThat(employees.get(1).getAddress()).isEqualTo("789 Temple\nStreet");
+        assertThat(employees.get(1).getGender()).isNull();
+        assertThat(employees.get(1).getSalary()).isNull();
+    }
+}
@@ -0,0 +1,100 @@
+package com.annamacharya.emptesting.execution;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DatabaseConcurrencyLimiterTests {
+
+    // JUnit test for holding a permit only while the request runs
+    @DisplayName("JUnit test for holding a permit only while the request runs")
+    @Test
+    public void givenRequest_whenFilter_thenPermitReleasedAfterwards() throws Exception{
+        // given - precondition or setup
+        DatabaseConcurrencyLimiter limiter = new DatabaseConcurrencyLimiter(2, Duration.ofMillis(100));
+        int[] availableDuringRequest = new int[1];
+
+        // when -  action or the behaviour that we are going test
+        limiter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), new MockHttpServletResponse(),
+                new MockFilterChain() {
+                    @Override
+                    public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                        availableDuringRequest[0] = limiter.availablePermits();
+                    }
+                });
+
+        // then - verify the output
+        assertThat(availableDuringRequest[0]).isEqualTo(1);
+        assertThat(limiter.availablePermits()).isEqualTo(2);
+    }
+
+    // JUnit test for rejecting a request that cannot get a permit in time
+    @DisplayName("JUnit test for rejecting a request that cannot get a permit in time")
+    @Test
+    public void givenNoPermitLeft_whenFilter_thenReturn503() throws Exception{
+        // given - precondition or setup
+        DatabaseConcurrencyLimiter limiter = new DatabaseConcurrencyLimiter(1, Duration.ofMillis(50));
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<?> slowRequest = executor.submit(() -> {
+            limiter.doFilter(new MockHttpServletRequest("GET", "/api/employees"), new MockHttpServletResponse(),
+                    (request, response) -> {
+                        running.countDown();
+                        try {
+                            finish.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+            return null;
+        });
+        running.await(5, TimeUnit.SECONDS);
+
+        // when -  action or the behaviour that we are going test
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        limiter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), rejected, new MockFilterChain());
+        finish.countDown();
+        slowRequest.get(5, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        // then - verify the output
+        assertThat(rejected.getStatus()).isEqualTo(503);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("1");
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+    }
+
+    // JUnit test for leaving excluded streams out of the limit
+    @DisplayName("JUnit test for leaving excluded streams out of the limit")
+    @Test
+    public void givenExcludedPath_whenFilter_thenNoPermitTaken() throws Exception{
+        // given - precondition or setup
+        DatabaseConcurrencyLimiter limiter = new DatabaseConcurrencyLimiter(1, Duration.ofMillis(50),
+                Set.of("/api/employees/events"));
+        int[] availableDuringRequest = new int[1];
+
+        // when -  action or the behaviour that we are going test
+        limiter.doFilter(new MockHttpServletRequest("GET", "/api/employees/events"), new MockHttpServletResponse(),
+                new MockFilterChain() {
+                    @Override
+                    public void doFilter(jakarta.servlet.ServletRequest request, jakarta.servlet.ServletResponse response) {
+                        availableDuringRequest[0] = limiter.availablePermits();
+                    }
+                });
+
+        // then - verify the output
+        assertThat(availableDuringRequest[0]).isEqualTo(1);
+    }
+}
@@ -0,0 +1,143 @@
+package com.annamacharya.emptesting.export;
+
+import com.annamacharya.emptesting.csv.EmployeeCsvReader;
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.annamacharya.emptesting.enums.Gender;
+import com.annamacharya.emptesting.enums.HireSource;
+import com.annamacharya.emptesting.enums.MaritalStatus;
+import com.annamacharya.emptesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ExportRoundTripTests {
+
+    private static final List<ExportColumn> COLUMNS = ExportColumn.EMPLOYEE_COLUMNS;
+
+    private List<Employee> employees;
+
+    @BeforeEach
+    public void setup(){
+        employees = new ArrayList<>();
+        for (int i = 1; i <= 10; i++) {
+            employees.add(Employee.builder()
+                    .id(i * 3L)
+                    .firstName(i % 2 == 0 ? "Durga Mahesh" : "Lakshmi")
+                    .lastName("Kasala")
+                    .email("employee" + i + "@example.com")
+                    .phoneNumber("+91784263" + (1000 + i))
+                    .gender(i % 2 == 0 ? Gender.MALE : Gender.FEMALE)
+                    .dateOfBirth(LocalDate.of(1990, 1, 1).plusDays(i * 97L))
+                    .hireDate(LocalDate.of(2020, 6, 1).minusDays(i * 11L))
+                    .jobTitle("Software Engineer")
+                    .department(i < 7 ? "Engineering" : "Sales")
+                    .salary(i == 5 ? new BigDecimal("-1.5") : new BigDecimal("50000.25").add(BigDecimal.valueOf(i * 1000L)))
+                    .address(i == 4 ? "12 \"Temple\" Street,\r\nFloor 2" : "123 Main St")
+                    .city("Bangalore")
+                    .state("Karnataka")
+                    .postalCode("560001")
+                    .country("India")
+                    .maritalStatus(MaritalStatus.SINGLE)
+                    .emergencyContactName("Venkata")
+                    .emergencyContactPhone("+919876543210")
+                    .hireSource(HireSource.REFERRAL)
+                    .employmentStatus(EmploymentStatus.FULL_TIME)
+                    .build());
+        }
+    }
+
+    // JUnit test for reading back a columnar export
+    @DisplayName("JUnit test for reading back a columnar export")
+    @Test
+    public void givenEmployees_whenWriteAndReadColumnar_thenReturnSameRows() throws IOException{
+        // given - precondition or setup
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        // groups of 4 rows, so the last group is a partial one
+        ColumnarRowWriter writer = new ColumnarRowWriter(file, COLUMNS, 4, 1024);
+
+        // when -  action or the behaviour that we are going test
+        for (Employee employee : employees) {
+            writer.write(ExportColumn.toRow(employee));
+        }
+        writer.finish();
+        List<Object[]> rows = new ArrayList<>();
+        try (ColumnarRowReader reader = new ColumnarRowReader(new ByteArrayInputStream(file.toByteArray()))) {
+            assertThat(reader.columns()).extracting(ExportColumn::name)
+                    .containsExactlyElementsOf(COLUMNS.stream().map(ExportColumn::name).toList());
+            reader.forEachRemaining(rows::add);
+        }
+
+        // then - verify the output
+        assertThat(rows).hasSize(employees.size());
+        for (int i = 0; i < employees.size(); i++) {
+            Object[] expected = ExportColumn.toRow(employees.get(i));
+            Object[] actual = rows.get(i);
+            for (int column = 0; column < expected.length; column++) {
+                if (expected[column] instanceof BigDecimal decimal) {
+                    assertThat((BigDecimal) actual[column]).isEqualByComparingTo(decimal);
+                } else {
+                    assertThat(actual[column]).isEqualTo(expected[column]);
+                }
+            }
+        }
+    }
+
+    // JUnit test for importing a CSV export
+    @DisplayName("JUnit test for importing a CSV export")
+    @Test
+    public void givenEmployees_whenWriteCsvAndReadWithImportReader_thenReturnSameEmployees() throws IOException{
+        // given - precondition or setup
+        ByteArrayOutputStream file = new ByteArrayOutputStream();
+        CsvRowWriter writer = new CsvRowWriter(file, COLUMNS, 1024);
+
+        // when -  action or the behaviour that we are going test
+        for (Employee employee : employees) {
+            writer.write(ExportColumn.toRow(employee));
+        }
+        writer.finish();
+        List<Employee> imported = new ArrayList<>();
+        try (EmployeeCsvReader reader = new EmployeeCsvReader(new InputStreamReader(
+                new ByteArrayInputStream(file.toByteArray()), StandardCharsets.UTF_8))) {
+            reader.forEachRemaining(imported::add);
+        }
+
+        // then - verify the output
+        assertThat(imported).hasSize(employees.size());
+        assertThat(imported).usingRecursiveFieldByFieldElementComparatorIgnoringFields("id", "version", "lastModified")
+                .isEqualTo(employees);
+    }
+
+    // JUnit test for the columnar export being smaller than CSV
+    @DisplayName("JUnit test for the columnar export being smaller than CSV")
+    @Test
+    public void givenEmployees_whenWriteBothFormats_thenColumnarIsSmaller() throws IOException{
+        // given - precondition or setup
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        ByteArrayOutputStream columnar = new ByteArrayOutputStream();
+        CsvRowWriter csvWriter = new CsvRowWriter(csv, COLUMNS, 1024);
+        ColumnarRowWriter columnarWriter = new ColumnarRowWriter(columnar, COLUMNS, 8192, 1024);
+
+        // when -  action or the behaviour that we are going test
+        for (Employee employee : employees) {
+            csvWriter.write(ExportColumn.toRow(employee));
+            columnarWriter.write(ExportColumn.toRow(employee));
+        }
+        csvWriter.finish();
+        columnarWriter.finish();
+
+        // then - verify the output
+        assertThat(columnar.size()).isLessThan(csv.size() / 2);
+    }
+}
@@ -0,0 +1,97 @@
+package com.annamacharya.emptesting.jdbc;
+
+import com.annamacharya.emptesting.dto.SqlExecution;
+import com.annamacharya.emptesting.dto.SqlStatementSummary;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class RecordingDataSourceTests {
+
+    // JUnit test for recording a query with its parameter types and rows
+    @DisplayName("JUnit test for recording a query with its parameter types and rows")
+    @Test
+    public void givenPreparedQuery_whenReadAndClosed_thenRecordSqlParameterTypesAndRows() throws Exception {
+        // given - precondition or setup
+        StatementLog statementLog = new StatementLog(16, Duration.ofSeconds(1), 50);
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        ResultSet resultSet = mock(ResultSet.class);
+        given(target.getConnection()).willReturn(connection);
+        given(connection.prepareStatement(anyString())).willReturn(statement);
+        given(statement.executeQuery()).willReturn(resultSet);
+        given(resultSet.next()).willReturn(true, true, true, false);
+        DataSource dataSource = new RecordingDataSource(target, statementLog);
+        String sql = "select e1_0.id from employees e1_0 where e1_0.department=? and e1_0.id>? limit ?";
+
+        // when -  action or the behaviour that we are going test
+        try (Connection recorded = dataSource.getConnection();
+             PreparedStatement query = recorded.prepareStatement(sql)) {
+            query.setString(1, "Sales");
+            query.setLong(2, 100L);
+            query.setObject(3, 25);
+            try (ResultSet rows = query.executeQuery()) {
+                while (rows.next()) {
+                    rows.getLong(1);
+                }
+                assertThat(rows.getStatement()).isSameAs(query);
+            }
+        }
+
+        // then - verify the output
+        SqlExecution execution = statementLog.report(10).slowest().get(0);
+        assertThat(execution.sql()).isEqualTo(sql);
+        assertThat(execution.parameters()).isEqualTo("string,long,integer");
+        assertThat(execution.rows()).isEqualTo(3);
+        assertThat(execution.batches()).isZero();
+    }
+
+    // JUnit test for recording each batch execution once
+    @DisplayName("JUnit test for recording each batch execution once")
+    @Test
+    public void givenBatchedInserts_whenExecuteBatchTwice_thenRecordTwoExecutionsWithBatchSizesAndRows() throws Exception {
+        // given - precondition or setup
+        StatementLog statementLog = new StatementLog(16, Duration.ofSeconds(1), 50);
+        DataSource target = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        PreparedStatement statement = mock(PreparedStatement.class);
+        given(target.getConnection()).willReturn(connection);
+        given(connection.prepareStatement(anyString())).willReturn(statement);
+        given(statement.executeBatch()).willReturn(new int[]{1, 1, 1}, new int[]{1});
+        DataSource dataSource = new RecordingDataSource(target, statementLog);
+        String sql = "insert into employees (email,first_name) values (?,?)";
+
+        // when -  action or the behaviour that we are going test
+        try (Connection recorded = dataSource.getConnection();
+             PreparedStatement insert = recorded.prepareStatement(sql)) {
+            for (int i = 0; i < 4; i++) {
+                insert.setString(1, "employee" + i + "@example.com");
+                insert.setNull(2, java.sql.Types.VARCHAR);
+                insert.addBatch();
+                if (i == 2) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+
+        // then - verify the output
+        SqlStatementSummary summary = statementLog.report(10).statements().get(0);
+        assertThat(summary.sql()).isEqualTo(sql);
+        assertThat(summary.executions()).isEqualTo(2);
+        assertThat(summary.rows()).isEqualTo(4);
+        assertThat(summary.parameterShapes()).containsExactly("string,null");
+        assertThat(statementLog.report(10).slowest()).extracting(SqlExecution::batches).containsExactlyInAnyOrder(3, 1);
+    }
+}
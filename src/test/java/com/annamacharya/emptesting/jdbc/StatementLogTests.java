@@ -0,0 +1,64 @@
+package com.annamacharya.emptesting.jdbc;
+
+import com.annamacharya.emptesting.dto.SqlDiagnosticsReport;
+import com.annamacharya.emptesting.dto.SqlHeavyRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StatementLogTests {
+
+    // JUnit test for flagging a request issuing too many statements
+    @DisplayName("JUnit test for flagging a request issuing too many statements")
+    @Test
+    public void givenRequestLoadingEachEmployeeSeparately_whenEndRequest_thenFlagMostRepeatedStatement(){
+        // given - precondition or setup
+        StatementLog statementLog = new StatementLog(64, Duration.ofSeconds(1), 5);
+        String byId = "select e1_0.id from employees e1_0 where e1_0.id=?";
+
+        // when -  action or the behaviour that we are going test
+        statementLog.beginRequest();
+        statementLog.record("select e1_0.id from employees e1_0 limit ?", "integer", 0, 1_000, 8);
+        for (int i = 0; i < 8; i++) {
+            statementLog.record(byId, "long", 0, 1_000, 1);
+        }
+        statementLog.endRequest("GET", "/api/employees");
+        statementLog.beginRequest();
+        statementLog.record(byId, "long", 0, 1_000, 1);
+        statementLog.endRequest("GET", "/api/employees/{id}");
+
+        // then - verify the output
+        SqlDiagnosticsReport report = statementLog.report(10);
+        assertThat(report.heavyRequests()).hasSize(1);
+        SqlHeavyRequest heavy = report.heavyRequests().get(0);
+        assertThat(heavy.uri()).isEqualTo("/api/employees");
+        assertThat(heavy.statements()).isEqualTo(9);
+        assertThat(heavy.mostRepeatedSql()).isEqualTo(byId);
+        assertThat(heavy.repetitions()).isEqualTo(8);
+    }
+
+    // JUnit test for keeping only the most recent statements
+    @DisplayName("JUnit test for keeping only the most recent statements")
+    @Test
+    public void givenMoreStatementsThanBufferSize_whenReport_thenSummarizeOnlyTheMostRecent(){
+        // given - precondition or setup
+        StatementLog statementLog = new StatementLog(4, Duration.ofSeconds(1), 50);
+
+        // when -  action or the behaviour that we are going test
+        statementLog.record("select 1", "", 0, 5_000_000, 1);
+        for (int i = 0; i < 4; i++) {
+            statementLog.record("select 2", "", 0, 1_000_000, 1);
+        }
+        SqlDiagnosticsReport report = statementLog.report(10);
+
+        // then - verify the output
+        assertThat(report.recorded()).isEqualTo(5);
+        assertThat(report.statements()).hasSize(1);
+        assertThat(report.statements().get(0).sql()).isEqualTo("select 2");
+        assertThat(report.statements().get(0).executions()).isEqualTo(4);
+        assertThat(report.statements().get(0).totalMillis()).isEqualTo(4.0);
+    }
+}
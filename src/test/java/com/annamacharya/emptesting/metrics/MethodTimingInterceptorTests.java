@@ -0,0 +1,127 @@
+package com.annamacharya.emptesting.metrics;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+
+import java.lang.reflect.AccessibleObject;
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MethodTimingInterceptorTests {
+
+    private MeterRegistry meterRegistry;
+
+    private MethodTimingInterceptor interceptor;
+
+    public interface Greeter {
+        String greet(String name);
+    }
+
+    public static class DefaultGreeter implements Greeter {
+        @Override
+        public String greet(String name) {
+            if (name == null) {
+                throw new IllegalArgumentException("name");
+            }
+            return "Hello " + name;
+        }
+    }
+
+    @BeforeEach
+    public void setup(){
+        meterRegistry = new SimpleMeterRegistry();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("meterRegistry", meterRegistry);
+        interceptor = new MethodTimingInterceptor(beanFactory.getBeanProvider(MeterRegistry.class),
+                "employees.service.calls", "class");
+    }
+
+    // JUnit test for timing calls by outcome
+    @DisplayName("JUnit test for timing calls by outcome")
+    @Test
+    public void givenProxiedTarget_whenCallSucceedsAndFails_thenRecordTimerPerOutcome(){
+        // given - precondition or setup
+        ProxyFactory proxyFactory = new ProxyFactory(new DefaultGreeter());
+        proxyFactory.addAdvice(interceptor);
+        Greeter greeter = (Greeter) proxyFactory.getProxy();
+
+        // when -  action or the behaviour that we are going test
+        greeter.greet("Ramesh");
+        greeter.greet("Durga");
+        assertThatThrownBy(() -> greeter.greet(null)).isInstanceOf(IllegalArgumentException.class);
+
+        // then - verify the output
+        Timer success = meterRegistry.get("employees.service.calls")
+                .tags("class", "DefaultGreeter", "method", "greet", "outcome", "SUCCESS").timer();
+        Timer error = meterRegistry.get("employees.service.calls")
+                .tags("class", "DefaultGreeter", "method", "greet", "outcome", "ERROR").timer();
+        assertThat(success.count()).isEqualTo(2);
+        assertThat(error.count()).isEqualTo(1);
+    }
+
+    // JUnit test for looking the timers up once
+    @DisplayName("JUnit test for looking the timers up once")
+    @Test
+    public void givenRepeatedCalls_whenInvoke_thenTimersAreRegisteredOnlyOnFirstCall() throws Throwable{
+        // given - precondition or setup; every registration, also of an existing meter, goes through the filters
+        AtomicInteger lookups = new AtomicInteger();
+        meterRegistry.config().meterFilter(new MeterFilter() {
+            @Override
+            public Meter.Id map(Meter.Id id) {
+                lookups.incrementAndGet();
+                return id;
+            }
+        });
+        MethodInvocation invocation = new FixedInvocation(new DefaultGreeter(), Greeter.class.getMethod("greet", String.class));
+
+        // when -  action or the behaviour that we are going test
+        for (int i = 0; i < 1_000; i++) {
+            interceptor.invoke(invocation);
+        }
+
+        // then - verify the output; looking the Timer up by name and tags would build its tags on every call
+        assertThat(lookups.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("employees.service.calls").tags("outcome", "SUCCESS").timer().count()).isEqualTo(1_000);
+    }
+
+    // an invocation that returns a constant, so only the interceptor's own work is measured
+    private record FixedInvocation(Object target, Method method) implements MethodInvocation {
+
+        @Override
+        public Method getMethod() {
+            return method;
+        }
+
+        @Override
+        public Object[] getArguments() {
+            return new Object[0];
+        }
+
+        @Override
+        public Object proceed() {
+            return "Hello";
+        }
+
+        @Override
+        public Object getThis() {
+            return target;
+        }
+
+        @Override
+        public AccessibleObject getStaticPart() {
+            return method;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.annamacharya.emptesting.metrics;
+
+import com.annamacharya.emptesting.config.MetricsConfig;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import com.annamacharya.emptesting.repository.OutboxMessageRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.Advisor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.annotation.Import;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RepositoryTimingTests.RepositoryTimingConfig.class)
+public class RepositoryTimingTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private OutboxMessageRepository outboxMessageRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // the repository advisor of MetricsConfig around the real Spring Data repositories
+    @TestConfiguration
+    @EnableAspectJAutoProxy
+    static class RepositoryTimingConfig {
+
+        @Bean
+        public MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        public static Advisor repositoryTimingAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+            return MetricsConfig.repositoryTimingAdvisor(meterRegistry);
+        }
+    }
+
+    // JUnit test for tagging repository timers with the repository interface
+    @DisplayName("JUnit test for tagging repository timers with the repository interface")
+    @Test
+    public void givenSpringDataRepositories_whenFindById_thenTimerPerRepositoryInterface(){
+        // when -  action or the behaviour that we are going test; both run the findById of SimpleJpaRepository
+        employeeRepository.findById(1L);
+        employeeRepository.findById(2L);
+        outboxMessageRepository.findById(1L);
+
+        // then - verify the output
+        assertThat(meterRegistry.get("employees.repository.calls")
+                .tags("repository", "EmployeeRepository", "method", "findById", "outcome", "SUCCESS").timer().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("employees.repository.calls")
+                .tags("repository", "OutboxMessageRepository", "method", "findById", "outcome", "SUCCESS").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("employees.repository.calls").tag("repository", "SimpleJpaRepository").timers())
+                .isEmpty();
+    }
+}
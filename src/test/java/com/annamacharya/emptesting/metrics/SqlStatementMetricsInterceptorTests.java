@@ -0,0 +1,64 @@
+package com.annamacharya.emptesting.metrics;
+
+import com.annamacharya.emptesting.jdbc.StatementLog;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatementMetricsInterceptorTests {
+
+    // JUnit test for counting SQL statements per request
+    @DisplayName("JUnit test for counting SQL statements per request")
+    @Test
+    public void givenRequestIssuingStatements_whenComplete_thenRecordCountPerUriAndMethod(){
+        // given - precondition or setup
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StatementLog statementLog = new StatementLog(16, Duration.ofSeconds(1), 50);
+        SqlStatementMetricsInterceptor interceptor = new SqlStatementMetricsInterceptor(meterRegistry, statementLog);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employees/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        statementLog.record("select 1", "", 0, 1000, 1);
+
+        // when -  action or the behaviour that we are going test
+        statementLog.beginRequest();
+        statementLog.record("select e1_0.id from employees e1_0 where e1_0.id=?", "1", 0, 1000, 1);
+        statementLog.record("select e1_0.version from employees e1_0 where e1_0.id=?", "1", 0, 1000, 1);
+        interceptor.afterCompletion(request, response, new Object(), null);
+        statementLog.endRequest("GET", "/api/employees/{id}");
+
+        // then - verify the output
+        DistributionSummary statements = meterRegistry.get("employees.sql.statements")
+                .tags("uri", "/api/employees/{id}", "method", "GET").summary();
+        assertThat(statements.count()).isEqualTo(1);
+        assertThat(statements.totalAmount()).isEqualTo(2);
+    }
+
+    // negative scenario - a request the StatementLog does not track
+    @DisplayName("JUnit test for a request without statement tracking")
+    @Test
+    public void givenUntrackedRequest_whenComplete_thenRecordNothing(){
+        // given - precondition or setup
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        StatementLog statementLog = new StatementLog(16, Duration.ofSeconds(1), 50);
+        SqlStatementMetricsInterceptor interceptor = new SqlStatementMetricsInterceptor(meterRegistry, statementLog);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/employees/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/employees/{id}");
+
+        // when -  action or the behaviour that we are going test
+        statementLog.record("select 1", "", 0, 1000, 1);
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), new Object(), null);
+
+        // then - verify the output
+        assertThat(meterRegistry.find("employees.sql.statements").summary()).isNull();
+    }
+}
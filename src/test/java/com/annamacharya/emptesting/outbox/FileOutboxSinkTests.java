@@ -0,0 +1,41 @@
+package com.annamacharya.emptesting.outbox;
+
+import com.annamacharya.emptesting.enums.ChangeType;
+import com.annamacharya.emptesting.model.OutboxMessage;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FileOutboxSinkTests {
+
+    @TempDir
+    private Path directory;
+
+    // JUnit test for appending outbox batches as JSON lines
+    @DisplayName("JUnit test for appending outbox batches as JSON lines")
+    @Test
+    public void givenBatches_whenPublish_thenAppendOneLinePerMessage() throws Exception{
+        // given - precondition or setup
+        Path file = directory.resolve("outbox").resolve("employee-events.ndjson");
+        FileOutboxSink sink = new FileOutboxSink(file);
+
+        // when -  action or the behaviour that we are going test
+        sink.publish(List.of(new OutboxMessage(1L, ChangeType.CREATED, "{\"employeeId\":1}")));
+        sink.publish(List.of(new OutboxMessage(2L, ChangeType.DELETED, "{\"employeeId\":2,\"employee\":null}")));
+
+        // then - verify the output
+        List<String> lines = Files.readAllLines(file);
+        assertThat(lines).hasSize(2);
+        JsonNode second = new ObjectMapper().readTree(lines.get(1));
+        assertThat(second.get("type").asText()).isEqualTo("DELETED");
+        assertThat(second.get("event").get("employeeId").asLong()).isEqualTo(2L);
+    }
+}
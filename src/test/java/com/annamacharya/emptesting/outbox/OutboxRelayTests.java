@@ -0,0 +1,85 @@
+package com.annamacharya.emptesting.outbox;
+
+import com.annamacharya.emptesting.enums.ChangeType;
+import com.annamacharya.emptesting.model.OutboxMessage;
+import com.annamacharya.emptesting.repository.OutboxMessageRepository;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardKey;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class OutboxRelayTests {
+
+    @Mock
+    private OutboxMessageRepository outboxRepository;
+
+    @Mock
+    private OutboxSink sink;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    public void setup(){
+        outboxRelay = new OutboxRelay(outboxRepository, new EmployeeShards(1, ShardKey.ID_RANGE, Map.of()), sink, 2, Duration.ofMillis(200), 1, Duration.ofSeconds(30));
+    }
+
+    // JUnit test for draining the outbox in batches
+    @DisplayName("JUnit test for draining the outbox in batches")
+    @Test
+    public void givenPendingMessages_whenDrain_thenPublishAndDeleteEachBatch() throws Exception{
+        // given - precondition or setup
+        given(outboxRepository.claimBatch(anyString(), eq(1), eq(0), any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .willReturn(2, 1);
+        given(outboxRepository.findClaimed(anyString())).willReturn(
+                List.of(message(1), message(2)), List.of(message(3)));
+
+        // when -  action or the behaviour that we are going test
+        int delivered = outboxRelay.drainAll();
+
+        // then - verify the output
+        assertThat(delivered).isEqualTo(3);
+        verify(sink, times(2)).publish(any());
+        verify(outboxRepository, times(2)).deleteClaimed(anyString());
+    }
+
+    // JUnit test for keeping a batch the sink did not accept
+    @DisplayName("JUnit test for keeping a batch the sink did not accept")
+    @Test
+    public void givenFailingSink_whenDrain_thenKeepMessages() throws Exception{
+        // given - precondition or setup
+        given(outboxRepository.claimBatch(anyString(), eq(1), eq(0), any(LocalDateTime.class), any(LocalDateTime.class), eq(2)))
+                .willReturn(1);
+        given(outboxRepository.findClaimed(anyString())).willReturn(List.of(message(1)));
+        willThrow(new IOException("sink unavailable")).given(sink).publish(any());
+
+        // when -  action or the behaviour that we are going test
+        assertThatThrownBy(() -> outboxRelay.drainAll()).isInstanceOf(IOException.class);
+
+        // then - verify the output
+        verify(outboxRepository, never()).deleteClaimed(anyString());
+    }
+
+    private static OutboxMessage message(long employeeId) {
+        return new OutboxMessage(employeeId, ChangeType.UPDATED, "{\"employeeId\":" + employeeId + "}");
+    }
+}
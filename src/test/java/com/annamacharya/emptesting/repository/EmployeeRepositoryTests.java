@@ -1,5 +1,9 @@
 package com.annamacharya.emptesting.repository;
 
+import com.annamacharya.emptesting.dto.EmployeeDirectoryEntry;
+import com.annamacharya.emptesting.dto.EmployeeFilter;
+import com.annamacharya.emptesting.dto.EmployeeSummary;
+import com.annamacharya.emptesting.dto.EmployeeVersion;
 import com.annamacharya.emptesting.enums.EmploymentStatus;
 import com.annamacharya.emptesting.enums.Gender;
 import com.annamacharya.emptesting.enums.HireSource;
@@ -7,17 +11,25 @@ import com.annamacharya.emptesting.enums.MaritalStatus;
 import com.annamacharya.emptesting.model.Employee;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.annamacharya.emptesting.schema.QueryPlan;
+import com.annamacharya.emptesting.schema.QueryPlanVerifier;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import javax.sql.DataSource;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -25,6 +37,9 @@ public class EmployeeRepositoryTests {
 
     @Autowired
     private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private DataSource dataSource;
     private Employee employee=null;
     @BeforeEach
     public void setup(){
@@ -209,4 +224,247 @@ public class EmployeeRepositoryTests {
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
     }
+
+    // JUnit test for keyset page operation
+    @DisplayName("JUnit test for keyset page operation")
+    @Test
+    public void givenEmployeesList_whenFindPageAfter_thenReturnNextPage(){
+        Employee employee1 = Employee.builder()
+                .firstName("Arjun")
+                .lastName("Narayan")
+                .email("arjun.narayan@example.com")
+                .phoneNumber("+919876543210")
+                .gender(Gender.MALE)
+                .dateOfBirth(LocalDate.of(1990, 5, 25))
+                .hireDate(LocalDate.now())
+                .jobTitle("Senior Software Engineer")
+                .department("Engineering")
+                .salary(BigDecimal.valueOf(80000))
+                .address("789 Temple Street")
+                .city("Chennai")
+                .state("Tamil Nadu")
+                .postalCode("600001")
+                .country("India")
+                .maritalStatus(MaritalStatus.MARRIED)
+                .emergencyContactName("Lakshmi Narayan")
+                .emergencyContactPhone("+919876543211")
+                .hireSource(HireSource.INTERNAL_PROMOTION)
+                .employmentStatus(EmploymentStatus.FULL_TIME)
+                .build();
+
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+
+        // when -  action or the behaviour that we are going test
+        List<Employee> firstPage = employeeRepository.findPageAfter(0L, PageRequest.ofSize(1));
+        List<Employee> secondPage = employeeRepository.findPageAfter(firstPage.get(0).getId(), PageRequest.ofSize(1));
+
+        // then - verify the output
+        assertThat(firstPage).extracting(Employee::getEmail).containsExactly(employee.getEmail());
+        assertThat(secondPage).extracting(Employee::getEmail).containsExactly(employee1.getEmail());
+    }
+
+    // JUnit test for unique email index
+    @DisplayName("JUnit test for unique email index")
+    @Test
+    public void givenExistingEmail_whenSaveAndFlush_thenThrowDataIntegrityViolation(){
+        employeeRepository.saveAndFlush(employee);
+        Employee duplicate = Employee.builder()
+                .firstName("Arjun")
+                .lastName("Narayan")
+                .email(employee.getEmail())
+                .phoneNumber("+919876543210")
+                .gender(Gender.MALE)
+                .dateOfBirth(LocalDate.of(1990, 5, 25))
+                .hireDate(LocalDate.now())
+                .jobTitle("Senior Software Engineer")
+                .department("Engineering")
+                .salary(BigDecimal.valueOf(80000))
+                .address("789 Temple Street")
+                .city("Chennai")
+                .state("Tamil Nadu")
+                .postalCode("600001")
+                .country("India")
+                .maritalStatus(MaritalStatus.MARRIED)
+                .emergencyContactName("Lakshmi Narayan")
+                .emergencyContactPhone("+919876543211")
+                .hireSource(HireSource.INTERNAL_PROMOTION)
+                .employmentStatus(EmploymentStatus.FULL_TIME)
+                .build();
+
+        // when -  action or the behaviour that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(DataIntegrityViolationException.class, () -> {
+            employeeRepository.saveAndFlush(duplicate);
+        });
+    }
+
+    // JUnit test for sparse fieldset operation
+    @DisplayName("JUnit test for sparse fieldset operation")
+    @Test
+    public void givenFields_whenFindFieldsAfter_thenReturnOnlyThoseFields(){
+        employeeRepository.save(employee);
+
+        // when -  action or the behaviour that we are going test
+        List<Map<String, Object>> rows = employeeRepository.findFieldsAfter(List.of("id", "lastName", "department"), 0L, 10);
+        Optional<Map<String, Object>> row = employeeRepository.findFieldsById(List.of("id", "email"), employee.getId());
+
+        // then - verify the output
+        assertThat(rows).singleElement().satisfies(fields -> {
+            assertThat(fields).containsOnlyKeys("id", "lastName", "department");
+            assertThat(fields).containsEntry("lastName", "Kasala").containsEntry("department", "Engineering");
+        });
+        assertThat(row).hasValueSatisfying(fields -> assertThat(fields).containsOnlyKeys("id", "email"));
+    }
+
+    // JUnit test for interface and record projections
+    @DisplayName("JUnit test for interface and record projections")
+    @Test
+    public void givenEmployeeObject_whenFindProjections_thenReturnProjectedColumns(){
+        employeeRepository.save(employee);
+
+        // when -  action or the behaviour that we are going test
+        List<EmployeeSummary> summaries = employeeRepository.findSummariesByLastNameLike("Kas%", PageRequest.ofSize(10));
+        List<EmployeeDirectoryEntry> directory = employeeRepository.findDirectoryPageAfter(0L, PageRequest.ofSize(10));
+
+        // then - verify the output
+        assertThat(summaries).singleElement().satisfies(summary -> {
+            assertThat(summary.getFirstName()).isEqualTo("Durga Mahesh");
+            assertThat(summary.getDepartment()).isEqualTo("Engineering");
+        });
+        assertThat(directory).containsExactly(new EmployeeDirectoryEntry(employee.getId(), "Durga Mahesh", "Kasala",
+                "ramesh@gmail.com", "Software Engineer", "Engineering"));
+        assertThat(employeeRepository.findSummariesByLastNameLike("Nar%", PageRequest.ofSize(10))).isEmpty();
+    }
+
+    // JUnit test for the version column behind ETags
+    @DisplayName("JUnit test for the version column behind ETags")
+    @Test
+    public void givenEmployeeObject_whenUpdateAndFlush_thenIncrementVersion(){
+        Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+        long initialVersion = savedEmployee.getVersion();
+
+        // when -  action or the behaviour that we are going test
+        savedEmployee.setCity("Hyderabad");
+        employeeRepository.saveAndFlush(savedEmployee);
+        Optional<EmployeeVersion> version = employeeRepository.findVersionById(savedEmployee.getId());
+
+        // then - verify the output
+        assertThat(version).hasValueSatisfying(current -> {
+            assertThat(current.version()).isEqualTo(initialVersion + 1);
+            assertThat(current.lastModified()).isNotNull();
+        });
+        assertThat(employeeRepository.findVersionPageAfter(0L, PageRequest.ofSize(10)))
+                .extracting(EmployeeVersion::id).containsExactly(savedEmployee.getId());
+        assertThat(employeeRepository.findVersionById(savedEmployee.getId() + 1)).isEmpty();
+    }
+
+    // JUnit test for query plans of the repository finders
+    @DisplayName("JUnit test for query plans of the repository finders")
+    @Test
+    public void givenRepositoryQueries_whenExplain_thenNoFullTableScan(){
+        employeeRepository.save(employee);
+
+        // when -  action or the behaviour that we are going test
+        List<QueryPlan> plans = new QueryPlanVerifier(employeeRepository, dataSource, false).explainAll();
+
+        // then - verify the output
+        assertThat(plans).isNotEmpty();
+        assertThat(plans).filteredOn(QueryPlan::fullScan).isEmpty();
+    }
+
+    // JUnit test for the version guarded partial update
+    @DisplayName("JUnit test for the version guarded partial update")
+    @Test
+    public void givenEmployeeObject_whenUpdateFields_thenUpdateOnlyAtExpectedVersion(){
+        Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+        long version = savedEmployee.getVersion();
+
+        // when -  action or the behaviour that we are going test
+        int updated = employeeRepository.updateFields(savedEmployee.getId(), version, Map.of("city", "Hyderabad"),
+                Instant.parse("2024-01-01T00:00:00Z"));
+        int stale = employeeRepository.updateFields(savedEmployee.getId(), version, Map.of("city", "Chennai"),
+                Instant.parse("2024-01-02T00:00:00Z"));
+        Optional<Map<String, Object>> fields = employeeRepository.findFieldsById(List.of("city", "version"),
+                savedEmployee.getId());
+        Optional<EmployeeVersion> current = employeeRepository.findVersionById(savedEmployee.getId());
+
+        // then - verify the output
+        assertThat(updated).isEqualTo(1);
+        assertThat(stale).isZero();
+        assertThat(fields).hasValueSatisfying(row -> {
+            assertThat(row).containsEntry("city", "Hyderabad");
+            assertThat(row).containsEntry("version", version + 1);
+        });
+        assertThat(current).hasValueSatisfying(row ->
+                assertThat(row.lastModified()).isEqualTo(Instant.parse("2024-01-01T00:00:00Z")));
+    }
+
+    // JUnit test for bulk update operation
+    @DisplayName("JUnit test for bulk update operation")
+    @Test
+    public void givenEmployeesInDepartments_whenLockIdsAfterAndUpdateAll_thenUpdateOnlyMatchingEmployees(){
+        Employee salesman = employee.toBuilder()
+                .email("sales@example.com")
+                .department("Sales")
+                .salary(new BigDecimal("41234.57"))
+                .build();
+        Employee engineer = employeeRepository.save(employee);
+        employeeRepository.saveAndFlush(salesman);
+        EmployeeFilter sales = new EmployeeFilter(null, "Sales", null, null, null);
+
+        // when -  action or the behaviour that we are going test
+        List<Long> ids = employeeRepository.lockIdsAfter(sales, 0, 10);
+        int updated = employeeRepository.updateAll(ids, Map.of("jobTitle", "Account Manager"), new BigDecimal("1.05"),
+                Instant.parse("2024-01-01T00:00:00Z"));
+        Optional<Map<String, Object>> raised = employeeRepository.findFieldsById(
+                List.of("jobTitle", "salary", "version"), salesman.getId());
+        Optional<Map<String, Object>> untouched = employeeRepository.findFieldsById(
+                List.of("jobTitle", "salary", "version"), engineer.getId());
+
+        // then - verify the output
+        assertThat(employeeRepository.countMatching(sales)).isEqualTo(1);
+        assertThat(ids).containsExactly(salesman.getId());
+        assertThat(updated).isEqualTo(1);
+        assertThat(raised).hasValueSatisfying(row -> {
+            assertThat(row).containsEntry("jobTitle", "Account Manager");
+            assertThat((BigDecimal) row.get("salary")).isEqualByComparingTo("43296.30");
+            assertThat(row).containsEntry("version", salesman.getVersion() + 1);
+        });
+        assertThat(untouched).hasValueSatisfying(row -> {
+            assertThat(row).containsEntry("jobTitle", "Software Engineer");
+            assertThat(row).containsEntry("version", engineer.getVersion());
+        });
+    }
+
+    // JUnit test for archiving employees
+    @DisplayName("JUnit test for archiving employees")
+    @Test
+    public void givenTerminatedAndCurrentEmployees_whenArchiveAll_thenOnlyTerminatedMoveToArchive(){
+        // given - precondition or setup
+        Employee terminated = employee.toBuilder()
+                .email("former@example.com")
+                .hireDate(LocalDate.of(2004, 5, 1))
+                .employmentStatus(EmploymentStatus.TERMINATED)
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.saveAndFlush(terminated);
+        EmployeeFilter policy = new EmployeeFilter(null, null, null, EmploymentStatus.TERMINATED,
+                LocalDate.of(2010, 1, 1));
+
+        // when -  action or the behaviour that we are going test
+        List<Long> ids = employeeRepository.lockIdsAfter(policy, 0, 10);
+        int archived = employeeRepository.archiveAll(ids, Instant.parse("2026-03-01T02:00:00Z"));
+        employeeRepository.deleteAllByIdInBatch(ids);
+
+        // then - verify the output
+        assertThat(ids).containsExactly(terminated.getId());
+        assertThat(archived).isEqualTo(1);
+        assertThat(employeeRepository.countMatching(policy)).isZero();
+        assertThat(employeeRepository.count()).isEqualTo(1);
+        Map<String, Object> row = new JdbcTemplate(dataSource).queryForMap(
+                "select email, employment_status, archived_at from employees_archive where id = ?", terminated.getId());
+        assertThat(row.get("email")).isEqualTo("former@example.com");
+        assertThat(row.get("employment_status")).isEqualTo("TERMINATED");
+        assertThat(row.get("archived_at").toString()).startsWith("2026-03-01 02:00:00");
+    }
 }
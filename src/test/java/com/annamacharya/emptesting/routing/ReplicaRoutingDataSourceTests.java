@@ -0,0 +1,186 @@
+package com.annamacharya.emptesting.routing;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ReplicaRoutingDataSourceTests {
+
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        routingDataSource.destroy();
+    }
+
+    // JUnit test for sending read-only transactions to the replica
+    @DisplayName("JUnit test for sending read-only transactions to the replica")
+    @Test
+    public void givenPrimaryAndReplica_whenReadOnlyAndReadWriteTransactions_thenOnlyReadOnlyGoesToReplica(){
+        // given - precondition or setup
+        Database database = database(ReplicaSelection.ROUND_ROBIN, node("primary"), node("replica-1"));
+
+        // when -  action or the behaviour that we are going test
+        String readOnly = database.read(true);
+        String readWrite = database.read(false);
+        String outsideTransaction = database.jdbcTemplate.queryForObject("select name from node", String.class);
+
+        // then - verify the output
+        assertThat(readOnly).isEqualTo("replica-1");
+        assertThat(readWrite).isEqualTo("primary");
+        assertThat(outsideTransaction).isEqualTo("primary");
+    }
+
+    // JUnit test for reading your own writes from the primary
+    @DisplayName("JUnit test for reading your own writes from the primary")
+    @Test
+    public void givenRequestThatWrites_whenReadingInSameAndNextRequest_thenReadFromPrimaryUntilWindowEnds() throws Exception {
+        // given - precondition or setup
+        Database database = database(ReplicaSelection.ROUND_ROBIN, node("primary"), node("replica-1"));
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        List<String> reads = new ArrayList<>();
+
+        // when -  action or the behaviour that we are going test
+        MockHttpServletResponse writeResponse = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("PUT", "/api/employees/1"), writeResponse, (request, response) -> {
+            reads.add(database.read(true));
+            database.write();
+            reads.add(database.read(true));
+        });
+        Cookie cookie = writeResponse.getCookie(ReadYourWritesFilter.COOKIE_NAME);
+        MockHttpServletRequest stickyRequest = new MockHttpServletRequest("GET", "/api/employees/1");
+        stickyRequest.setCookies(cookie);
+        filter.doFilter(stickyRequest, new MockHttpServletResponse(), (request, response) -> reads.add(database.read(true)));
+        MockHttpServletRequest expiredRequest = new MockHttpServletRequest("GET", "/api/employees/1");
+        expiredRequest.setCookies(new Cookie(ReadYourWritesFilter.COOKIE_NAME, Long.toString(System.currentTimeMillis() - 1)));
+        filter.doFilter(expiredRequest, new MockHttpServletResponse(), (request, response) -> reads.add(database.read(true)));
+
+        // then - verify the output
+        assertThat(cookie).isNotNull();
+        assertThat(Long.parseLong(cookie.getValue())).isGreaterThan(System.currentTimeMillis());
+        assertThat(reads).containsExactly("replica-1", "primary", "primary", "replica-1");
+    }
+
+    // JUnit test for reads that must come from the primary
+    @DisplayName("JUnit test for reads that must come from the primary")
+    @Test
+    public void givenPrimaryReads_whenReadOnlyTransaction_thenReadFromPrimaryWithoutCountingAsWrite() throws Exception {
+        // given - precondition or setup
+        Database database = database(ReplicaSelection.ROUND_ROBIN, node("primary"), node("replica-1"));
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(Duration.ofSeconds(5));
+        List<String> reads = new ArrayList<>();
+
+        // when -  action or the behaviour that we are going test
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/employees/1"), response, (request, servletResponse) -> {
+            reads.add(PrimaryReads.call(() -> database.read(true)));
+            reads.add(database.read(true));
+        });
+
+        // then - verify the output
+        assertThat(reads).containsExactly("primary", "replica-1");
+        assertThat(response.getCookie(ReadYourWritesFilter.COOKIE_NAME)).isNull();
+    }
+
+    // JUnit test for spreading reads over the replicas that are up
+    @DisplayName("JUnit test for spreading reads over the replicas that are up")
+    @Test
+    public void givenTwoReplicasOneDown_whenReadOnlyTransactions_thenRoundRobinThenSkipTheDownReplica(){
+        // given - precondition or setup
+        DataSource second = node("replica-2");
+        Database database = database(ReplicaSelection.ROUND_ROBIN, node("primary"), node("replica-1"), second);
+        List<String> reads = new ArrayList<>();
+
+        // when -  action or the behaviour that we are going test
+        for (int i = 0; i < 4; i++) {
+            reads.add(database.read(true));
+        }
+        ((DriverManagerDataSource) second).setUrl("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        routingDataSource.probeReplicas();
+        for (int i = 0; i < 2; i++) {
+            reads.add(database.read(true));
+        }
+
+        // then - verify the output
+        assertThat(reads.subList(0, 4)).containsExactlyInAnyOrder("replica-1", "replica-2", "replica-1", "replica-2");
+        assertThat(reads.subList(4, 6)).containsExactly("replica-1", "replica-1");
+    }
+
+    // JUnit test for falling back to the primary with no replica up
+    @DisplayName("JUnit test for falling back to the primary with no replica up")
+    @Test
+    public void givenOnlyReplicaUnreachable_whenReadOnlyTransaction_thenReadFromPrimary(){
+        // given - precondition or setup
+        DriverManagerDataSource unreachable = new DriverManagerDataSource("jdbc:h2:mem:unreachable-" + UUID.randomUUID() + ";IFEXISTS=TRUE");
+        Database database = database(ReplicaSelection.LEAST_LATENCY, node("primary"), unreachable);
+
+        // when -  action or the behaviour that we are going test
+        String first = database.read(true);
+        String second = database.read(true);
+
+        // then - verify the output
+        assertThat(first).isEqualTo("primary");
+        assertThat(second).isEqualTo("primary");
+    }
+
+    private Database database(ReplicaSelection selection, DataSource primary, DataSource... replicas) {
+        Map<String, DataSource> replicaMap = new LinkedHashMap<>();
+        for (int i = 0; i < replicas.length; i++) {
+            replicaMap.put("replica-" + (i + 1), replicas[i]);
+        }
+        routingDataSource = new ReplicaRoutingDataSource(primary, replicaMap, selection, Duration.ofHours(1));
+        routingDataSource.afterPropertiesSet();
+        return new Database(new LazyConnectionDataSourceProxy(routingDataSource));
+    }
+
+    // an in-memory database whose node table names it
+    private static DataSource node(String name) {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table node (name varchar(20), writes int)");
+        jdbcTemplate.update("insert into node values (?, 0)", name);
+        return dataSource;
+    }
+
+    private static final class Database {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        private final DataSourceTransactionManager transactionManager;
+
+        Database(DataSource dataSource) {
+            this.jdbcTemplate = new JdbcTemplate(dataSource);
+            this.transactionManager = new DataSourceTransactionManager(dataSource);
+        }
+
+        String read(boolean readOnly) {
+            TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+            transaction.setReadOnly(readOnly);
+            return transaction.execute(status -> jdbcTemplate.queryForObject("select name from node", String.class));
+        }
+
+        void write() {
+            new TransactionTemplate(transactionManager).executeWithoutResult(
+                    status -> jdbcTemplate.update("update node set writes = writes + 1"));
+        }
+    }
+}
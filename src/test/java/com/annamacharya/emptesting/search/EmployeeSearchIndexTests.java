@@ -0,0 +1,111 @@
+package com.annamacharya.emptesting.search;
+
+import com.annamacharya.emptesting.enums.EmploymentStatus;
+import com.annamacharya.emptesting.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class EmployeeSearchIndexTests {
+
+    private EmployeeSearchIndex searchIndex;
+
+    @BeforeEach
+    public void setup(){
+        searchIndex = new EmployeeSearchIndex();
+        searchIndex.upsert(employee(1L, "Durga Mahesh", "Kasala", "Engineering", "Bangalore", EmploymentStatus.FULL_TIME));
+        searchIndex.upsert(employee(2L, "Arjun", "Narayan", "Engineering", "Chennai", EmploymentStatus.CONTRACTOR));
+        searchIndex.upsert(employee(3L, "Lakshmi", "Narayan", "Finance", "Chennai", EmploymentStatus.FULL_TIME));
+    }
+
+    // JUnit test for facet filters with counts
+    @DisplayName("JUnit test for facet filters with counts")
+    @Test
+    public void givenFacetFilters_whenSearch_thenReturnMatchesAndCounts(){
+        // when -  action or the behaviour that we are going test
+        SearchHits hits = searchIndex.search(new SearchQuery(
+                Map.of(SearchFacet.CITY, Set.of("Chennai", "Bangalore"), SearchFacet.DEPARTMENT, Set.of("Engineering")),
+                null, 0L, 10));
+
+        // then - verify the output
+        assertThat(hits.total()).isEqualTo(2);
+        assertThat(hits.ids()).containsExactly(1L, 2L);
+        assertThat(hits.facets().get("employmentStatus")).containsEntry("FULL_TIME", 1).containsEntry("CONTRACTOR", 1);
+        assertThat(hits.facets().get("city")).containsEntry("Chennai", 1).containsEntry("Bangalore", 1);
+    }
+
+    // JUnit test for name prefix matching and keyset paging
+    @DisplayName("JUnit test for name prefix matching and keyset paging")
+    @Test
+    public void givenNamePrefix_whenSearch_thenMatchAnyNameWord(){
+        // when -  action or the behaviour that we are going test
+        SearchHits firstPage = searchIndex.search(new SearchQuery(Map.of(), "nara", 0L, 1));
+        SearchHits secondPage = searchIndex.search(new SearchQuery(Map.of(), "NARA", 2L, 1));
+        SearchHits middleName = searchIndex.search(new SearchQuery(Map.of(), "mah", 0L, 10));
+
+        // then - verify the output
+        assertThat(firstPage.total()).isEqualTo(2);
+        assertThat(firstPage.ids()).containsExactly(2L);
+        assertThat(secondPage.ids()).containsExactly(3L);
+        assertThat(middleName.ids()).containsExactly(1L);
+    }
+
+    // JUnit test for paging through more matches than fit on a page
+    @DisplayName("JUnit test for paging through more matches than fit on a page")
+    @Test
+    public void givenManyMatchesInAnyOrder_whenSearchPages_thenReturnSmallestIdsAfterCursorInOrder(){
+        // given - precondition or setup
+        for (long id = 100; id >= 10; id -= 3) {
+            searchIndex.upsert(employee(id, "Ravi", "Teja", "Sales", "Hyderabad", EmploymentStatus.FULL_TIME));
+        }
+
+        // when -  action or the behaviour that we are going test
+        SearchHits firstPage = searchIndex.search(new SearchQuery(Map.of(SearchFacet.DEPARTMENT, Set.of("Sales")), null, 0L, 4));
+        SearchHits nextPage = searchIndex.search(new SearchQuery(Map.of(SearchFacet.DEPARTMENT, Set.of("Sales")), null, 19L, 4));
+        SearchHits lastPage = searchIndex.search(new SearchQuery(Map.of(SearchFacet.DEPARTMENT, Set.of("Sales")), null, 94L, 4));
+
+        // then - verify the output
+        assertThat(firstPage.total()).isEqualTo(31);
+        assertThat(firstPage.ids()).containsExactly(10L, 13L, 16L, 19L);
+        assertThat(nextPage.ids()).containsExactly(22L, 25L, 28L, 31L);
+        assertThat(lastPage.ids()).containsExactly(97L, 100L);
+        assertThat(firstPage.facets().get("city")).containsExactly(Map.entry("Hyderabad", 31));
+    }
+
+    // JUnit test for keeping the index current on update and delete
+    @DisplayName("JUnit test for keeping the index current on update and delete")
+    @Test
+    public void givenUpdateAndDelete_whenSearch_thenReflectLatestState(){
+        // when -  action or the behaviour that we are going test
+        searchIndex.upsert(employee(2L, "Arjun", "Narayan", "Finance", "Chennai", EmploymentStatus.FULL_TIME));
+        searchIndex.remove(3L);
+        searchIndex.upsert(employee(4L, "Ravi", "Teja", "Finance", "Hyderabad", EmploymentStatus.PART_TIME));
+
+        // then - verify the output
+        SearchHits finance = searchIndex.search(new SearchQuery(Map.of(SearchFacet.DEPARTMENT, Set.of("Finance")), null, 0L, 10));
+        assertThat(finance.ids()).containsExactly(2L, 4L);
+        assertThat(finance.facets().get("department")).containsOnlyKeys("Finance");
+        assertThat(searchIndex.search(new SearchQuery(Map.of(), "lak", 0L, 10)).total()).isZero();
+        assertThat(searchIndex.size()).isEqualTo(3);
+    }
+
+    private static Employee employee(long id, String firstName, String lastName, String department, String city,
+                                     EmploymentStatus employmentStatus){
+        return Employee.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .department(department)
+                .city(city)
+                .state("Karnataka")
+                .country("India")
+                .jobTitle("Software Engineer")
+                .employmentStatus(employmentStatus)
+                .build();
+    }
+}
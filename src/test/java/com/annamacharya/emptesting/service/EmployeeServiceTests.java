@@ -1,33 +1,62 @@
 package com.annamacharya.emptesting.service;
 
 
+import com.annamacharya.emptesting.cache.EmployeeCache;
+import com.annamacharya.emptesting.dto.BulkImportResult;
+import com.annamacharya.emptesting.dto.EmployeeSummary;
+import com.annamacharya.emptesting.dto.EmployeeVersion;
+import com.annamacharya.emptesting.dto.ImportRowResult;
 import com.annamacharya.emptesting.enums.EmploymentStatus;
 import com.annamacharya.emptesting.enums.Gender;
 import com.annamacharya.emptesting.enums.HireSource;
 import com.annamacharya.emptesting.enums.MaritalStatus;
-import com.annamacharya.emptesting.exception.ResourceNotFoundException;
+import com.annamacharya.emptesting.event.EmployeeChangedEvent;
+import com.annamacharya.emptesting.exception.EmployeeAlreadyExistsException;
 import com.annamacharya.emptesting.model.Employee;
 import com.annamacharya.emptesting.repository.EmployeeRepository;
 import com.annamacharya.emptesting.service.Impl.EmployeeServiceImpl;
+import com.annamacharya.emptesting.sharding.EmployeeShards;
+import com.annamacharya.emptesting.sharding.ShardContext;
+import com.annamacharya.emptesting.sharding.ShardKey;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validator;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
 
 import java.math.BigDecimal;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.mockito.Mockito.*;
+import static org.mockito.Mockito.never;
 
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTests {
@@ -35,6 +64,24 @@ public class EmployeeServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Validator validator;
+
+    @Spy
+    private EmployeeCache employeeCache = new EmployeeCache(100, Duration.ofMinutes(1));
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Spy
+    private EmployeeShards employeeShards = new EmployeeShards(1, ShardKey.DEPARTMENT, Map.of());
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -74,10 +121,7 @@ public class EmployeeServiceTests {
     @Test
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject(){
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.empty());
-
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
 
         System.out.println(employeeRepository);
         System.out.println(employeeService);
@@ -88,6 +132,7 @@ public class EmployeeServiceTests {
         System.out.println(savedEmployee);
         // then - verify the output
         assertThat(savedEmployee).isNotNull();
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.created(employee));
     }
 
     // JUnit test for saveEmployee method
@@ -95,19 +140,21 @@ public class EmployeeServiceTests {
     @Test
     public void givenExistingEmail_whenSaveEmployee_thenThrowsException(){
         // given - precondition or setup
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("duplicate email",
+                        new ConstraintViolationException("Duplicate entry", null, "employees.uk_employees_email")));
 
         System.out.println(employeeRepository);
         System.out.println(employeeService);
 
         // when -  action or the behaviour that we are going test
-        org.junit.jupiter.api.Assertions.assertThrows(ResourceNotFoundException.class, () -> {
+        org.junit.jupiter.api.Assertions.assertThrows(EmployeeAlreadyExistsException.class, () -> {
             employeeService.saveEmployee(employee);
         });
 
         // then
-        verify(employeeRepository, never()).save(any(Employee.class));
+        verify(employeeRepository, never()).findByEmail(any(String.class));
+        verify(eventPublisher, never()).publishEvent(any());
     }
 
     // JUnit test for getAllEmployees method
@@ -210,7 +257,7 @@ public class EmployeeServiceTests {
     @Test
     public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee(){
         // given - precondition or setup
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
         employee.setEmail("ram@gmail.com");
         employee.setFirstName("Ram");
         // when -  action or the behaviour that we are going test
@@ -221,6 +268,26 @@ public class EmployeeServiceTests {
         assertThat(updatedEmployee.getFirstName()).isEqualTo("Ram");
     }
 
+    // negative scenario - updating to an email another employee has
+    @DisplayName("JUnit test for updateEmployee method with a taken email")
+    @Test
+    public void givenTakenEmail_whenUpdateEmployee_thenThrowsException(){
+        // given - precondition or setup
+        employee.setEmail("taken@gmail.com");
+        // as from a batched update: no constraint name, only the driver's message
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("could not execute batch",
+                        new ConstraintViolationException("could not execute batch", new SQLException(
+                                "Duplicate entry 'taken@gmail.com' for key 'employees.uk_employees_email'"), null)));
+
+        // when -  action or the behaviour that we are going test
+        assertThatThrownBy(() -> employeeService.updateEmployee(employee))
+                .isInstanceOf(EmployeeAlreadyExistsException.class);
+
+        // then - verify the output
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
     // JUnit test for deleteEmployee method
     @DisplayName("JUnit test for deleteEmployee method")
     @Test
@@ -235,5 +302,206 @@ public class EmployeeServiceTests {
 
         // then - verify the output
         verify(employeeRepository, times(1)).deleteById(employeeId);
+        verify(eventPublisher).publishEvent(EmployeeChangedEvent.deleted(employeeId));
+    }
+
+    // JUnit test for getEmployeesAfter method
+    @DisplayName("JUnit test for getEmployeesAfter method")
+    @Test
+    public void givenAfterId_whenGetEmployeesAfter_thenReturnKeysetPage(){
+        // given - precondition or setup
+        given(employeeRepository.findPageAfter(0L, PageRequest.ofSize(10))).willReturn(List.of(employee));
+
+        // when -  action or the behaviour that we are going test
+        List<Employee> employeeList = employeeService.getEmployeesAfter(0L, 10);
+
+        // then - verify the output
+        assertThat(employeeList).containsExactly(employee);
+    }
+
+    // JUnit test for importEmployees method
+    @DisplayName("JUnit test for importEmployees method")
+    @Test
+    public void givenEmployeesWithDuplicates_whenImportEmployees_thenReportPerRow(){
+        // given - precondition or setup
+        ReflectionTestUtils.setField(employeeService, "importChunkSize", 100);
+        Employee taken = Employee.builder().email("taken@gmail.com").build();
+        Employee repeated = Employee.builder().email(employee.getEmail()).build();
+        given(employeeRepository.findExistingEmails(Set.of(employee.getEmail(), taken.getEmail())))
+                .willReturn(Set.of(taken.getEmail()));
+        given(employeeRepository.saveAll(List.of(employee))).willAnswer(invocation -> {
+            employee.setId(42L);
+            return List.of(employee);
+        });
+
+        // when -  action or the behaviour that we are going test
+        BulkImportResult result = employeeService.importEmployees(List.of(employee, taken, repeated).iterator());
+
+        // then - verify the output
+        assertThat(result.imported()).isEqualTo(1);
+        assertThat(result.rows()).extracting(ImportRowResult::status).containsExactly(
+                ImportRowResult.Status.IMPORTED, ImportRowResult.Status.DUPLICATE_EMAIL, ImportRowResult.Status.DUPLICATE_EMAIL);
+        assertThat(result.rows().get(0).id()).isEqualTo(42L);
+        verify(entityManager).flush();
+    }
+
+    // negative scenario - emails that differ from a taken one or from each other only in case
+    @DisplayName("JUnit test for importEmployees method with mixed-case duplicates")
+    @Test
+    public void givenMixedCaseDuplicates_whenImportEmployees_thenReportDuplicateEmail(){
+        // given - precondition or setup
+        ReflectionTestUtils.setField(employeeService, "importChunkSize", 100);
+        Employee taken = employee.toBuilder().email("TAKEN@gmail.com").build();
+        Employee repeated = employee.toBuilder().email("Ramesh@Gmail.com").build();
+        given(employeeRepository.findExistingEmails(Set.of(employee.getEmail(), taken.getEmail(), repeated.getEmail())))
+                .willReturn(Set.of("taken@gmail.com"));
+        given(employeeRepository.saveAll(List.of(employee))).willReturn(List.of(employee));
+
+        // when -  action or the behaviour that we are going test
+        BulkImportResult result = employeeService.importEmployees(List.of(employee, taken, repeated).iterator());
+
+        // then - verify the output
+        assertThat(result.rows()).extracting(ImportRowResult::status).containsExactly(
+                ImportRowResult.Status.IMPORTED, ImportRowResult.Status.DUPLICATE_EMAIL, ImportRowResult.Status.DUPLICATE_EMAIL);
+        verify(employeeRepository).saveAll(List.of(employee));
+    }
+
+    // JUnit test for importEmployees method over several shards
+    @DisplayName("JUnit test for importEmployees method over several shards")
+    @Test
+    public void givenEmployeesOfTwoShards_whenImportEmployees_thenWriteEachOnTheShardOfItsKey(){
+        // given - precondition or setup
+        ReflectionTestUtils.setField(employeeService, "importChunkSize", 100);
+        ReflectionTestUtils.setField(employeeService, "employeeShards",
+                new EmployeeShards(2, ShardKey.DEPARTMENT, Map.of("Engineering", 0, "Sales", 1)));
+        Employee sales = employee.toBuilder().email("sales@gmail.com").department("Sales").build();
+        given(employeeRepository.findExistingEmails(Set.of(employee.getEmail(), sales.getEmail()))).willReturn(Set.of());
+        Map<Long, Integer> shards = new HashMap<>();
+        given(employeeRepository.saveAll(any())).willAnswer(invocation -> {
+            List<Employee> saved = invocation.getArgument(0);
+            saved.forEach(row -> {
+                row.setId(EmployeeShards.id(ShardContext.current(), 1));
+                shards.put(row.getId(), ShardContext.current());
+            });
+            return saved;
+        });
+
+        // when -  action or the behaviour that we are going test
+        BulkImportResult result = employeeService.importEmployees(List.of(employee, sales).iterator());
+
+        // then - verify the output
+        assertThat(result.imported()).isEqualTo(2);
+        assertThat(result.rows()).extracting(ImportRowResult::id).containsExactly(1L, EmployeeShards.id(1, 1));
+        assertThat(shards).containsEntry(1L, 0).containsEntry(EmployeeShards.id(1, 1), 1);
+        verify(employeeRepository, times(2)).saveAll(any());
+    }
+
+    // negative scenario - an email taken on another shard
+    @DisplayName("JUnit test for saveEmployee method with an email taken on another shard")
+    @Test
+    public void givenEmailOnAnotherShard_whenSaveEmployee_thenThrowsException(){
+        // given - precondition or setup
+        ReflectionTestUtils.setField(employeeService, "employeeShards",
+                new EmployeeShards(2, ShardKey.DEPARTMENT, Map.of()));
+        given(employeeRepository.findByEmail(employee.getEmail()))
+                .willReturn(Optional.of(employee.toBuilder().id(EmployeeShards.id(1, 7)).build()));
+        Employee newEmployee = employee.toBuilder().id(0).build();
+
+        // when -  action or the behaviour that we are going test
+        assertThatThrownBy(() -> employeeService.saveEmployee(newEmployee))
+                .isInstanceOf(EmployeeAlreadyExistsException.class);
+
+        // then - verify the output
+        verify(employeeRepository, never()).saveAndFlush(any(Employee.class));
+    }
+
+    // JUnit test for getEmployeeById method served from the near cache
+    @DisplayName("JUnit test for getEmployeeById method served from the near cache")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenLoadOnce(){
+        // given
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        // when
+        employeeService.getEmployeeById(1L).get().setFirstName("Changed");
+        Employee cachedEmployee = employeeService.getEmployeeById(1L).get();
+
+        // then
+        assertThat(cachedEmployee.getFirstName()).isEqualTo("Durga Mahesh");
+        verify(employeeRepository, times(1)).findById(1L);
+        assertThat(employeeCache.statistics().hitCount()).isEqualTo(1);
+    }
+
+    // JUnit test for findByLastNamePrefix method
+    @DisplayName("JUnit test for findByLastNamePrefix method")
+    @Test
+    public void givenPrefixWithWildcards_whenFindByLastNamePrefix_thenEscapeThem(){
+        // given - precondition or setup
+        given(employeeRepository.findSummariesByLastNameLike("O\\_Neil\\%%", PageRequest.ofSize(5))).willReturn(List.of());
+
+        // when -  action or the behaviour that we are going test
+        List<EmployeeSummary> summaries = employeeService.findByLastNamePrefix("O_Neil%", 5);
+
+        // then - verify the output
+        assertThat(summaries).isEmpty();
+        verify(employeeRepository).findSummariesByLastNameLike("O\\_Neil\\%%", PageRequest.ofSize(5));
+    }
+
+    // JUnit test for getEmployeeVersion method
+    @DisplayName("JUnit test for getEmployeeVersion method served from the near cache")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeVersion_thenSkipRepository(){
+        // given - precondition or setup
+        employee.setVersion(2L);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(1L);
+
+        // when -  action or the behaviour that we are going test
+        Optional<EmployeeVersion> version = employeeService.getEmployeeVersion(1L);
+
+        // then - verify the output
+        assertThat(version).hasValueSatisfying(cached -> assertThat(cached.version()).isEqualTo(2L));
+        verify(employeeRepository, never()).findVersionById(1L);
+    }
+
+    // JUnit test for patchEmployee method
+    @DisplayName("JUnit test for patchEmployee method served from the near cache")
+    @Test
+    public void givenCachedEmployee_whenPatchEmployee_thenUpdateOnlyChangedColumns(){
+        // given - precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(1L);
+        given(employeeRepository.updateFields(eq(1L), eq(0L), eq(Map.of("city", "Hyderabad")), any(Instant.class)))
+                .willReturn(1);
+
+        // when -  action or the behaviour that we are going test
+        Optional<Employee> patched = employeeService.patchEmployee(1L, current -> {
+            current.setCity("Hyderabad");
+            return current;
+        }, null);
+
+        // then - verify the output
+        assertThat(patched).hasValueSatisfying(updated -> {
+            assertThat(updated.getCity()).isEqualTo("Hyderabad");
+            assertThat(updated.getVersion()).isEqualTo(1L);
+        });
+        verify(employeeRepository, times(1)).findById(1L);
+        verify(eventPublisher).publishEvent(any(EmployeeChangedEvent.class));
+    }
+
+    // JUnit test for patchEmployee method with a stale expected version
+    @DisplayName("JUnit test for patchEmployee method with a stale expected version")
+    @Test
+    public void givenStaleExpectedVersion_whenPatchEmployee_thenThrowsException(){
+        // given - precondition or setup
+        employee.setVersion(3L);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        // when -  action or the behaviour that we are going test
+        assertThatThrownBy(() -> employeeService.patchEmployee(1L, current -> current, 2L))
+                .isInstanceOf(ObjectOptimisticLockingFailureException.class);
+
+        // then - verify the output
+        verify(employeeRepository, never()).updateFields(anyLong(), anyLong(), any(), any());
     }
 }
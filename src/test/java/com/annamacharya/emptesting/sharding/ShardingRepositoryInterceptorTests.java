@@ -0,0 +1,198 @@
+package com.annamacharya.emptesting.sharding;
+
+import com.annamacharya.emptesting.dto.EmployeeSummary;
+import com.annamacharya.emptesting.model.Employee;
+import com.annamacharya.emptesting.repository.EmployeeRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+// the repository is a stand-in that runs its SQL on whichever shard the routing picked; each shard is an
+// in-memory H2 database
+public class ShardingRepositoryInterceptorTests {
+
+    private List<DataSource> shardDataSources;
+
+    private ShardingRepositoryInterceptor interceptor;
+
+    private EmployeeRepository employeeRepository;
+
+    private DataSourceTransactionManager transactionManager;
+
+    @BeforeEach
+    public void setup(){
+        shardDataSources = List.of(shard(), shard());
+        ShardRoutingDataSource routingDataSource = new ShardRoutingDataSource(shardDataSources);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionManager = new DataSourceTransactionManager(dataSource);
+
+        AtomicLong sequence = new AtomicLong();
+        EmployeeRepository target = mock(EmployeeRepository.class);
+        given(target.save(any(Employee.class))).willAnswer(invocation -> {
+            Employee employee = invocation.getArgument(0);
+            employee.setId(EmployeeShards.id(ShardContext.current(), sequence.incrementAndGet()));
+            jdbcTemplate.update("insert into employees (id, first_name, last_name, department) values (?, ?, ?, ?)",
+                    employee.getId(), employee.getFirstName(), employee.getLastName(), employee.getDepartment());
+            return employee;
+        });
+        given(target.findById(anyLong())).willAnswer(invocation -> jdbcTemplate.query(
+                "select id, first_name, last_name, department from employees where id = ?",
+                (row, i) -> employee(row.getLong(1), row.getString(2), row.getString(3), row.getString(4)),
+                (Long) invocation.getArgument(0)).stream().findFirst());
+        given(target.findPageAfter(anyLong(), any(Pageable.class))).willAnswer(invocation -> jdbcTemplate.query(
+                "select id, first_name, last_name, department from employees where id > ? order by id limit ?",
+                (row, i) -> employee(row.getLong(1), row.getString(2), row.getString(3), row.getString(4)),
+                (Long) invocation.getArgument(0), ((Pageable) invocation.getArgument(1)).getPageSize()));
+        given(target.findSummariesByLastNameLike(anyString(), any(Pageable.class))).willAnswer(invocation -> jdbcTemplate.query(
+                "select id, first_name, last_name, department from employees where last_name like ?"
+                        + " order by last_name, first_name limit ?",
+                (row, i) -> new Summary(row.getLong(1), row.getString(2), row.getString(3), row.getString(4)),
+                invocation.getArgument(0), ((Pageable) invocation.getArgument(1)).getPageSize()));
+
+        interceptor = new ShardingRepositoryInterceptor(
+                new EmployeeShards(2, ShardKey.DEPARTMENT, Map.of("Sales", 1, "Engineering", 0)), 4);
+        ProxyFactory proxyFactory = new ProxyFactory(target);
+        proxyFactory.addInterface(EmployeeRepository.class);
+        proxyFactory.addAdvice(interceptor);
+        employeeRepository = (EmployeeRepository) proxyFactory.getProxy();
+    }
+
+    @AfterEach
+    public void tearDown(){
+        interceptor.destroy();
+    }
+
+    // JUnit test for placing new employees on the shard of their department
+    @DisplayName("JUnit test for placing new employees on the shard of their department")
+    @Test
+    public void givenEmployeesOfTwoDepartments_whenSaved_thenEachIsOnItsShardWithAnIdOfTheShardRange(){
+        // given - precondition or setup
+        Employee engineer = employee(0, "Ramesh", "Fadatare", "Engineering");
+        Employee salesman = employee(0, "John", "Cena", "Sales");
+
+        // when -  action or the behaviour that we are going test
+        Employee savedEngineer = employeeRepository.save(engineer);
+        Employee savedSalesman = employeeRepository.save(salesman);
+        Optional<Employee> foundSalesman = employeeRepository.findById(savedSalesman.getId());
+
+        // then - verify the output
+        assertThat(savedEngineer.getId()).isEqualTo(1L);
+        assertThat(savedSalesman.getId()).isEqualTo(EmployeeShards.rangeStart(1) + 2);
+        assertThat(lastNames(0)).containsExactly("Fadatare");
+        assertThat(lastNames(1)).containsExactly("Cena");
+        assertThat(foundSalesman).map(Employee::getLastName).contains("Cena");
+    }
+
+    // JUnit test for pages and searches over all shards
+    @DisplayName("JUnit test for pages and searches over all shards")
+    @Test
+    public void givenEmployeesOnTwoShards_whenPagingAndSearching_thenResultsOfBothShardsAreMergedInOrder(){
+        // given - precondition or setup
+        employeeRepository.save(employee(0, "Ramesh", "Kasala", "Engineering"));
+        employeeRepository.save(employee(0, "Tony", "Kapoor", "Sales"));
+        employeeRepository.save(employee(0, "Umesh", "Karanth", "Engineering"));
+        employeeRepository.save(employee(0, "Priya", "Kamath", "Sales"));
+
+        // when -  action or the behaviour that we are going test
+        List<Employee> firstPage = employeeRepository.findPageAfter(0, PageRequest.ofSize(3));
+        List<Employee> secondPage = employeeRepository.findPageAfter(firstPage.get(2).getId(), PageRequest.ofSize(3));
+        List<EmployeeSummary> summaries = employeeRepository.findSummariesByLastNameLike("Ka%", PageRequest.ofSize(3));
+
+        // then - verify the output
+        assertThat(firstPage).extracting(Employee::getLastName).containsExactly("Kasala", "Karanth", "Kapoor");
+        assertThat(secondPage).extracting(Employee::getLastName).containsExactly("Kamath");
+        assertThat(summaries).extracting(EmployeeSummary::getLastName).containsExactly("Kamath", "Kapoor", "Karanth");
+    }
+
+    // JUnit test for keeping a transaction's writes on one shard
+    @DisplayName("JUnit test for keeping a transaction's writes on one shard")
+    @Test
+    public void givenTransactionOnOneShard_whenWritingToAnotherShard_thenRejectedButReadsStillWork(){
+        // given - precondition or setup
+        Employee engineer = employeeRepository.save(employee(0, "Ramesh", "Fadatare", "Engineering"));
+
+        // when -  action or the behaviour that we are going test
+        Optional<Employee> readInTransaction = new TransactionTemplate(transactionManager).execute(status -> {
+            employeeRepository.save(employee(0, "John", "Cena", "Sales"));
+            employeeRepository.save(employee(0, "Umesh", "Karanth", "Engineering"));
+            assertThatThrownBy(() -> employeeRepository.save(engineer)).isInstanceOf(IllegalStateException.class);
+            return employeeRepository.findById(engineer.getId());
+        });
+
+        // then - verify the output
+        assertThat(readInTransaction).map(Employee::getLastName).contains("Fadatare");
+        assertThat(lastNames(0)).containsExactly("Fadatare");
+        assertThat(lastNames(1)).containsExactly("Cena", "Karanth");
+    }
+
+    private List<String> lastNames(int shard) {
+        return new JdbcTemplate(shardDataSources.get(shard)).queryForList("select last_name from employees order by id",
+                String.class);
+    }
+
+    private static DataSource shard() {
+        DriverManagerDataSource dataSource =
+                new DriverManagerDataSource("jdbc:h2:mem:shard-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(dataSource).execute("create table employees (id bigint primary key, first_name varchar(50),"
+                + " last_name varchar(50), department varchar(50))");
+        return dataSource;
+    }
+
+    private static Employee employee(long id, String firstName, String lastName, String department) {
+        return Employee.builder()
+                .id(id)
+                .firstName(firstName)
+                .lastName(lastName)
+                .department(department)
+                .build();
+    }
+
+    private record Summary(long id, String firstName, String lastName, String department) implements EmployeeSummary {
+
+        @Override
+        public long getId() {
+            return id;
+        }
+
+        @Override
+        public String getFirstName() {
+            return firstName;
+        }
+
+        @Override
+        public String getLastName() {
+            return lastName;
+        }
+
+        @Override
+        public String getDepartment() {
+            return department;
+        }
+    }
+}
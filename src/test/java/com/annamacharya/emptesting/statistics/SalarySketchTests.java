@@ -0,0 +1,64 @@
+package com.annamacharya.emptesting.statistics;
+
+import com.annamacharya.emptesting.dto.SalaryStatisticsResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class SalarySketchTests {
+
+    // JUnit test for quantiles within the relative error
+    @DisplayName("JUnit test for quantiles within the relative error")
+    @Test
+    public void givenSalaries_whenQuantile_thenWithinRelativeErrorOfExact(){
+        // given - precondition or setup
+        Random random = new Random(42);
+        SalarySketch sketch = new SalarySketch(0.01);
+        List<Double> salaries = new ArrayList<>();
+        for (int i = 0; i < 10_000; i++) {
+            double salary = 30_000 + Math.abs(random.nextGaussian()) * 60_000;
+            salaries.add(salary);
+            sketch.add(BigDecimal.valueOf(salary));
+        }
+        Collections.sort(salaries);
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        for (double q : new double[]{0.25, 0.5, 0.75, 0.9, 0.99}) {
+            double exact = salaries.get((int) (q * (salaries.size() - 1)));
+            assertThat(sketch.quantile(q)).isCloseTo(exact, within(exact * 0.01));
+        }
+        List<SalaryStatisticsResult.Bin> bins = sketch.histogram(10).bins();
+        assertThat(bins).hasSize(10);
+        assertThat(bins.stream().mapToLong(SalaryStatisticsResult.Bin::count).sum()).isEqualTo(10_000L);
+    }
+
+    // JUnit test for removing and merging salaries
+    @DisplayName("JUnit test for removing and merging salaries")
+    @Test
+    public void givenRemoveAndMerge_whenQuantile_thenReflectRemainingSalaries(){
+        // given - precondition or setup
+        SalarySketch engineering = new SalarySketch(0.01);
+        engineering.add(new BigDecimal("100000"));
+        engineering.add(new BigDecimal("250000"));
+        SalarySketch finance = new SalarySketch(0.01);
+        finance.add(new BigDecimal("50000"));
+
+        // when -  action or the behaviour that we are going test
+        engineering.remove(new BigDecimal("250000"));
+        engineering.merge(finance);
+
+        // then - verify the output
+        assertThat(engineering.count()).isEqualTo(2);
+        assertThat(engineering.quantile(0)).isCloseTo(50_000, within(500.0));
+        assertThat(engineering.quantile(1)).isCloseTo(100_000, within(1_000.0));
+    }
+}
@@ -0,0 +1,49 @@
+package com.annamacharya.emptesting.stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventRingTests {
+
+    // JUnit test for reading back buffered events
+    @DisplayName("JUnit test for reading back buffered events")
+    @Test
+    public void givenPublishedEvents_whenGet_thenReturnThemBySequence(){
+        // given - precondition or setup
+        EventRing ring = new EventRing(4);
+
+        // when -  action or the behaviour that we are going test
+        long first = ring.publish("created", "{\"employeeId\":1}");
+        long second = ring.publish("updated", "{\"employeeId\":1}");
+
+        // then - verify the output
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isEqualTo(2);
+        assertThat(ring.get(2).name()).isEqualTo("updated");
+        assertThat(ring.get(3)).isNull();
+        assertThat(ring.firstAvailable()).isEqualTo(1);
+    }
+
+    // JUnit test for overwriting events a slow reader has not read yet
+    @DisplayName("JUnit test for overwriting events a slow reader has not read yet")
+    @Test
+    public void givenMoreEventsThanCapacity_whenGet_thenOldestAreOverwritten(){
+        // given - precondition or setup
+        EventRing ring = new EventRing(4);
+
+        // when -  action or the behaviour that we are going test
+        for (int i = 0; i < 6; i++) {
+            ring.publish("updated", "{\"employeeId\":" + i + "}");
+        }
+
+        // then - verify the output
+        assertThat(ring.lastSequence()).isEqualTo(6);
+        assertThat(ring.firstAvailable()).isEqualTo(3);
+        assertThat(ring.get(2)).isNull();
+        assertThat(ring.get(3).data()).isEqualTo("{\"employeeId\":2}");
+        assertThatThrownBy(() -> new EventRing(6)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
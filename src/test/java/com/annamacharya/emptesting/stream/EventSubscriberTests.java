@@ -0,0 +1,80 @@
+package com.annamacharya.emptesting.stream;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.*;
+
+public class EventSubscriberTests {
+
+    // JUnit test for closing a subscriber whose client stopped reading
+    @DisplayName("JUnit test for closing a subscriber whose client stopped reading")
+    @Test
+    public void givenSendBlockedOnClient_whenSendTimeoutPasses_thenCloseSubscriberWithError() throws Exception{
+        // given - precondition or setup
+        SseEmitter emitter = mock(SseEmitter.class);
+        CountDownLatch sending = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            sending.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).given(emitter).send(any(SseEmitter.SseEventBuilder.class));
+        ExecutorService dispatcher = Executors.newSingleThreadExecutor();
+        AtomicBoolean closed = new AtomicBoolean();
+        EventSubscriber subscriber = new EventSubscriber(emitter, new EventRing(4), dispatcher, OverflowPolicy.SKIP,
+                "epoch", 1, false, () -> closed.set(true));
+        boolean idleStalled = subscriber.closeIfStalled(0);
+
+        // when -  action or the behaviour that we are going test
+        subscriber.signal();
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(5);
+        boolean stalled = subscriber.closeIfStalled(TimeUnit.MILLISECONDS.toNanos(1));
+        release.countDown();
+        dispatcher.shutdown();
+
+        // then - verify the output
+        assertThat(idleStalled).isFalse();
+        assertThat(stalled).isTrue();
+        assertThat(closed).isTrue();
+        verify(emitter).completeWithError(any(IOException.class));
+        assertThat(subscriber.closeIfStalled(0)).isFalse();
+    }
+
+    // JUnit test for sending a long backlog over several drain tasks
+    @DisplayName("JUnit test for sending a long backlog over several drain tasks")
+    @Test
+    public void givenBacklogLongerThanOneDrain_whenSignal_thenSendEveryEventInOrder() throws Exception{
+        // given - precondition or setup
+        SseEmitter emitter = mock(SseEmitter.class);
+        EventRing ring = new EventRing(1024);
+        for (int i = 0; i < 600; i++) {
+            ring.publish("updated", "{}");
+        }
+        AtomicInteger drains = new AtomicInteger();
+        EventSubscriber subscriber = new EventSubscriber(emitter, ring, task -> {
+            drains.incrementAndGet();
+            task.run();
+        }, OverflowPolicy.SKIP, "epoch", 1, false, () -> { });
+
+        // when -  action or the behaviour that we are going test
+        subscriber.signal();
+
+        // then - verify the output
+        verify(emitter, times(601)).send(any(SseEmitter.SseEventBuilder.class));
+        assertThat(drains.get()).isEqualTo(3);
+    }
+}